@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ClasspathIndexBenchmark {
+	private static final String RESOURCE_NAME = "com/google/common/collect/ImmutableList.class";
+
+	private Path directory;
+	private List<Path> jars;
+	private ClasspathIndex index;
+
+	@Setup
+	public void setUp() throws IOException {
+		//The JARs are copied so that index files are not written next to the originals.
+		directory = Files.createTempDirectory("classpath-index-benchmark");
+		jars = new ArrayList<>();
+
+		for (Path entry : SystemProperties.javaClasspath.get(ImmutableList.of())) {
+			if (Files.isRegularFile(entry) && entry.toString().endsWith(".jar")) {
+				jars.add(Files.copy(entry, directory.resolve(jars.size() + ".jar")));
+			}
+		}
+
+		index = ClasspathIndex.build(jars);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+
+		Files.delete(directory);
+	}
+
+	@Benchmark
+	public ClasspathIndex buildWithIndexFiles() {
+		return ClasspathIndex.build(jars);
+	}
+
+	@Benchmark
+	public ClasspathIndex buildWithoutIndexFiles() {
+		return ClasspathIndex.build(jars, false);
+	}
+
+	@Benchmark
+	public Path findEntry() {
+		return index.findEntry(RESOURCE_NAME);
+	}
+
+	@Benchmark
+	public URL getResource() {
+		return ClasspathIndexBenchmark.class.getClassLoader().getResource(RESOURCE_NAME);
+	}
+}
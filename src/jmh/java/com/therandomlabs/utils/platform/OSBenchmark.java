@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class OSBenchmark {
+	@State(Scope.Benchmark)
+	public static class Names {
+		@Param({"Windows 10", "Mac OS X", "Linux", "Unknown OS"})
+		public String osName;
+	}
+
+	@State(Scope.Benchmark)
+	public static class VersionNumbers {
+		@Param({"10.13.6"})
+		public String versionNumber;
+	}
+
+	@Benchmark
+	public OS fromName(Names names) {
+		return OS.fromName(names.osName);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Versions {
+		public OSVersion version = MacOSVersion.HIGH_SIERRA;
+		public OSVersion minimumVersion = MacOSVersion.SIERRA;
+	}
+
+	@Benchmark
+	public boolean isAtLeast(Versions versions) {
+		return versions.version.isAtLeast(versions.minimumVersion);
+	}
+
+	@Benchmark
+	public int compareVersions(Versions versions) {
+		return versions.version.compareTo(versions.minimumVersion);
+	}
+
+	@Benchmark
+	public OSVersion getVersionByName() {
+		return OS.MACOS.getVersionByName("macOS High Sierra");
+	}
+
+	@Benchmark
+	public OSVersion getVersionByVersionNumber(VersionNumbers versionNumbers) {
+		return OS.MACOS.getVersionByVersionNumber(versionNumbers.versionNumber);
+	}
+}
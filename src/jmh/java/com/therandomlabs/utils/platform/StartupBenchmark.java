@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+//Measures class initialization cost by loading the library in a fresh class loader for every
+//invocation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 100)
+@Fork(5)
+public class StartupBenchmark {
+	private URL[] classpath;
+	private URLClassLoader classLoader;
+
+	@Setup(Level.Trial)
+	public void setUpClasspath() throws MalformedURLException {
+		final Collection<Path> locations = Platform.getClassLocations(Arrays.asList(
+				Platform.class, ImmutableSet.class, LoggerFactory.class,
+				LoggerFactory.getILoggerFactory().getClass()
+		)).values();
+
+		classpath = new URL[locations.size()];
+		int i = 0;
+
+		for (Path location : locations) {
+			classpath[i++] = location.toUri().toURL();
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpClassLoader() {
+		classLoader = new URLClassLoader(classpath, ClassLoader.getSystemClassLoader().getParent());
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeClassLoader() throws IOException {
+		classLoader.close();
+	}
+
+	@Benchmark
+	public Object platformConstant() throws ReflectiveOperationException {
+		return Class.forName(Platform.class.getName(), true, classLoader).
+				getField("IS_WINDOWS_OR_WINDOWS_CE").
+				get(null);
+	}
+
+	@Benchmark
+	public Object currentPlatformAccessor() throws ReflectiveOperationException {
+		return Class.forName(CurrentPlatform.class.getName(), true, classLoader).
+				getMethod("isWindowsOrWindowsCE").
+				invoke(null);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty.type;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.therandomlabs.utils.platform.systemproperty.PropertyOverrides;
+import com.therandomlabs.utils.platform.systemproperty.PropertySources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class SystemPropertyBenchmark {
+	private final BooleanProperty booleanProperty =
+			new BooleanProperty("trlutils.benchmark.boolean");
+	private final IntProperty intProperty = new IntProperty("trlutils.benchmark.int");
+	private final LongProperty longProperty = new LongProperty("trlutils.benchmark.long");
+	private final StringProperty stringProperty = new StringProperty("trlutils.benchmark.string");
+	private final PathProperty pathProperty = new PathProperty("trlutils.benchmark.path");
+	private final PathListProperty pathListProperty =
+			new PathListProperty("trlutils.benchmark.pathList");
+	private final StringListProperty stringListProperty =
+			new StringListProperty("trlutils.benchmark.stringList", ',');
+	private final PathListProperty environmentPathListProperty =
+			new PathListProperty("PATH", PropertySources.environment());
+
+	@Setup
+	public void setUp() {
+		booleanProperty.forceSet("true");
+		intProperty.forceSet("123456");
+		longProperty.forceSet("1234567890123");
+		stringProperty.forceSet("value");
+		pathProperty.forceSet("build/benchmark");
+		pathListProperty.forceSet(String.join(
+				File.pathSeparator, "build/first", "build/second", "build/third"
+		));
+		stringListProperty.forceSet("a,b,c,d");
+	}
+
+	@Benchmark
+	public Boolean booleanProperty() {
+		return booleanProperty.get();
+	}
+
+	@Benchmark
+	public boolean booleanPropertyAsBoolean() {
+		return booleanProperty.getAsBoolean(false);
+	}
+
+	@Benchmark
+	public Integer intProperty() {
+		return intProperty.get();
+	}
+
+	@Benchmark
+	public int intPropertyAsInt() {
+		return intProperty.getAsInt(0);
+	}
+
+	@Benchmark
+	public Integer overriddenIntProperty() {
+		final PropertyOverrides.Scope scope = intProperty.override(654321);
+
+		try {
+			return intProperty.get();
+		} finally {
+			scope.close();
+		}
+	}
+
+	@Benchmark
+	public Long longProperty() {
+		return longProperty.get();
+	}
+
+	@Benchmark
+	public long longPropertyAsLong() {
+		return longProperty.getAsLong(0L);
+	}
+
+	@Benchmark
+	public String stringProperty() {
+		return stringProperty.get();
+	}
+
+	@Benchmark
+	public Path pathProperty() {
+		return pathProperty.get();
+	}
+
+	@Benchmark
+	public List<Path> pathListProperty() {
+		return pathListProperty.get();
+	}
+
+	@Benchmark
+	public List<String> stringListProperty() {
+		return stringListProperty.get();
+	}
+
+	@Benchmark
+	public List<Path> environmentPathListProperty() {
+		return environmentPathListProperty.get();
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty.type;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Each benchmark is run with 1, 2 and 4 threads and with one thread per available processor, so
+//that scaling can be read off a single run. This is only meaningful on multi-core hardware.
+//Writes to a shared key are serialized by its lock. Writes to different system properties are
+//not expected to scale either, since every write to System.getProperties() takes its monitor,
+//including on Java 9 and newer. Writes to different keys of a ConcurrentHashMap-backed source
+//only contend on the locks striped by key in this library, so they are expected to scale.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class SystemPropertyContentionBenchmark {
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	@State(Scope.Benchmark)
+	public static class SharedKey {
+		private final IntProperty property =
+				new IntProperty("trlutils.benchmark.contention.shared", true);
+
+		@Setup
+		public void setUp() {
+			property.set(0);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class DifferentKeysInMemory {
+		private final IntProperty property = new IntProperty(
+				"trlutils.benchmark.contention." + threadCount.getAndIncrement(),
+				true, InMemoryPropertySource.INSTANCE
+		);
+
+		@Setup
+		public void setUp() {
+			property.set(0);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class DifferentKeys {
+		private final IntProperty property = new IntProperty(
+				"trlutils.benchmark.contention." + threadCount.getAndIncrement(), true
+		);
+
+		@Setup
+		public void setUp() {
+			property.set(0);
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Integer updateSharedKey1Thread(SharedKey state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(2)
+	public Integer updateSharedKey2Threads(SharedKey state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Integer updateSharedKey4Threads(SharedKey state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Integer updateSharedKeyMaxThreads(SharedKey state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Integer updateDifferentKeys1Thread(DifferentKeys state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(2)
+	public Integer updateDifferentKeys2Threads(DifferentKeys state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Integer updateDifferentKeys4Threads(DifferentKeys state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Integer updateDifferentKeysMaxThreads(DifferentKeys state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Integer updateDifferentKeysInMemory1Thread(DifferentKeysInMemory state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(2)
+	public Integer updateDifferentKeysInMemory2Threads(DifferentKeysInMemory state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Integer updateDifferentKeysInMemory4Threads(DifferentKeysInMemory state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Integer updateDifferentKeysInMemoryMaxThreads(DifferentKeysInMemory state) {
+		return increment(state.property);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean compareAndSetDifferentKeys1Thread(DifferentKeys state) {
+		return compareAndIncrement(state.property);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public boolean compareAndSetDifferentKeysMaxThreads(DifferentKeys state) {
+		return compareAndIncrement(state.property);
+	}
+
+	private static Integer increment(IntProperty property) {
+		return property.updateAndGet(value -> value + 1);
+	}
+
+	private static boolean compareAndIncrement(IntProperty property) {
+		final Integer value = property.get();
+		return property.compareAndSet(value, value + 1);
+	}
+
+	private static final class InMemoryPropertySource implements PropertySource {
+		static final InMemoryPropertySource INSTANCE = new InMemoryPropertySource();
+
+		private final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+
+		@Override
+		public String get(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		public boolean isWritable() {
+			return true;
+		}
+
+		@Override
+		public String set(String key, String value) {
+			return value == null ? values.remove(key) : values.put(key, value);
+		}
+
+		@Override
+		public boolean compareAndSet(
+				String key, String expected, String value
+		) {
+			if (expected == null) {
+				return value == null ?
+						!values.containsKey(key) : values.putIfAbsent(key, value) == null;
+			}
+
+			return value == null ?
+					values.remove(key, expected) : values.replace(key, expected, value);
+		}
+	}
+}
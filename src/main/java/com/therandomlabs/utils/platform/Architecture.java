@@ -23,10 +23,9 @@
 
 package com.therandomlabs.utils.platform;
 
-import java.util.HashSet;
-import java.util.Locale;
 import java.util.Set;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 
@@ -83,24 +82,16 @@ public enum Architecture {
 	 */
 	UNKNOWN("Unknown");
 
+	//Whitespace, hyphens and underscores are ignored in both the known names and the names
+	//passed to Architecture#fromName.
+	private static final CaseInsensitiveTrie<Architecture> NAMES = buildNameTrie();
+
 	private final String friendlyName;
 	private final ImmutableSet<String> architectureNames;
-	private final ImmutableSet<String> searchNames;
 
 	Architecture(String friendlyName, String... architectureNames) {
 		this.friendlyName = friendlyName;
 		this.architectureNames = ImmutableSet.copyOf(architectureNames);
-
-		//We create a separate set with hyphens and underscores stripped so that
-		//Architecture#fromName has an easier time finding the correct Architecture.
-		final Set<String> searchNames = new HashSet<>(architectureNames.length + 1);
-		searchNames.add(friendlyName.replaceAll("[-_]", ""));
-
-		for (String name : architectureNames) {
-			searchNames.add(name.replaceAll("[-_]", ""));
-		}
-
-		this.searchNames = ImmutableSet.copyOf(searchNames);
 	}
 
 	/**
@@ -133,15 +124,38 @@ public enum Architecture {
 	 * {@link #UNKNOWN} if it cannot be found.
 	 */
 	public static Architecture fromName(String architectureName) {
+		return fromName((CharSequence) architectureName);
+	}
+
+	/**
+	 * Returns the {@link Architecture} that the specified architecture name represents.
+	 * This method does not allocate.
+	 *
+	 * @param architectureName an architecture name, for example,
+	 * {@code "32-bit"} or {@code "x86-64"}.
+	 * Casing, whitespace, hyphens and underscores are ignored.
+	 * @return the {@link Architecture} that the specified architecture name represents, or
+	 * {@link #UNKNOWN} if it cannot be found.
+	 */
+	public static Architecture fromName(CharSequence architectureName) {
 		Preconditions.checkNotNull(architectureName, "architectureName should not be null");
-		architectureName = architectureName.toLowerCase(Locale.ENGLISH).replaceAll("[\\s-_]", "");
+		final Architecture architecture = NAMES.get(architectureName);
+		return architecture == null ? UNKNOWN : architecture;
+	}
+
+	private static CaseInsensitiveTrie<Architecture> buildNameTrie() {
+		final CaseInsensitiveTrie.Builder<Architecture> builder = CaseInsensitiveTrie.builder(
+				CharMatcher.whitespace().or(CharMatcher.anyOf("-_")).precomputed()
+		);
 
 		for (Architecture architecture : values()) {
-			if (architecture.searchNames.contains(architectureName)) {
-				return architecture;
+			builder.put(architecture.friendlyName, architecture);
+
+			for (String name : architecture.architectureNames) {
+				builder.put(name, architecture);
 			}
 		}
 
-		return UNKNOWN;
+		return builder.build();
 	}
 }
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An enum for CPU features that are commonly used to select optimized code paths.
+ * Each feature corresponds to one or more flags in {@code /proc/cpuinfo}.
+ *
+ * @see CPUFeatures
+ */
+public enum CPUFeature {
+	/**
+	 * x86 SSE.
+	 */
+	SSE("sse"),
+	/**
+	 * x86 SSE2.
+	 */
+	SSE2("sse2"),
+	/**
+	 * x86 SSE3, which Linux reports as {@code pni}.
+	 */
+	SSE3("pni", "sse3"),
+	/**
+	 * x86 SSSE3.
+	 */
+	SSSE3("ssse3"),
+	/**
+	 * x86 SSE4.1.
+	 */
+	SSE4_1("sse4_1"),
+	/**
+	 * x86 SSE4.2.
+	 */
+	SSE4_2("sse4_2"),
+	/**
+	 * x86 POPCNT.
+	 */
+	POPCNT("popcnt"),
+	/**
+	 * x86 AVX.
+	 */
+	AVX("avx"),
+	/**
+	 * x86 AVX2.
+	 */
+	AVX2("avx2"),
+	/**
+	 * x86 FMA3.
+	 */
+	FMA("fma"),
+	/**
+	 * x86 BMI1.
+	 */
+	BMI1("bmi1"),
+	/**
+	 * x86 BMI2.
+	 */
+	BMI2("bmi2"),
+	/**
+	 * x86 AVX-512 Foundation.
+	 */
+	AVX512F("avx512f"),
+	/**
+	 * x86 AVX-512 Conflict Detection Instructions.
+	 */
+	AVX512CD("avx512cd"),
+	/**
+	 * x86 AVX-512 Doubleword and Quadword Instructions.
+	 */
+	AVX512DQ("avx512dq"),
+	/**
+	 * x86 AVX-512 Byte and Word Instructions.
+	 */
+	AVX512BW("avx512bw"),
+	/**
+	 * x86 AVX-512 Vector Length Extensions.
+	 */
+	AVX512VL("avx512vl"),
+	/**
+	 * x86 carry-less multiplication.
+	 */
+	PCLMULQDQ("pclmulqdq"),
+	/**
+	 * x86 SHA extensions.
+	 */
+	SHA_NI("sha_ni"),
+	/**
+	 * AES instructions on x86 and ARM.
+	 */
+	AES("aes"),
+	/**
+	 * ARM Advanced SIMD (NEON), which 64-bit ARM reports as {@code asimd}.
+	 */
+	NEON("neon", "asimd"),
+	/**
+	 * ARM Scalable Vector Extension.
+	 */
+	SVE("sve"),
+	/**
+	 * ARM Scalable Vector Extension 2.
+	 */
+	SVE2("sve2"),
+	/**
+	 * ARM polynomial multiplication.
+	 */
+	PMULL("pmull"),
+	/**
+	 * ARM SHA-1 instructions.
+	 */
+	SHA1("sha1"),
+	/**
+	 * ARM SHA-2 instructions.
+	 */
+	SHA2("sha2"),
+	/**
+	 * ARM CRC32 instructions.
+	 */
+	CRC32("crc32"),
+	/**
+	 * ARM Large System Extensions atomic instructions.
+	 */
+	ATOMICS("atomics");
+
+	static {
+		//CPUFeatures stores features in a long bit mask, and shift counts are masked, so a 65th
+		//feature would silently share a bit with the first.
+		Preconditions.checkState(
+				values().length <= Long.SIZE, "At most %s CPU features are supported", Long.SIZE
+		);
+	}
+
+	private final ImmutableSet<String> flags;
+
+	CPUFeature(String... flags) {
+		this.flags = ImmutableSet.copyOf(flags);
+	}
+
+	/**
+	 * Returns the {@code /proc/cpuinfo} flags that indicate support for this {@link CPUFeature}.
+	 *
+	 * @return an immutable set containing the {@code /proc/cpuinfo} flags that indicate support
+	 * for this {@link CPUFeature}.
+	 */
+	public Set<String> getFlags() {
+		return flags;
+	}
+
+	long mask() {
+		return 1L << ordinal();
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The features supported by the CPU of the local machine, which can be used to select
+ * SIMD-optimized native libraries or code paths.
+ * <p>
+ * On Linux, the features are read from the {@code flags} (x86) or {@code Features} (ARM) line of
+ * {@code /proc/cpuinfo}, since the {@code sun.cpu.isalist} system property is empty on most JVMs.
+ * Known features are stored as a bit mask, so {@link #has(CPUFeature)} is a single bitwise
+ * operation. Elsewhere, no features are reported.
+ */
+public final class CPUFeatures {
+	private static final Logger logger = LoggerFactory.getLogger(CPUFeatures.class);
+
+	private static final Map<String, CPUFeature> featuresByFlag = new HashMap<>();
+
+	private static final Splitter WHITESPACE_SPLITTER =
+			Splitter.onPattern("\\s+").omitEmptyStrings();
+
+	static {
+		for (CPUFeature feature : CPUFeature.values()) {
+			for (String flag : feature.getFlags()) {
+				featuresByFlag.put(flag, feature);
+			}
+		}
+	}
+
+	private final long mask;
+	private final ImmutableSet<String> flags;
+
+	private CPUFeatures(ImmutableSet<String> flags) {
+		long mask = 0L;
+
+		for (String flag : flags) {
+			final CPUFeature feature = featuresByFlag.get(flag);
+
+			if (feature != null) {
+				mask |= feature.mask();
+			}
+		}
+
+		this.mask = mask;
+		this.flags = flags;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).add("features", getFeatures()).toString();
+	}
+
+	/**
+	 * Returns whether the specified {@link CPUFeature} is supported.
+	 *
+	 * @param feature a {@link CPUFeature}.
+	 * @return {@code true} if the specified {@link CPUFeature} is supported,
+	 * or otherwise {@code false}.
+	 */
+	public boolean has(CPUFeature feature) {
+		Preconditions.checkNotNull(feature, "feature should not be null");
+		return (mask & feature.mask()) != 0L;
+	}
+
+	/**
+	 * Returns whether all of the specified {@link CPUFeature}s are supported.
+	 *
+	 * @param features an array of {@link CPUFeature}s.
+	 * @return {@code true} if all of the specified {@link CPUFeature}s are supported,
+	 * or otherwise {@code false}.
+	 */
+	public boolean hasAll(CPUFeature... features) {
+		Preconditions.checkNotNull(features, "features should not be null");
+		long required = 0L;
+
+		for (CPUFeature feature : features) {
+			required |= feature.mask();
+		}
+
+		return (mask & required) == required;
+	}
+
+	/**
+	 * Returns whether the specified raw {@code /proc/cpuinfo} flag is present.
+	 * This can be used for features that are not represented by {@link CPUFeature}.
+	 *
+	 * @param flag a {@code /proc/cpuinfo} flag, e.g. {@code "avx512_vnni"}.
+	 * @return {@code true} if the specified flag is present, or otherwise {@code false}.
+	 */
+	public boolean hasFlag(String flag) {
+		Preconditions.checkNotNull(flag, "flag should not be null");
+		return flags.contains(flag);
+	}
+
+	/**
+	 * Returns the supported {@link CPUFeature}s.
+	 *
+	 * @return an immutable set containing the supported {@link CPUFeature}s.
+	 */
+	public Set<CPUFeature> getFeatures() {
+		final EnumSet<CPUFeature> features = EnumSet.noneOf(CPUFeature.class);
+
+		for (CPUFeature feature : CPUFeature.values()) {
+			if (has(feature)) {
+				features.add(feature);
+			}
+		}
+
+		return Sets.immutableEnumSet(features);
+	}
+
+	/**
+	 * Returns all raw {@code /proc/cpuinfo} flags.
+	 *
+	 * @return an immutable set containing all raw {@code /proc/cpuinfo} flags.
+	 */
+	public Set<String> getFlags() {
+		return flags;
+	}
+
+	/**
+	 * Returns the size of the preferred vector shape of the Vector API in bits, i.e. the
+	 * {@code vectorBitSize()} of {@code IntVector.SPECIES_PREFERRED}. This is only available if
+	 * the {@code jdk.incubator.vector} module is present, which usually requires
+	 * {@code --add-modules jdk.incubator.vector}.
+	 *
+	 * @return the size of the preferred vector shape of the Vector API in bits,
+	 * or an empty {@link OptionalInt} if the Vector API is not available.
+	 */
+	public static OptionalInt getPreferredVectorBitSize() {
+		return VectorHolder.PREFERRED_VECTOR_BIT_SIZE;
+	}
+
+	/**
+	 * Returns the features supported by the CPU of the local machine.
+	 * They are only read once, and the same instance is returned on subsequent calls.
+	 *
+	 * @return the features supported by the CPU of the local machine.
+	 */
+	public static CPUFeatures current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	static CPUFeatures read(Path cpuinfo) {
+		//Every processor has its own section, but we assume that all processors support the same
+		//features and only read the first one.
+		for (String line : SysFs.readLines(cpuinfo)) {
+			final int colon = line.indexOf(':');
+
+			if (colon == -1) {
+				continue;
+			}
+
+			final String key = line.substring(0, colon).trim();
+
+			if ("flags".equals(key) || "Features".equals(key)) {
+				return new CPUFeatures(ImmutableSet.copyOf(
+						WHITESPACE_SPLITTER.split(line.substring(colon + 1))
+				));
+			}
+		}
+
+		return new CPUFeatures(ImmutableSet.of());
+	}
+
+	private static final class CurrentHolder {
+		static final CPUFeatures CURRENT = read(Paths.get("/proc/cpuinfo"));
+	}
+
+	private static final class VectorHolder {
+		static final OptionalInt PREFERRED_VECTOR_BIT_SIZE = findPreferredVectorBitSize();
+
+		//We use reflection since the Vector API is an incubator module that is not available on
+		//Java 8 and is not resolved by default.
+		private static OptionalInt findPreferredVectorBitSize() {
+			try {
+				final Class<?> intVector = Class.forName("jdk.incubator.vector.IntVector");
+				final Object species = intVector.getField("SPECIES_PREFERRED").get(null);
+				final Method vectorBitSize =
+						Class.forName("jdk.incubator.vector.VectorSpecies").
+								getMethod("vectorBitSize");
+				return OptionalInt.of((Integer) vectorBitSize.invoke(species));
+			} catch (ClassNotFoundException ex) {
+				logger.debug("Vector API is not available");
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+				logger.debug("Failed to determine preferred vector size", ex);
+			}
+
+			return OptionalInt.empty();
+		}
+	}
+}
@@ -0,0 +1,440 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.ImmutableIntArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The CPU topology of the local machine: sockets, cores, SMT siblings, NUMA nodes and caches.
+ * <p>
+ * On Linux, the topology is read from {@code /sys/devices/system/cpu} and
+ * {@code /sys/devices/system/node}. Elsewhere, {@link #isAvailable()} returns {@code false},
+ * and every CPU reported by {@link Runtime#availableProcessors()} is treated as a separate core
+ * in a single socket. Per-CPU information is stored in primitive arrays indexed by CPU number,
+ * and CPU lists are stored as bitsets.
+ */
+public final class CPUTopology {
+	private static final Logger logger = LoggerFactory.getLogger(CPUTopology.class);
+
+	private static final int MAX_CACHE_LEVEL = 3;
+	private static final long[] NO_CPUS = new long[0];
+
+	private final boolean available;
+	private final long[] onlineCPUs;
+	private final int cpuCount;
+	private final int[] sockets;
+	private final int[] cores;
+	private final int[] nodes;
+	private final long[][] smtSiblings;
+	private final int socketCount;
+	private final int coreCount;
+	private final int threadsPerCore;
+	private final ImmutableIntArray nodeIDs;
+	private final long[][] nodeCPUs;
+	private final long[] nodeMemory;
+	//Indexed by cache level. Only data and unified caches are recorded.
+	private final long[] cacheSizes;
+	private final int[] cacheLineSizes;
+
+	private CPUTopology(Path sysDevicesSystem, int availableProcessors) {
+		final Path cpuDirectory = sysDevicesSystem.resolve("cpu");
+		BitSet online = SysFs.readCPUList(cpuDirectory.resolve("online"));
+		available = !online.isEmpty();
+
+		if (!available) {
+			online = new BitSet();
+			online.set(0, availableProcessors);
+		}
+
+		onlineCPUs = online.toLongArray();
+		cpuCount = online.cardinality();
+
+		final int length = online.length();
+		sockets = new int[length];
+		cores = new int[length];
+		nodes = new int[length];
+		smtSiblings = new long[length][];
+		Arrays.fill(sockets, -1);
+		Arrays.fill(cores, -1);
+		Arrays.fill(nodes, -1);
+		Arrays.fill(smtSiblings, NO_CPUS);
+
+		//Each core is identified by its socket and its core ID within that socket.
+		final long[] socketCores = new long[cpuCount];
+		int threadsPerCore = 1;
+		int i = 0;
+
+		for (int cpu = online.nextSetBit(0); cpu >= 0; cpu = online.nextSetBit(cpu + 1)) {
+			final Path topology = cpuDirectory.resolve("cpu" + cpu).resolve("topology");
+
+			if (available) {
+				sockets[cpu] = (int) SysFs.readLong(topology.resolve("physical_package_id"), -1L);
+				cores[cpu] = (int) SysFs.readLong(topology.resolve("core_id"), -1L);
+				final BitSet siblings = SysFs.readCPUList(topology.resolve("thread_siblings_list"));
+				smtSiblings[cpu] = siblings.toLongArray();
+				threadsPerCore = Math.max(threadsPerCore, siblings.cardinality());
+			}
+
+			//If the core is not known, we treat the logical CPU as a separate core.
+			socketCores[i++] = cores[cpu] == -1 ?
+					-1L - cpu : ((long) sockets[cpu] << 32) | (cores[cpu] & 0xFFFFFFFFL);
+		}
+
+		this.threadsPerCore = threadsPerCore;
+		coreCount = countDistinct(socketCores);
+		socketCount = Math.max(1, countDistinct(Arrays.stream(sockets).
+				filter(socket -> socket != -1).
+				asLongStream().
+				toArray()));
+
+		final BitSet onlineNodes = available ?
+				SysFs.readCPUList(sysDevicesSystem.resolve("node").resolve("online")) :
+				new BitSet();
+		nodeIDs = ImmutableIntArray.copyOf(onlineNodes.stream().toArray());
+		nodeCPUs = new long[nodeIDs.length()][];
+		nodeMemory = new long[nodeIDs.length()];
+
+		for (int index = 0; index < nodeIDs.length(); index++) {
+			final int node = nodeIDs.get(index);
+			final Path nodeDirectory = sysDevicesSystem.resolve("node").resolve("node" + node);
+			final BitSet cpus = SysFs.readCPUList(nodeDirectory.resolve("cpulist"));
+			nodeCPUs[index] = cpus.toLongArray();
+			nodeMemory[index] = readNodeMemory(nodeDirectory.resolve("meminfo"));
+
+			for (int cpu = cpus.nextSetBit(0); cpu >= 0; cpu = cpus.nextSetBit(cpu + 1)) {
+				if (cpu < length) {
+					nodes[cpu] = node;
+				}
+			}
+		}
+
+		cacheSizes = new long[MAX_CACHE_LEVEL + 1];
+		cacheLineSizes = new int[MAX_CACHE_LEVEL + 1];
+		Arrays.fill(cacheSizes, -1L);
+		Arrays.fill(cacheLineSizes, -1);
+
+		if (available && cpuCount > 0) {
+			readCaches(cpuDirectory.resolve("cpu" + online.nextSetBit(0)).resolve("cache"));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("available", available).
+				add("cpus", cpuCount).
+				add("cores", coreCount).
+				add("sockets", socketCount).
+				add("threadsPerCore", threadsPerCore).
+				add("nodes", nodeIDs).
+				add("cacheSizes", Arrays.toString(cacheSizes)).
+				add("cacheLineSizes", Arrays.toString(cacheLineSizes)).
+				toString();
+	}
+
+	/**
+	 * Returns whether the topology could be read from the operating system.
+	 *
+	 * @return {@code true} if the topology could be read from the operating system,
+	 * or otherwise {@code false}, in which case it is derived from
+	 * {@link Runtime#availableProcessors()}.
+	 */
+	public boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * Returns the online logical CPUs.
+	 *
+	 * @return a new {@link BitSet} in which the numbers of the online logical CPUs are set.
+	 */
+	public BitSet getOnlineCPUs() {
+		return BitSet.valueOf(onlineCPUs);
+	}
+
+	/**
+	 * Returns the number of online logical CPUs.
+	 *
+	 * @return the number of online logical CPUs.
+	 */
+	public int getCPUCount() {
+		return cpuCount;
+	}
+
+	/**
+	 * Returns the number of physical cores that have at least one online logical CPU.
+	 *
+	 * @return the number of physical cores.
+	 */
+	public int getCoreCount() {
+		return coreCount;
+	}
+
+	/**
+	 * Returns the number of sockets, i.e. physical packages.
+	 *
+	 * @return the number of sockets.
+	 */
+	public int getSocketCount() {
+		return socketCount;
+	}
+
+	/**
+	 * Returns the largest number of logical CPUs that share a physical core,
+	 * e.g. {@code 2} if simultaneous multithreading (SMT) is enabled on most x86 CPUs.
+	 *
+	 * @return the largest number of logical CPUs that share a physical core.
+	 */
+	public int getThreadsPerCore() {
+		return threadsPerCore;
+	}
+
+	/**
+	 * Returns the socket of the specified logical CPU.
+	 *
+	 * @param cpu a logical CPU number.
+	 * @return the socket of the specified logical CPU, or {@code -1} if it is not known.
+	 */
+	public int getSocket(int cpu) {
+		return get(sockets, cpu);
+	}
+
+	/**
+	 * Returns the core ID of the specified logical CPU. Core IDs are only unique within a socket.
+	 *
+	 * @param cpu a logical CPU number.
+	 * @return the core ID of the specified logical CPU, or {@code -1} if it is not known.
+	 */
+	public int getCore(int cpu) {
+		return get(cores, cpu);
+	}
+
+	/**
+	 * Returns the NUMA node of the specified logical CPU.
+	 *
+	 * @param cpu a logical CPU number.
+	 * @return the NUMA node of the specified logical CPU, or {@code -1} if it is not known.
+	 */
+	public int getNode(int cpu) {
+		return get(nodes, cpu);
+	}
+
+	/**
+	 * Returns the logical CPUs that share a physical core with the specified logical CPU,
+	 * including the specified logical CPU itself.
+	 *
+	 * @param cpu a logical CPU number.
+	 * @return a new {@link BitSet} in which the numbers of the SMT siblings of the specified
+	 * logical CPU are set. This is empty if they are not known.
+	 */
+	public BitSet getSMTSiblings(int cpu) {
+		Preconditions.checkArgument(cpu >= 0, "cpu should not be negative");
+		return cpu < smtSiblings.length ? BitSet.valueOf(smtSiblings[cpu]) : new BitSet();
+	}
+
+	/**
+	 * Returns the IDs of the online NUMA nodes.
+	 *
+	 * @return an immutable array containing the IDs of the online NUMA nodes in ascending order.
+	 * This is empty if they are not known.
+	 */
+	public ImmutableIntArray getNodeIDs() {
+		return nodeIDs;
+	}
+
+	/**
+	 * Returns the logical CPUs of the specified NUMA node.
+	 *
+	 * @param node a NUMA node ID.
+	 * @return a new {@link BitSet} in which the numbers of the logical CPUs of the specified
+	 * NUMA node are set. This is empty if the NUMA node is not known.
+	 */
+	public BitSet getNodeCPUs(int node) {
+		final int index = nodeIDs.indexOf(node);
+		return index == -1 ? new BitSet() : BitSet.valueOf(nodeCPUs[index]);
+	}
+
+	/**
+	 * Returns the total amount of memory of the specified NUMA node, in bytes.
+	 *
+	 * @param node a NUMA node ID.
+	 * @return the total amount of memory of the specified NUMA node, or {@code -1} if it is not
+	 * known.
+	 */
+	public long getNodeMemory(int node) {
+		final int index = nodeIDs.indexOf(node);
+		return index == -1 ? -1L : nodeMemory[index];
+	}
+
+	/**
+	 * Returns the size of the data or unified cache at the specified level, in bytes,
+	 * as seen by the first online logical CPU.
+	 *
+	 * @param level a cache level between {@code 1} and {@code 3}.
+	 * @return the size of the data or unified cache at the specified level, or {@code -1} if it is
+	 * not known.
+	 */
+	public long getCacheSize(int level) {
+		checkCacheLevel(level);
+		return cacheSizes[level];
+	}
+
+	/**
+	 * Returns the line size of the data or unified cache at the specified level, in bytes,
+	 * as seen by the first online logical CPU.
+	 *
+	 * @param level a cache level between {@code 1} and {@code 3}.
+	 * @return the line size of the data or unified cache at the specified level,
+	 * or {@code -1} if it is not known.
+	 */
+	public int getCacheLineSize(int level) {
+		checkCacheLevel(level);
+		return cacheLineSizes[level];
+	}
+
+	/**
+	 * Returns the CPU topology of the local machine.
+	 * It is only read once, and the same instance is returned on subsequent calls.
+	 *
+	 * @return the CPU topology of the local machine.
+	 */
+	public static CPUTopology current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	static CPUTopology read(Path sysDevicesSystem, int availableProcessors) {
+		final CPUTopology topology = new CPUTopology(sysDevicesSystem, availableProcessors);
+		logger.debug("Read CPU topology: {}", topology);
+		return topology;
+	}
+
+	private void readCaches(Path cacheDirectory) {
+		for (int index = 0; ; index++) {
+			final Path directory = cacheDirectory.resolve("index" + index);
+			final long level = SysFs.readLong(directory.resolve("level"), -1L);
+
+			if (level == -1L) {
+				break;
+			}
+
+			if (level < 1L || level > MAX_CACHE_LEVEL ||
+					"Instruction".equals(SysFs.readLine(directory.resolve("type")))) {
+				continue;
+			}
+
+			cacheSizes[(int) level] = parseSize(SysFs.readLine(directory.resolve("size")));
+			cacheLineSizes[(int) level] =
+					(int) SysFs.readLong(directory.resolve("coherency_line_size"), -1L);
+		}
+	}
+
+	private static void checkCacheLevel(int level) {
+		Preconditions.checkArgument(
+				level >= 1 && level <= MAX_CACHE_LEVEL, "level should be between 1 and 3"
+		);
+	}
+
+	private static int get(int[] values, int cpu) {
+		Preconditions.checkArgument(cpu >= 0, "cpu should not be negative");
+		return cpu < values.length ? values[cpu] : -1;
+	}
+
+	private static int countDistinct(long[] values) {
+		Arrays.sort(values);
+		int count = 0;
+
+		for (int i = 0; i < values.length; i++) {
+			if (i == 0 || values[i] != values[i - 1]) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	//Parses sizes such as "48K" or "32M".
+	private static long parseSize(@Nullable String size) {
+		if (size == null || size.isEmpty()) {
+			return -1L;
+		}
+
+		final char unit = size.charAt(size.length() - 1);
+		final int shift = unit == 'K' ? 10 : unit == 'M' ? 20 : unit == 'G' ? 30 : 0;
+
+		try {
+			return Long.parseLong(shift == 0 ? size : size.substring(0, size.length() - 1)) <<
+					shift;
+		} catch (NumberFormatException ex) {
+			logger.debug("Invalid cache size: {}", size);
+		}
+
+		return -1L;
+	}
+
+	//The first line is "Node 0 MemTotal:        4554488 kB".
+	private static long readNodeMemory(Path meminfo) {
+		final List<String> lines = SysFs.readLines(meminfo);
+
+		for (String line : lines) {
+			final int index = line.indexOf("MemTotal:");
+
+			if (index == -1) {
+				continue;
+			}
+
+			final String value = line.substring(index + "MemTotal:".length()).trim();
+			final int space = value.indexOf(' ');
+
+			try {
+				final long kibibytes =
+						Long.parseLong(space == -1 ? value : value.substring(0, space));
+				return kibibytes << 10;
+			} catch (NumberFormatException ex) {
+				logger.debug("Invalid NUMA node memory in {}: {}", meminfo, line);
+			}
+		}
+
+		return -1L;
+	}
+
+	private static final class CurrentHolder {
+		static final CPUTopology CURRENT = read(
+				Paths.get("/sys/devices/system"), Runtime.getRuntime().availableProcessors()
+		);
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable, case-insensitive prefix tree that maps {@link CharSequence} keys to values.
+ * Lookups work directly on the specified {@link CharSequence} and do not allocate.
+ *
+ * @param <V> the value type.
+ */
+final class CaseInsensitiveTrie<V> {
+	private final CharMatcher ignored;
+	private final Node<V> root;
+
+	private CaseInsensitiveTrie(CharMatcher ignored, Node<V> root) {
+		this.ignored = ignored;
+		this.root = root;
+	}
+
+	/**
+	 * Returns the value mapped to the specified key.
+	 *
+	 * @param key a key.
+	 * @return the value mapped to the specified key, or {@code null} if it cannot be found.
+	 */
+	@Nullable
+	V get(CharSequence key) {
+		return get(key, 0, key.length());
+	}
+
+	/**
+	 * Returns the value mapped to the specified region of the specified {@link CharSequence}.
+	 *
+	 * @param sequence a {@link CharSequence}.
+	 * @param start the index of the first character of the key.
+	 * @param end the index after the last character of the key.
+	 * @return the value mapped to the specified key, or {@code null} if it cannot be found.
+	 */
+	@Nullable
+	V get(CharSequence sequence, int start, int end) {
+		Node<V> node = root;
+
+		for (int i = start; i < end && node != null; i++) {
+			final char ch = sequence.charAt(i);
+
+			if (!ignored.matches(ch)) {
+				node = node.getChild(fold(ch));
+			}
+		}
+
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Returns the value mapped to the longest key that the specified region of the specified
+	 * {@link CharSequence} starts with.
+	 *
+	 * @param sequence a {@link CharSequence}.
+	 * @param start the index at which to start matching.
+	 * @param end the index at which to stop matching.
+	 * @return the value mapped to the longest matching key, or {@code null} if no key matches.
+	 */
+	@Nullable
+	V getLongestPrefix(CharSequence sequence, int start, int end) {
+		Node<V> node = root;
+		V value = null;
+
+		for (int i = start; i < end; i++) {
+			final char ch = sequence.charAt(i);
+
+			if (ignored.matches(ch)) {
+				continue;
+			}
+
+			node = node.getChild(fold(ch));
+
+			if (node == null) {
+				break;
+			}
+
+			if (node.value != null) {
+				value = node.value;
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns the value mapped to the key that best matches the specified region of the
+	 * specified {@link CharSequence} when both are treated as lists of parts delimited by the
+	 * specified separator, e.g. the parts of a version number.
+	 * <p>
+	 * If a key matches the region exactly, its value is returned. Otherwise, the deepest key whose
+	 * parts are all leading parts of the region is used, so {@code "10.13.6"} matches
+	 * {@code "10.13"}. If the region runs out of parts before a key is reached,
+	 * the value of the first key added under it is used, so {@code "10"} matches
+	 * {@code "10.8"} if {@code "10.8"} was the first {@code "10.x"} key to be added.
+	 *
+	 * @param sequence a {@link CharSequence}.
+	 * @param start the index of the first character of the region.
+	 * @param end the index after the last character of the region.
+	 * @param separator the part separator.
+	 * @return the value mapped to the key that best matches the specified region,
+	 * or {@code null} if no key matches.
+	 */
+	@Nullable
+	V getByParts(CharSequence sequence, int start, int end, char separator) {
+		Node<V> node = root;
+		V value = null;
+
+		for (int i = start; i < end; i++) {
+			final char ch = sequence.charAt(i);
+
+			if (ignored.matches(ch)) {
+				continue;
+			}
+
+			//A key that ends exactly where a part of the region ends is the best match so far.
+			if (ch == separator && node.value != null) {
+				value = node.value;
+			}
+
+			node = node.getChild(fold(ch));
+
+			if (node == null) {
+				return value;
+			}
+		}
+
+		if (node.value != null) {
+			return node.value;
+		}
+
+		final Node<V> nextPart = node.getChild(fold(separator));
+		return nextPart == null ? value : nextPart.firstValue;
+	}
+
+	/**
+	 * Returns a new {@link Builder}.
+	 *
+	 * @param ignored a {@link CharMatcher} that matches characters that should be ignored in both
+	 * keys and lookups.
+	 * @param <V> the value type.
+	 * @return a new {@link Builder}.
+	 */
+	static <V> Builder<V> builder(CharMatcher ignored) {
+		return new Builder<>(ignored);
+	}
+
+	private static char fold(char ch) {
+		//ASCII is by far the most common case.
+		if (ch < 0x80) {
+			return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+		}
+
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+
+	/**
+	 * Builds {@link CaseInsensitiveTrie}s.
+	 *
+	 * @param <V> the value type.
+	 */
+	static final class Builder<V> {
+		private final CharMatcher ignored;
+		private final BuilderNode<V> root = new BuilderNode<>();
+		private int size;
+
+		private Builder(CharMatcher ignored) {
+			this.ignored = Preconditions.checkNotNull(ignored, "ignored should not be null");
+		}
+
+		/**
+		 * Maps the specified key to the specified value.
+		 * If the key has already been added, the existing value is kept.
+		 *
+		 * @param key a key.
+		 * @param value a value.
+		 * @return this {@link Builder}.
+		 */
+		Builder<V> put(CharSequence key, V value) {
+			Preconditions.checkNotNull(key, "key should not be null");
+			Preconditions.checkNotNull(value, "value should not be null");
+			BuilderNode<V> node = root;
+
+			for (int i = 0; i < key.length(); i++) {
+				final char ch = key.charAt(i);
+
+				if (!ignored.matches(ch)) {
+					node = node.children.computeIfAbsent(fold(ch), c -> new BuilderNode<>());
+				}
+			}
+
+			if (node.value == null) {
+				node.value = value;
+				node.order = size++;
+			}
+
+			return this;
+		}
+
+		/**
+		 * Builds a {@link CaseInsensitiveTrie} containing the mappings added to this
+		 * {@link Builder}.
+		 *
+		 * @return a new {@link CaseInsensitiveTrie}.
+		 */
+		CaseInsensitiveTrie<V> build() {
+			return new CaseInsensitiveTrie<>(ignored, root.build());
+		}
+	}
+
+	private static final class Node<V> {
+		private final char[] keys;
+		private final Node<V>[] children;
+		@Nullable
+		private final V value;
+		//The value of the earliest added key that starts with this node's prefix.
+		@Nullable
+		private final V firstValue;
+
+		Node(char[] keys, Node<V>[] children, @Nullable V value, @Nullable V firstValue) {
+			this.keys = keys;
+			this.children = children;
+			this.value = value;
+			this.firstValue = firstValue;
+		}
+
+		@Nullable
+		Node<V> getChild(char key) {
+			//Most nodes only have one or two children, so a linear scan is usually quicker.
+			if (keys.length <= 4) {
+				for (int i = 0; i < keys.length; i++) {
+					if (keys[i] == key) {
+						return children[i];
+					}
+				}
+
+				return null;
+			}
+
+			final int index = Arrays.binarySearch(keys, key);
+			return index < 0 ? null : children[index];
+		}
+	}
+
+	private static final class BuilderNode<V> {
+		private final Map<Character, BuilderNode<V>> children = new TreeMap<>();
+		@Nullable
+		private V value;
+		private int order = Integer.MAX_VALUE;
+
+		@SuppressWarnings("unchecked")
+		Node<V> build() {
+			final char[] keys = new char[children.size()];
+			final Node<V>[] nodes = (Node<V>[]) new Node<?>[children.size()];
+			V firstValue = value;
+			int i = 0;
+
+			for (Map.Entry<Character, BuilderNode<V>> entry : children.entrySet()) {
+				keys[i] = entry.getKey();
+				nodes[i++] = entry.getValue().build();
+
+				//Children are built first, so their order reflects their whole subtree.
+				if (entry.getValue().order < order) {
+					order = entry.getValue().order;
+					firstValue = nodes[i - 1].firstValue;
+				}
+			}
+
+			return new Node<>(keys, nodes, value, firstValue);
+		}
+	}
+}
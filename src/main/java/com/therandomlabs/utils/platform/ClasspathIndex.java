@@ -0,0 +1,613 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the resources in a list of classpath entries, which can be used to quickly find
+ * which JAR or directory contains a resource without asking a {@link ClassLoader}.
+ * <p>
+ * The central directory of each JAR is read through a memory-mapped {@link FileChannel} rather
+ * than a {@link java.util.zip.ZipFile}, so nothing is inflated, and the classpath entries are
+ * read in parallel. The sorted resource names of each JAR can be stored in an index file next
+ * to it whose name ends with {@link #INDEX_FILE_SUFFIX}. An index file is keyed by the size and
+ * modification time of its JAR, so an unchanged JAR is not read again. All resource names are
+ * then merged into a single sorted array, and lookups are binary searches.
+ */
+public final class ClasspathIndex {
+	/**
+	 * The suffix appended to the file name of a JAR to form the file name of its index file.
+	 */
+	public static final String INDEX_FILE_SUFFIX = ".idx";
+
+	private static final Logger logger = LoggerFactory.getLogger(ClasspathIndex.class);
+
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+	private static final int ZIP64_LOCATOR_SIZE = 20;
+	private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+	private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+	private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+	//"TRLI" in ASCII.
+	private static final int INDEX_FILE_MAGIC = 0x54524c49;
+	private static final int INDEX_FILE_VERSION = 1;
+	private static final int INDEX_FILE_HEADER_SIZE = 28;
+
+	private static final String[] NO_RESOURCES = new String[0];
+
+	private final ImmutableList<Path> entries;
+	//Sorted by resource name, then by classpath entry index.
+	private final String[] resourceNames;
+	private final int[] entryIndices;
+
+	private ClasspathIndex(
+			ImmutableList<Path> entries, String[] resourceNames, int[] entryIndices
+	) {
+		this.entries = entries;
+		this.resourceNames = resourceNames;
+		this.entryIndices = entryIndices;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("entries", entries).
+				add("resources", resourceNames.length).
+				toString();
+	}
+
+	/**
+	 * Returns the classpath entries.
+	 *
+	 * @return an immutable list containing the classpath entries in order of priority.
+	 */
+	public List<Path> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns whether any classpath entry contains the resource with the specified name.
+	 *
+	 * @param resourceName a resource name as passed to {@link ClassLoader#getResource(String)},
+	 * e.g. {@code "META-INF/services/java.sql.Driver"}.
+	 * @return {@code true} if any classpath entry contains the resource with the specified name,
+	 * or otherwise {@code false}.
+	 */
+	public boolean contains(String resourceName) {
+		return findEntry(resourceName) != null;
+	}
+
+	/**
+	 * Returns the earliest classpath entry that contains the resource with the specified name.
+	 *
+	 * @param resourceName a resource name as passed to {@link ClassLoader#getResource(String)},
+	 * e.g. {@code "META-INF/services/java.sql.Driver"}.
+	 * @return the earliest classpath entry that contains the resource with the specified name,
+	 * or {@code null} if no classpath entry contains it.
+	 */
+	@Nullable
+	public Path findEntry(String resourceName) {
+		Preconditions.checkNotNull(resourceName, "resourceName should not be null");
+		final int index = lowerBound(resourceName);
+		return index < resourceNames.length && resourceNames[index].equals(resourceName) ?
+				entries.get(entryIndices[index]) : null;
+	}
+
+	/**
+	 * Returns all classpath entries that contain the resource with the specified name.
+	 *
+	 * @param resourceName a resource name as passed to {@link ClassLoader#getResource(String)},
+	 * e.g. {@code "META-INF/services/java.sql.Driver"}.
+	 * @return an immutable list containing the classpath entries that contain the resource with
+	 * the specified name in order of priority.
+	 */
+	public List<Path> findEntries(String resourceName) {
+		Preconditions.checkNotNull(resourceName, "resourceName should not be null");
+		final ImmutableList.Builder<Path> found = ImmutableList.builder();
+
+		int index = lowerBound(resourceName);
+
+		while (index < resourceNames.length && resourceNames[index].equals(resourceName)) {
+			found.add(entries.get(entryIndices[index++]));
+		}
+
+		return found.build();
+	}
+
+	/**
+	 * Returns the names of the resources that start with the specified prefix.
+	 *
+	 * @param prefix a resource name prefix, e.g. {@code "META-INF/services/"}.
+	 * @return an immutable sorted list containing the names of the resources that start with the
+	 * specified prefix. Each name is only included once, even if several classpath entries
+	 * contain it.
+	 */
+	public List<String> getResourceNames(String prefix) {
+		Preconditions.checkNotNull(prefix, "prefix should not be null");
+		final ImmutableList.Builder<String> names = ImmutableList.builder();
+		String previous = null;
+
+		int index = lowerBound(prefix);
+
+		while (index < resourceNames.length && resourceNames[index].startsWith(prefix)) {
+			if (!resourceNames[index].equals(previous)) {
+				previous = resourceNames[index];
+				names.add(previous);
+			}
+
+			index++;
+		}
+
+		return names.build();
+	}
+
+	private int lowerBound(String resourceName) {
+		int low = 0;
+		int high = resourceNames.length;
+
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+
+			if (resourceNames[middle].compareTo(resourceName) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Returns the {@link ClasspathIndex} for the classpath entries in
+	 * {@link SystemProperties#javaClasspath}, reading and writing index files.
+	 * The index is built the first time this method is called.
+	 *
+	 * @return the {@link ClasspathIndex} for the classpath entries in
+	 * {@link SystemProperties#javaClasspath}.
+	 */
+	public static ClasspathIndex current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	/**
+	 * Builds a {@link ClasspathIndex} for the specified classpath entries, reading and writing
+	 * index files.
+	 *
+	 * @param entries JARs and directories in order of priority. Entries that do not exist
+	 * are ignored.
+	 * @return a {@link ClasspathIndex} for the specified classpath entries.
+	 */
+	public static ClasspathIndex build(Collection<Path> entries) {
+		return build(entries, true);
+	}
+
+	/**
+	 * Builds a {@link ClasspathIndex} for the specified classpath entries.
+	 *
+	 * @param entries JARs and directories in order of priority. Entries that do not exist
+	 * are ignored.
+	 * @param useIndexFiles whether the index file of each JAR should be read if it is up to date,
+	 * and written otherwise. Failing to write an index file, e.g. because the directory of the JAR
+	 * is read-only, is not an error.
+	 * @return a {@link ClasspathIndex} for the specified classpath entries.
+	 */
+	public static ClasspathIndex build(Collection<Path> entries, boolean useIndexFiles) {
+		Preconditions.checkNotNull(entries, "entries should not be null");
+		final ImmutableList<Path> entryList = ImmutableSet.copyOf(entries).asList();
+		final List<String[]> names = IntStream.range(0, entryList.size()).
+				parallel().
+				mapToObj(i -> readEntry(entryList.get(i), useIndexFiles)).
+				collect(Collectors.toList());
+
+		//Each entry's names are already sorted, so we merge adjacent runs pairwise. Merging
+		//adjacent runs keeps resources with the same name ordered by entry index.
+		List<String[]> runNames = names;
+		List<int[]> runIndices = new ArrayList<>(names.size());
+
+		for (int i = 0; i < names.size(); i++) {
+			final int[] indices = new int[names.get(i).length];
+			Arrays.fill(indices, i);
+			runIndices.add(indices);
+		}
+
+		while (runNames.size() > 1) {
+			final List<String[]> mergedNames = new ArrayList<>((runNames.size() + 1) / 2);
+			final List<int[]> mergedIndices = new ArrayList<>((runNames.size() + 1) / 2);
+
+			for (int i = 0; i < runNames.size(); i += 2) {
+				if (i + 1 == runNames.size()) {
+					mergedNames.add(runNames.get(i));
+					mergedIndices.add(runIndices.get(i));
+				} else {
+					merge(
+							runNames.get(i), runIndices.get(i), runNames.get(i + 1),
+							runIndices.get(i + 1), mergedNames, mergedIndices
+					);
+				}
+			}
+
+			runNames = mergedNames;
+			runIndices = mergedIndices;
+		}
+
+		return runNames.isEmpty() ?
+				new ClasspathIndex(entryList, NO_RESOURCES, new int[0]) :
+				new ClasspathIndex(entryList, runNames.get(0), runIndices.get(0));
+	}
+
+	private static void merge(
+			String[] firstNames, int[] firstIndices, String[] secondNames, int[] secondIndices,
+			List<String[]> mergedNames, List<int[]> mergedIndices
+	) {
+		final String[] names = new String[firstNames.length + secondNames.length];
+		final int[] indices = new int[names.length];
+		int first = 0;
+		int second = 0;
+
+		for (int i = 0; i < names.length; i++) {
+			if (second == secondNames.length || (first < firstNames.length &&
+					firstNames[first].compareTo(secondNames[second]) <= 0)) {
+				names[i] = firstNames[first];
+				indices[i] = firstIndices[first++];
+			} else {
+				names[i] = secondNames[second];
+				indices[i] = secondIndices[second++];
+			}
+		}
+
+		mergedNames.add(names);
+		mergedIndices.add(indices);
+	}
+
+	private static String[] readEntry(Path entry, boolean useIndexFiles) {
+		try {
+			if (Files.isDirectory(entry)) {
+				return readDirectory(entry);
+			}
+
+			if (Files.isRegularFile(entry)) {
+				return useIndexFiles ? readJARWithIndexFile(entry) : readJAR(entry);
+			}
+		} catch (IOException | UncheckedIOException | SecurityException ex) {
+			logger.warn("Failed to index classpath entry: {}", entry, ex);
+		}
+
+		return NO_RESOURCES;
+	}
+
+	private static String[] readDirectory(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).
+					map(file -> directory.relativize(file).toString().
+							replace(File.separatorChar, '/')).
+					sorted().
+					toArray(String[]::new);
+		}
+	}
+
+	private static String[] readJARWithIndexFile(Path jar) throws IOException {
+		final BasicFileAttributes attributes =
+				Files.readAttributes(jar, BasicFileAttributes.class);
+		final Path indexFile = jar.resolveSibling(jar.getFileName() + INDEX_FILE_SUFFIX);
+		final String[] indexed = readIndexFile(
+				indexFile, attributes.size(), attributes.lastModifiedTime().toMillis()
+		);
+
+		if (indexed != null) {
+			return indexed;
+		}
+
+		final String[] names = readJAR(jar);
+		final BasicFileAttributes attributesAfterRead =
+				Files.readAttributes(jar, BasicFileAttributes.class);
+
+		//If the JAR changed while it was being read, the index file would be keyed incorrectly.
+		if (attributes.size() == attributesAfterRead.size() &&
+				attributes.lastModifiedTime().equals(attributesAfterRead.lastModifiedTime())) {
+			try {
+				writeIndexFile(
+						indexFile, attributes.size(), attributes.lastModifiedTime().toMillis(),
+						names
+				);
+			} catch (IOException | SecurityException ex) {
+				logger.debug("Failed to write index file: {}", indexFile, ex);
+			}
+		}
+
+		return names;
+	}
+
+	static String[] readJAR(Path jar) throws IOException {
+		try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			final int tailSize = (int) Math.min(
+					size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH + ZIP64_LOCATOR_SIZE
+			);
+			final long tailStart = size - tailSize;
+			final ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, tailStart, tailSize).
+					order(ByteOrder.LITTLE_ENDIAN);
+
+			int endOfCentralDirectory = -1;
+
+			for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+				if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+					endOfCentralDirectory = i;
+					break;
+				}
+			}
+
+			if (endOfCentralDirectory == -1) {
+				throw new ZipException("End of central directory not found: " + jar);
+			}
+
+			long centralDirectorySize = tail.getInt(endOfCentralDirectory + 12) & 0xFFFFFFFFL;
+			//The central directory immediately precedes the end of central directory record.
+			//We use this rather than the recorded offset so that data prepended to the archive,
+			//e.g. by self-extracting executables, does not matter.
+			long centralDirectoryEnd = tailStart + endOfCentralDirectory;
+
+			if (centralDirectorySize == 0xFFFFFFFFL ||
+					(tail.getShort(endOfCentralDirectory + 10) & 0xFFFF) == 0xFFFF) {
+				final int locator = endOfCentralDirectory - ZIP64_LOCATOR_SIZE;
+
+				if (locator < 0 || tail.getInt(locator) != ZIP64_LOCATOR_SIGNATURE) {
+					throw new ZipException("ZIP64 end of central directory not found: " + jar);
+				}
+
+				//As above, the ZIP64 end of central directory record usually immediately
+				//precedes the locator, which we check first so that prepended data does not
+				//matter. If it has an extensible data sector, we use the recorded offset.
+				long zip64EndOfCentralDirectory =
+						tailStart + locator - ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE;
+				ByteBuffer zip64 =
+						mapZIP64EndOfCentralDirectory(channel, zip64EndOfCentralDirectory);
+
+				if (zip64 == null) {
+					zip64EndOfCentralDirectory = tail.getLong(locator + 8);
+					zip64 = mapZIP64EndOfCentralDirectory(channel, zip64EndOfCentralDirectory);
+
+					if (zip64 == null) {
+						throw new ZipException(
+								"Invalid ZIP64 end of central directory: " + jar
+						);
+					}
+				}
+
+				centralDirectorySize = zip64.getLong(40);
+				centralDirectoryEnd = zip64EndOfCentralDirectory;
+			}
+
+			final long centralDirectoryStart = centralDirectoryEnd - centralDirectorySize;
+
+			if (centralDirectorySize > Integer.MAX_VALUE || centralDirectoryStart < 0L) {
+				throw new ZipException("Invalid central directory: " + jar);
+			}
+
+			return readCentralDirectory(
+					channel.map(
+							FileChannel.MapMode.READ_ONLY, centralDirectoryStart,
+							centralDirectorySize
+					).order(ByteOrder.LITTLE_ENDIAN),
+					jar
+			);
+		}
+	}
+
+	@Nullable
+	private static ByteBuffer mapZIP64EndOfCentralDirectory(FileChannel channel, long position)
+			throws IOException {
+		if (position < 0L || position > channel.size() - ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE) {
+			return null;
+		}
+
+		final ByteBuffer zip64 = channel.map(
+				FileChannel.MapMode.READ_ONLY, position, ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE
+		).order(ByteOrder.LITTLE_ENDIAN);
+		return zip64.getInt(0) == ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE ? zip64 : null;
+	}
+
+	private static String[] readCentralDirectory(ByteBuffer centralDirectory, Path jar)
+			throws ZipException {
+		final int size = centralDirectory.limit();
+		final List<String> names = new ArrayList<>(size / (CENTRAL_DIRECTORY_HEADER_SIZE + 16));
+		byte[] nameBytes = new byte[256];
+		int position = 0;
+
+		while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= size) {
+			if (centralDirectory.getInt(position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+				throw new ZipException("Invalid central directory header: " + jar);
+			}
+
+			final int nameLength = centralDirectory.getShort(position + 28) & 0xFFFF;
+			final int extraLength = centralDirectory.getShort(position + 30) & 0xFFFF;
+			final int commentLength = centralDirectory.getShort(position + 32) & 0xFFFF;
+			final int nameStart = position + CENTRAL_DIRECTORY_HEADER_SIZE;
+
+			if (nameStart + nameLength > size) {
+				throw new ZipException("Truncated central directory: " + jar);
+			}
+
+			//Directory entries end with a slash and are not resources.
+			if (nameLength != 0 && centralDirectory.get(nameStart + nameLength - 1) != '/') {
+				if (nameLength > nameBytes.length) {
+					nameBytes = new byte[nameLength];
+				}
+
+				centralDirectory.position(nameStart);
+				centralDirectory.get(nameBytes, 0, nameLength);
+				//JARs always use UTF-8 names.
+				names.add(new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8));
+			}
+
+			position = nameStart + nameLength + extraLength + commentLength;
+		}
+
+		return sortDistinct(names.toArray(NO_RESOURCES));
+	}
+
+	private static String[] sortDistinct(String[] names) {
+		Arrays.sort(names);
+		int distinct = 0;
+
+		for (int i = 0; i < names.length; i++) {
+			if (distinct == 0 || !names[i].equals(names[distinct - 1])) {
+				names[distinct++] = names[i];
+			}
+		}
+
+		return distinct == names.length ? names : Arrays.copyOf(names, distinct);
+	}
+
+	@Nullable
+	private static String[] readIndexFile(Path indexFile, long jarSize, long jarModificationTime) {
+		try {
+			//Index files are small, so they are read onto the heap rather than mapped. On Windows,
+			//a mapping would prevent the index file from being replaced until it is garbage
+			//collected.
+			final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+
+			if (buffer.remaining() < INDEX_FILE_HEADER_SIZE ||
+					buffer.getInt() != INDEX_FILE_MAGIC ||
+					buffer.getInt() != INDEX_FILE_VERSION || buffer.getLong() != jarSize ||
+					buffer.getLong() != jarModificationTime) {
+				return null;
+			}
+
+			final int count = buffer.getInt();
+
+			//Each name takes at least two bytes.
+			if (count < 0 || count > buffer.remaining() / 2) {
+				return null;
+			}
+
+			final String[] names = new String[count];
+			byte[] nameBytes = new byte[256];
+
+			for (int i = 0; i < count; i++) {
+				final int nameLength = buffer.getShort() & 0xFFFF;
+
+				if (nameLength > nameBytes.length) {
+					nameBytes = new byte[nameLength];
+				}
+
+				buffer.get(nameBytes, 0, nameLength);
+				names[i] = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+			}
+
+			return names;
+		} catch (NoSuchFileException ignored) {
+			//The index file has not been written yet.
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+			logger.debug("Failed to read index file: {}", indexFile, ex);
+		}
+
+		return null;
+	}
+
+	private static void writeIndexFile(
+			Path indexFile, long jarSize, long jarModificationTime, String[] names
+	) throws IOException {
+		final Path temporaryFile = Files.createTempFile(
+				indexFile.getParent(), indexFile.getFileName().toString(), ".tmp"
+		);
+
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporaryFile))
+			)) {
+				output.writeInt(INDEX_FILE_MAGIC);
+				output.writeInt(INDEX_FILE_VERSION);
+				output.writeLong(jarSize);
+				output.writeLong(jarModificationTime);
+				output.writeInt(names.length);
+
+				for (String name : names) {
+					final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+					output.writeShort(nameBytes.length);
+					output.write(nameBytes);
+				}
+			}
+
+			try {
+				Files.move(
+						temporaryFile, indexFile, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING
+				);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			logger.debug("Wrote index file: {}", indexFile);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private static final class CurrentHolder {
+		static final ClasspathIndex CURRENT =
+				build(SystemProperties.javaClasspath.get(ImmutableList.of()));
+	}
+}
@@ -0,0 +1,515 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The CPU and memory limits imposed on the current process by Linux control groups (cgroups)
+ * and CPU affinity, e.g. by a container runtime such as Docker or Kubernetes.
+ * <p>
+ * Both cgroup v1 and cgroup v2 are supported. The cgroup of the current process is read from
+ * {@code /proc/self/cgroup}, and the cgroup filesystems are located through
+ * {@code /proc/self/mountinfo}. Since a limit may be set on any ancestor of the current cgroup,
+ * the most restrictive limit between the current cgroup and the root of the hierarchy is used.
+ * On other operating systems, no limits are reported.
+ */
+public final class ContainerLimits {
+	private static final Logger logger = LoggerFactory.getLogger(ContainerLimits.class);
+
+	//cgroup v1 reports "no limit" as a very large page-aligned value rather than -1,
+	//e.g. 9223372036854771712.
+	private static final long UNLIMITED_THRESHOLD = 1L << 62;
+
+	private static final Splitter SPACE_SPLITTER = Splitter.on(' ');
+	private static final Splitter COMMA_SPLITTER = Splitter.on(',');
+
+	private final int cgroupVersion;
+	private final double cpuQuota;
+	private final BitSet cpuSet;
+	private final BitSet cpuAffinity;
+	private final int effectiveCPUs;
+	private final long memoryLimit;
+	private final long swapLimit;
+
+	private ContainerLimits(
+			int cgroupVersion, double cpuQuota, BitSet cpuSet, BitSet cpuAffinity,
+			int availableProcessors, long memoryLimit, long swapLimit
+	) {
+		this.cgroupVersion = cgroupVersion;
+		this.cpuQuota = cpuQuota;
+		this.cpuSet = cpuSet;
+		this.cpuAffinity = cpuAffinity;
+		this.memoryLimit = memoryLimit;
+		this.swapLimit = swapLimit;
+
+		int effectiveCPUs = availableProcessors;
+
+		if (cpuQuota > 0.0) {
+			effectiveCPUs = Math.min(effectiveCPUs, (int) Math.ceil(cpuQuota));
+		}
+
+		if (!cpuSet.isEmpty()) {
+			effectiveCPUs = Math.min(effectiveCPUs, cpuSet.cardinality());
+		}
+
+		if (!cpuAffinity.isEmpty()) {
+			effectiveCPUs = Math.min(effectiveCPUs, cpuAffinity.cardinality());
+		}
+
+		this.effectiveCPUs = Math.max(1, effectiveCPUs);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("cgroupVersion", cgroupVersion).
+				add("cpuQuota", getCPUQuota()).
+				add("cpuSet", cpuSet).
+				add("cpuAffinity", cpuAffinity).
+				add("effectiveCPUs", effectiveCPUs).
+				add("memoryLimit", getMemoryLimit()).
+				add("swapLimit", getSwapLimit()).
+				toString();
+	}
+
+	/**
+	 * Returns the version of the cgroup hierarchy that the limits were read from.
+	 *
+	 * @return {@code 1} for cgroup v1, {@code 2} for cgroup v2, or {@code 0} if no cgroup
+	 * hierarchy could be found.
+	 */
+	public int getCgroupVersion() {
+		return cgroupVersion;
+	}
+
+	/**
+	 * Returns the CPU bandwidth quota, in CPUs, e.g. {@code 1.5} if the process may use
+	 * 150 milliseconds of CPU time every 100 milliseconds.
+	 * This is read from {@code cpu.max} on cgroup v2, or {@code cpu.cfs_quota_us} and
+	 * {@code cpu.cfs_period_us} on cgroup v1.
+	 *
+	 * @return the CPU bandwidth quota, or an empty {@link OptionalDouble} if there is no quota.
+	 */
+	public OptionalDouble getCPUQuota() {
+		return cpuQuota > 0.0 ? OptionalDouble.of(cpuQuota) : OptionalDouble.empty();
+	}
+
+	/**
+	 * Returns the CPUs that the cgroup of the current process may run on, as read from
+	 * {@code cpuset.cpus}.
+	 *
+	 * @return a new {@link BitSet} in which the indexes of the allowed CPUs are set.
+	 * This is empty if the allowed CPUs could not be determined.
+	 */
+	public BitSet getCPUSet() {
+		return (BitSet) cpuSet.clone();
+	}
+
+	/**
+	 * Returns the CPUs that the current process may run on according to its CPU affinity mask,
+	 * as read from {@code Cpus_allowed_list} in {@code /proc/self/status}.
+	 *
+	 * @return a new {@link BitSet} in which the indexes of the allowed CPUs are set.
+	 * This is empty if the CPU affinity mask could not be determined.
+	 */
+	public BitSet getCPUAffinity() {
+		return (BitSet) cpuAffinity.clone();
+	}
+
+	/**
+	 * Returns the number of CPUs that the current process can effectively use.
+	 * This is the smallest of {@link Runtime#availableProcessors()}, the CPU quota rounded up,
+	 * the number of CPUs in the CPU set and the number of CPUs in the CPU affinity mask.
+	 *
+	 * @return the number of CPUs that the current process can effectively use.
+	 * This is always at least {@code 1}.
+	 */
+	public int getEffectiveCPUs() {
+		return effectiveCPUs;
+	}
+
+	/**
+	 * Returns the memory limit, in bytes.
+	 * This is read from {@code memory.max} on cgroup v2, or {@code memory.limit_in_bytes} on
+	 * cgroup v1.
+	 *
+	 * @return the memory limit, or an empty {@link OptionalLong} if there is no limit.
+	 */
+	public OptionalLong getMemoryLimit() {
+		return memoryLimit < 0L ? OptionalLong.empty() : OptionalLong.of(memoryLimit);
+	}
+
+	/**
+	 * Returns the swap limit, in bytes. This does not include the memory limit.
+	 * This is read from {@code memory.swap.max} on cgroup v2, or derived from
+	 * {@code memory.memsw.limit_in_bytes} on cgroup v1.
+	 *
+	 * @return the swap limit, or an empty {@link OptionalLong} if there is no limit.
+	 */
+	public OptionalLong getSwapLimit() {
+		return swapLimit < 0L ? OptionalLong.empty() : OptionalLong.of(swapLimit);
+	}
+
+	/**
+	 * Returns the limits imposed on the current process.
+	 * They are only read once, and the same instance is returned on subsequent calls.
+	 *
+	 * @return the limits imposed on the current process.
+	 */
+	public static ContainerLimits current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	static ContainerLimits read(Path root, int availableProcessors) {
+		final Map<String, String> v1Paths = new HashMap<>();
+		String v2Path = null;
+
+		//Each line is "hierarchy-ID:controller-list:cgroup-path", e.g. "4:memory:/docker/abc".
+		//The cgroup v2 hierarchy has ID 0 and an empty controller list.
+		for (String line : SysFs.readLines(resolve(root, "/proc/self/cgroup"))) {
+			final int firstColon = line.indexOf(':');
+			final int secondColon = line.indexOf(':', firstColon + 1);
+
+			if (firstColon == -1 || secondColon == -1) {
+				continue;
+			}
+
+			final String controllers = line.substring(firstColon + 1, secondColon);
+			final String path = line.substring(secondColon + 1);
+
+			if (controllers.isEmpty()) {
+				v2Path = path;
+			} else {
+				for (String controller : COMMA_SPLITTER.split(controllers)) {
+					v1Paths.put(controller, path);
+				}
+			}
+		}
+
+		final Map<String, Hierarchy> v1Hierarchies = new HashMap<>();
+		Hierarchy v2Hierarchy = null;
+
+		for (String line : SysFs.readLines(resolve(root, "/proc/self/mountinfo"))) {
+			//See proc(5): the fields after the optional fields are separated by " - ".
+			final int separator = line.indexOf(" - ");
+
+			if (separator == -1) {
+				continue;
+			}
+
+			final List<String> fields = SPACE_SPLITTER.splitToList(line.substring(0, separator));
+			final List<String> fsFields = SPACE_SPLITTER.splitToList(line.substring(separator + 3));
+
+			if (fields.size() < 5 || fsFields.size() < 3) {
+				continue;
+			}
+
+			final String mountRoot = unescape(fields.get(3));
+			final String mountPoint = unescape(fields.get(4));
+
+			if ("cgroup2".equals(fsFields.get(0))) {
+				if (v2Path != null) {
+					v2Hierarchy = new Hierarchy(root, mountRoot, mountPoint, v2Path);
+				}
+			} else if ("cgroup".equals(fsFields.get(0))) {
+				//The controllers are listed in the super options, e.g. "rw,cpu,cpuacct".
+				for (String option : COMMA_SPLITTER.split(fsFields.get(2))) {
+					final String path = v1Paths.get(option);
+
+					if (path != null) {
+						v1Hierarchies.put(
+								option, new Hierarchy(root, mountRoot, mountPoint, path)
+						);
+					}
+				}
+			}
+		}
+
+		final Hierarchy cpu = v1Hierarchies.get("cpu");
+		final Hierarchy cpuset = v1Hierarchies.get("cpuset");
+		final Hierarchy memory = v1Hierarchies.get("memory");
+
+		final int cgroupVersion;
+
+		if (cpu != null || cpuset != null || memory != null) {
+			cgroupVersion = 1;
+		} else {
+			cgroupVersion = v2Hierarchy == null ? 0 : 2;
+		}
+
+		final double cpuQuota = cpu == null ?
+				readV2CPUQuota(v2Hierarchy) : readV1CPUQuota(cpu);
+		final BitSet cpuSet = cpuset == null ?
+				readCPUSet(v2Hierarchy, "cpuset.cpus.effective", "cpuset.cpus") :
+				readCPUSet(cpuset, "cpuset.effective_cpus", "cpuset.cpus");
+
+		final long memoryLimit;
+		final long swapLimit;
+
+		if (memory == null) {
+			memoryLimit = readLimit(v2Hierarchy, "memory.max");
+			swapLimit = readLimit(v2Hierarchy, "memory.swap.max");
+		} else {
+			memoryLimit = readLimit(memory, "memory.limit_in_bytes");
+			final long memoryAndSwapLimit = readLimit(memory, "memory.memsw.limit_in_bytes");
+
+			if (memoryAndSwapLimit < 0L || memoryLimit < 0L) {
+				swapLimit = memoryAndSwapLimit;
+			} else {
+				swapLimit = Math.max(0L, memoryAndSwapLimit - memoryLimit);
+			}
+		}
+
+		final ContainerLimits limits = new ContainerLimits(
+				cgroupVersion, cpuQuota, cpuSet, readCPUAffinity(root), availableProcessors,
+				memoryLimit, swapLimit
+		);
+		logger.debug("Read container limits: {}", limits);
+		return limits;
+	}
+
+	private static double readV1CPUQuota(Hierarchy cpu) {
+		double quota = -1.0;
+
+		for (Path directory : cpu.getDirectories()) {
+			final long quotaMicros =
+					SysFs.readLong(directory.resolve("cpu.cfs_quota_us"), -1L);
+			final long periodMicros =
+					SysFs.readLong(directory.resolve("cpu.cfs_period_us"), -1L);
+			quota = minQuota(quota, quotaMicros, periodMicros);
+		}
+
+		return quota;
+	}
+
+	private static double readV2CPUQuota(@Nullable Hierarchy hierarchy) {
+		if (hierarchy == null) {
+			return -1.0;
+		}
+
+		double quota = -1.0;
+
+		for (Path directory : hierarchy.getDirectories()) {
+			//The format is "$MAX $PERIOD", where $MAX may be "max".
+			final String line = SysFs.readLine(directory.resolve("cpu.max"));
+
+			if (line == null) {
+				continue;
+			}
+
+			final List<String> parts = SPACE_SPLITTER.splitToList(line);
+
+			if (parts.size() == 2 && !"max".equals(parts.get(0))) {
+				quota = minQuota(quota, parseLong(parts.get(0)), parseLong(parts.get(1)));
+			}
+		}
+
+		return quota;
+	}
+
+	private static double minQuota(double quota, long quotaMicros, long periodMicros) {
+		if (quotaMicros <= 0L || periodMicros <= 0L) {
+			return quota;
+		}
+
+		final double newQuota = (double) quotaMicros / periodMicros;
+		return quota < 0.0 ? newQuota : Math.min(quota, newQuota);
+	}
+
+	private static BitSet readCPUSet(
+			@Nullable Hierarchy hierarchy, String effectiveFileName, String fileName
+	) {
+		if (hierarchy == null) {
+			return new BitSet();
+		}
+
+		//The effective CPU set already takes ancestors into account, but it is not available on
+		//older kernels, in which case we use the nearest CPU set that is not empty.
+		final BitSet effective = SysFs.readCPUList(hierarchy.directory.resolve(effectiveFileName));
+
+		if (!effective.isEmpty()) {
+			return effective;
+		}
+
+		for (Path directory : hierarchy.getDirectories()) {
+			final BitSet cpuSet = SysFs.readCPUList(directory.resolve(fileName));
+
+			if (!cpuSet.isEmpty()) {
+				return cpuSet;
+			}
+		}
+
+		return new BitSet();
+	}
+
+	private static long readLimit(@Nullable Hierarchy hierarchy, String fileName) {
+		if (hierarchy == null) {
+			return -1L;
+		}
+
+		long limit = -1L;
+
+		for (Path directory : hierarchy.getDirectories()) {
+			final String line = SysFs.readLine(directory.resolve(fileName));
+
+			if (line == null || "max".equals(line)) {
+				continue;
+			}
+
+			final long value = parseLong(line);
+
+			if (value >= 0L && value < UNLIMITED_THRESHOLD && (limit < 0L || value < limit)) {
+				limit = value;
+			}
+		}
+
+		return limit;
+	}
+
+	private static BitSet readCPUAffinity(Path root) {
+		for (String line : SysFs.readLines(resolve(root, "/proc/self/status"))) {
+			if (line.startsWith("Cpus_allowed_list:")) {
+				return SysFs.parseCPUList(line.substring("Cpus_allowed_list:".length()));
+			}
+		}
+
+		return new BitSet();
+	}
+
+	private static long parseLong(String string) {
+		try {
+			return Long.parseLong(string);
+		} catch (NumberFormatException ex) {
+			logger.debug("Not a valid long: {}", string);
+		}
+
+		return -1L;
+	}
+
+	private static Path resolve(Path base, String absolutePath) {
+		int start = 0;
+
+		while (start < absolutePath.length() && absolutePath.charAt(start) == '/') {
+			start++;
+		}
+
+		return start == absolutePath.length() ?
+				base : base.resolve(absolutePath.substring(start)).normalize();
+	}
+
+	//mountinfo escapes spaces, tabs, newlines and backslashes as octal, e.g. "\040".
+	private static String unescape(String field) {
+		if (field.indexOf('\\') == -1) {
+			return field;
+		}
+
+		final StringBuilder builder = new StringBuilder(field.length());
+
+		for (int i = 0; i < field.length(); i++) {
+			final char ch = field.charAt(i);
+
+			if (ch == '\\' && i + 3 < field.length() && isOctal(field, i + 1)) {
+				builder.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+				i += 3;
+			} else {
+				builder.append(ch);
+			}
+		}
+
+		return builder.toString();
+	}
+
+	private static boolean isOctal(String string, int start) {
+		for (int i = start; i < start + 3; i++) {
+			if (string.charAt(i) < '0' || string.charAt(i) > '7') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static final class CurrentHolder {
+		static final ContainerLimits CURRENT =
+				read(Paths.get("/"), Runtime.getRuntime().availableProcessors());
+	}
+
+	//A cgroup hierarchy, i.e. a mounted cgroup filesystem, along with the directory of the
+	//cgroup of the current process in it.
+	private static final class Hierarchy {
+		private final Path mountPoint;
+		private final Path directory;
+
+		Hierarchy(Path root, String mountRoot, String mountPoint, String cgroupPath) {
+			this.mountPoint = resolve(root, mountPoint);
+
+			//If the mount root is not "/", e.g. in a container with its own cgroup namespace,
+			//the cgroup path is relative to the mount root.
+			final String relativePath;
+
+			if ("/".equals(mountRoot)) {
+				relativePath = cgroupPath;
+			} else if (cgroupPath.startsWith(mountRoot + "/")) {
+				relativePath = cgroupPath.substring(mountRoot.length());
+			} else {
+				relativePath = "/";
+			}
+
+			final Path directory = resolve(this.mountPoint, relativePath);
+			this.directory = directory.startsWith(this.mountPoint) ? directory : this.mountPoint;
+		}
+
+		//Returns the directory of the cgroup of the current process followed by its ancestors up
+		//to the mount point.
+		List<Path> getDirectories() {
+			final List<Path> directories = new ArrayList<>();
+			Path path = directory;
+
+			while (path != null && path.startsWith(mountPoint)) {
+				directories.add(path);
+				path = path.getParent();
+			}
+
+			return directories;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.utils.platform.systemproperty.IBMSystemProperties;
+import com.therandomlabs.utils.platform.systemproperty.SunSystemProperties;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import com.therandomlabs.utils.platform.systemproperty.type.IntProperty;
+
+/**
+ * Contains methods for accessing information about the current platform.
+ * <p>
+ * Unlike the constants in {@link Platform}, which are all computed when {@link Platform} is
+ * initialized, each value is computed the first time it is requested, so only the work that is
+ * needed is performed. For example, calling {@link #isWindowsOrWindowsCE()} does not resolve
+ * any JRE paths.
+ */
+@SuppressWarnings("NullAway")
+public final class CurrentPlatform {
+	private static final class OSHolder {
+		static final OS OS = detectOS();
+		static final boolean IS_WINDOWS_OR_WINDOWS_CE = OS.isWindowsOrWindowsCE();
+	}
+
+	private static final class OSVersionHolder {
+		static final OSVersion OS_VERSION = OSHolder.OS.isVersionNumberInOSName() ?
+				OSHolder.OS.getVersionByName(SystemProperties.osName.get()) :
+				OSHolder.OS.getVersionByVersionNumber(SystemProperties.osVersion.get());
+	}
+
+	private static final class JVMArchitectureHolder {
+		static final Architecture JVM_ARCHITECTURE = detectJVMArchitecture();
+	}
+
+	private static final class InstructionSetHolder {
+		static final InstructionSet INSTRUCTION_SET = InstructionSet.detect(
+				SystemProperties.jvmArchitecture.get(),
+				ByteOrder.nativeOrder(),
+				SunSystemProperties.cpuEndian.hasValue() ?
+						SunSystemProperties.cpuEndian.get() : IBMSystemProperties.cpuEndian.get()
+		);
+	}
+
+	private static final class JREDirectoryHolder {
+		static final Path JRE_DIRECTORY = Preconditions.checkNotNull(
+				SystemProperties.javaInstallationDirectory.get(),
+				"java.home should not be null"
+		);
+		static final Path JRE_BIN_DIRECTORY = JRE_DIRECTORY.resolve("bin");
+	}
+
+	private static final class JavaExecutableHolder {
+		static final Path JAVA_EXECUTABLE = getJREExecutable("java");
+	}
+
+	private static final class JavawExecutableHolder {
+		static final Path JAVAW_EXECUTABLE = getJREExecutable("javaw");
+	}
+
+	private static final class CurrentWorkingDirectoryHolder {
+		static final Path CURRENT_WORKING_DIRECTORY = SystemProperties.userCurrentWorkingDirectory.
+				get(Paths.get(".").toAbsolutePath());
+	}
+
+	private CurrentPlatform() {}
+
+	/**
+	 * Returns the current {@link OS}.
+	 *
+	 * @return the current {@link OS}.
+	 */
+	public static OS os() {
+		return OSHolder.OS;
+	}
+
+	/**
+	 * Returns the current {@link OSVersion}.
+	 *
+	 * @return the current {@link OSVersion}, or {@link OSVersion#unknown()} if it is not known.
+	 */
+	public static OSVersion osVersion() {
+		return OSVersionHolder.OS_VERSION;
+	}
+
+	/**
+	 * Returns whether the current {@link OS} is either {@link OS#WINDOWS} or {@link OS#WINDOWS_CE}.
+	 *
+	 * @return {@code true} if the current {@link OS} is either {@link OS#WINDOWS} or
+	 * {@link OS#WINDOWS_CE}, or otherwise {@code false}.
+	 */
+	public static boolean isWindowsOrWindowsCE() {
+		return OSHolder.IS_WINDOWS_OR_WINDOWS_CE;
+	}
+
+	/**
+	 * Returns the current JVM {@link Architecture}.
+	 *
+	 * @return the current JVM {@link Architecture}.
+	 */
+	public static Architecture jvmArchitecture() {
+		return JVMArchitectureHolder.JVM_ARCHITECTURE;
+	}
+
+	/**
+	 * Returns the current {@link InstructionSet}, as determined by the {@code os.arch} system
+	 * property and the native byte order.
+	 *
+	 * @return the current {@link InstructionSet}.
+	 * @see InstructionSet#detect(String, ByteOrder, String)
+	 */
+	public static InstructionSet instructionSet() {
+		return InstructionSetHolder.INSTRUCTION_SET;
+	}
+
+	/**
+	 * Returns the JRE directory.
+	 *
+	 * @return the JRE directory.
+	 */
+	public static Path jreDirectory() {
+		return JREDirectoryHolder.JRE_DIRECTORY;
+	}
+
+	/**
+	 * Returns the JRE {@code bin} directory.
+	 *
+	 * @return the JRE {@code bin} directory.
+	 */
+	public static Path jreBinDirectory() {
+		return JREDirectoryHolder.JRE_BIN_DIRECTORY;
+	}
+
+	/**
+	 * Returns the {@code java} executable.
+	 *
+	 * @return the {@code java} executable.
+	 */
+	public static Path javaExecutable() {
+		return JavaExecutableHolder.JAVA_EXECUTABLE;
+	}
+
+	/**
+	 * Returns the {@code javaw} executable.
+	 *
+	 * @return the {@code javaw} executable.
+	 */
+	public static Path javawExecutable() {
+		return JavawExecutableHolder.JAVAW_EXECUTABLE;
+	}
+
+	/**
+	 * Returns the current working directory, i.e. the directory in which {@code java} or
+	 * {@code javaw} was started.
+	 *
+	 * @return the current working directory.
+	 */
+	public static Path currentWorkingDirectory() {
+		return CurrentWorkingDirectoryHolder.CURRENT_WORKING_DIRECTORY;
+	}
+
+	static Path getJREExecutable(String name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		name = name.toLowerCase(Locale.ENGLISH);
+		Preconditions.checkArgument(isAlphabetic(name), "name should be alphabetic");
+		return jreBinDirectory().resolve(os() == OS.WINDOWS ? name + ".exe" : name);
+	}
+
+	private static boolean isAlphabetic(String name) {
+		if (name.isEmpty()) {
+			return false;
+		}
+
+		for (int i = 0; i < name.length(); i++) {
+			final char character = name.charAt(i);
+
+			if (character < 'a' || character > 'z') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static OS detectOS() {
+		final OS os = OS.fromName(SystemProperties.osName.get());
+
+		if (os == OS.LINUX && SystemProperties.jvmName.stringEquals("Dalvik")) {
+			return OS.ANDROID;
+		}
+
+		return os;
+	}
+
+	private static Architecture detectJVMArchitecture() {
+		final IntProperty dataModel = SunSystemProperties.architectureDataModel.hasValue() ?
+				SunSystemProperties.architectureDataModel : IBMSystemProperties.vmBitMode;
+
+		if (dataModel.valueEquals(32)) {
+			return Architecture.THIRTY_TWO_BIT;
+		}
+
+		if (dataModel.valueEquals(64)) {
+			return Architecture.SIXTY_FOUR_BIT;
+		}
+
+		//Fall back to os.arch.
+		return Architecture.fromName(SystemProperties.jvmArchitecture.get());
+	}
+}
@@ -0,0 +1,298 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.nio.ByteOrder;
+import java.util.Set;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An enum for instruction set architectures that can run JRE 8 or newer, along with their
+ * family, bitness and byte order.
+ * Unlike {@link Architecture}, this distinguishes between e.g. {@code x86_64} and
+ * {@code aarch64}, and between {@code ppc64} and {@code ppc64le}.
+ */
+public enum InstructionSet {
+	/**
+	 * 32-bit x86.
+	 */
+	X86(
+			Family.X86, 32, ByteOrder.LITTLE_ENDIAN,
+			"x86", "x86_32", "i386", "i486", "i586", "i686", "ia32"
+	),
+	/**
+	 * 64-bit x86, also known as AMD64 or x64.
+	 */
+	X86_64(
+			Family.X86, 64, ByteOrder.LITTLE_ENDIAN,
+			"x86_64", "amd64", "x64", "em64t", "ia32e"
+	),
+	/**
+	 * 32-bit ARM.
+	 */
+	ARM(Family.ARM, 32, ByteOrder.LITTLE_ENDIAN, "arm", "arm32", "armv7l", "armhf", "armel"),
+	/**
+	 * 64-bit ARM, also known as ARM64.
+	 */
+	AARCH64(Family.ARM, 64, ByteOrder.LITTLE_ENDIAN, "aarch64", "arm64"),
+	/**
+	 * 32-bit PowerPC.
+	 */
+	PPC(Family.POWERPC, 32, ByteOrder.BIG_ENDIAN, "ppc", "ppc32", "powerpc"),
+	/**
+	 * Big-endian 64-bit PowerPC.
+	 */
+	PPC64(Family.POWERPC, 64, ByteOrder.BIG_ENDIAN, "ppc64", "powerpc64"),
+	/**
+	 * Little-endian 64-bit PowerPC.
+	 */
+	PPC64LE(Family.POWERPC, 64, ByteOrder.LITTLE_ENDIAN, "ppc64le", "powerpc64le"),
+	/**
+	 * 31-bit IBM System/390.
+	 */
+	S390(Family.S390, 32, ByteOrder.BIG_ENDIAN, "s390"),
+	/**
+	 * 64-bit IBM z/Architecture.
+	 */
+	S390X(Family.S390, 64, ByteOrder.BIG_ENDIAN, "s390x"),
+	/**
+	 * 32-bit RISC-V.
+	 */
+	RISCV32(Family.RISC_V, 32, ByteOrder.LITTLE_ENDIAN, "riscv32", "riscv"),
+	/**
+	 * 64-bit RISC-V.
+	 */
+	RISCV64(Family.RISC_V, 64, ByteOrder.LITTLE_ENDIAN, "riscv64"),
+	/**
+	 * 32-bit SPARC.
+	 */
+	SPARC(Family.SPARC, 32, ByteOrder.BIG_ENDIAN, "sparc", "sparc32"),
+	/**
+	 * 64-bit SPARC.
+	 */
+	SPARCV9(Family.SPARC, 64, ByteOrder.BIG_ENDIAN, "sparcv9", "sparc64"),
+	/**
+	 * Unknown instruction set.
+	 */
+	UNKNOWN(Family.UNKNOWN, 0, null);
+
+	/**
+	 * An enum for instruction set families.
+	 */
+	public enum Family {
+		/**
+		 * x86.
+		 */
+		X86,
+		/**
+		 * ARM.
+		 */
+		ARM,
+		/**
+		 * PowerPC.
+		 */
+		POWERPC,
+		/**
+		 * IBM System/390 and z/Architecture.
+		 */
+		S390,
+		/**
+		 * RISC-V.
+		 */
+		RISC_V,
+		/**
+		 * SPARC.
+		 */
+		SPARC,
+		/**
+		 * Unknown instruction set family.
+		 */
+		UNKNOWN
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(InstructionSet.class);
+
+	//Like in Architecture, whitespace, hyphens and underscores are ignored.
+	private static final CaseInsensitiveTrie<InstructionSet> NAMES = buildNameTrie();
+
+	private final Family family;
+	private final int bitness;
+	@Nullable
+	private final ByteOrder byteOrder;
+	private final ImmutableSet<String> names;
+
+	InstructionSet(Family family, int bitness, @Nullable ByteOrder byteOrder, String... names) {
+		this.family = family;
+		this.bitness = bitness;
+		this.byteOrder = byteOrder;
+		this.names = ImmutableSet.copyOf(names);
+	}
+
+	/**
+	 * Returns the family of this {@link InstructionSet}.
+	 *
+	 * @return the {@link Family} of this {@link InstructionSet}.
+	 */
+	public Family getFamily() {
+		return family;
+	}
+
+	/**
+	 * Returns the bitness of this {@link InstructionSet}.
+	 *
+	 * @return {@code 32} or {@code 64}, or {@code 0} for {@link #UNKNOWN}.
+	 */
+	public int getBitness() {
+		return bitness;
+	}
+
+	/**
+	 * Returns the {@link Architecture} of this {@link InstructionSet}.
+	 *
+	 * @return {@link Architecture#THIRTY_TWO_BIT} or {@link Architecture#SIXTY_FOUR_BIT},
+	 * or {@link Architecture#UNKNOWN} for {@link #UNKNOWN}.
+	 */
+	public Architecture getArchitecture() {
+		if (bitness == 32) {
+			return Architecture.THIRTY_TWO_BIT;
+		}
+
+		return bitness == 64 ? Architecture.SIXTY_FOUR_BIT : Architecture.UNKNOWN;
+	}
+
+	/**
+	 * Returns the byte order of this {@link InstructionSet}.
+	 *
+	 * @return the byte order of this {@link InstructionSet}, or {@code null} for
+	 * {@link #UNKNOWN}.
+	 */
+	@Nullable
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	/**
+	 * Returns an immutable set containing the known names of this {@link InstructionSet},
+	 * e.g. the values of the {@code os.arch} system property that represent it.
+	 *
+	 * @return an immutable set containing the known names of this {@link InstructionSet}.
+	 */
+	public Set<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * Returns the {@link InstructionSet} that the specified name represents.
+	 * This method does not allocate.
+	 *
+	 * @param name an instruction set name, e.g. a value of the {@code os.arch} system property
+	 * such as {@code "amd64"} or {@code "aarch64"}.
+	 * Casing, whitespace, hyphens and underscores are ignored.
+	 * @return the {@link InstructionSet} that the specified name represents, or {@link #UNKNOWN}
+	 * if it cannot be found.
+	 */
+	public static InstructionSet fromName(CharSequence name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		final InstructionSet instructionSet = NAMES.get(name);
+		return instructionSet == null ? UNKNOWN : instructionSet;
+	}
+
+	/**
+	 * Returns the {@link InstructionSet} that the specified {@code os.arch} value represents,
+	 * taking the actual byte order into account.
+	 * If the specified native byte order differs from the byte order of the
+	 * {@link InstructionSet} that the name represents, the {@link InstructionSet} with the same
+	 * family and bitness and the native byte order is returned if it exists, e.g.
+	 * {@link #PPC64LE} rather than {@link #PPC64}. The endianness reported by the
+	 * {@code sun.cpu.endian} or {@code com.ibm.cpu.endian} system properties is only used to warn
+	 * about inconsistencies, since the native byte order is what the JVM actually uses.
+	 *
+	 * @param osArch a value of the {@code os.arch} system property.
+	 * @param nativeOrder the native byte order, i.e. {@link ByteOrder#nativeOrder()}.
+	 * @param reportedEndianness the value of the {@code sun.cpu.endian} or
+	 * {@code com.ibm.cpu.endian} system property, i.e. {@code "little"} or {@code "big"}.
+	 * @return the {@link InstructionSet} that the specified {@code os.arch} value represents.
+	 */
+	public static InstructionSet detect(
+			@Nullable String osArch, ByteOrder nativeOrder, @Nullable String reportedEndianness
+	) {
+		Preconditions.checkNotNull(nativeOrder, "nativeOrder should not be null");
+		final InstructionSet instructionSet = osArch == null ? UNKNOWN : fromName(osArch);
+
+		final ByteOrder reportedOrder = parseEndianness(reportedEndianness);
+
+		if (reportedOrder != null && reportedOrder != nativeOrder) {
+			logger.warn(
+					"Reported CPU endianness ({}) does not match native byte order ({})",
+					reportedEndianness, nativeOrder
+			);
+		}
+
+		if (instructionSet == UNKNOWN || instructionSet.byteOrder == nativeOrder) {
+			return instructionSet;
+		}
+
+		for (InstructionSet other : values()) {
+			if (other.family == instructionSet.family && other.bitness == instructionSet.bitness &&
+					other.byteOrder == nativeOrder) {
+				return other;
+			}
+		}
+
+		logger.warn(
+				"Native byte order ({}) does not match the byte order of {}",
+				nativeOrder, instructionSet
+		);
+		return instructionSet;
+	}
+
+	@Nullable
+	private static ByteOrder parseEndianness(@Nullable String endianness) {
+		if ("little".equalsIgnoreCase(endianness)) {
+			return ByteOrder.LITTLE_ENDIAN;
+		}
+
+		return "big".equalsIgnoreCase(endianness) ? ByteOrder.BIG_ENDIAN : null;
+	}
+
+	private static CaseInsensitiveTrie<InstructionSet> buildNameTrie() {
+		final CaseInsensitiveTrie.Builder<InstructionSet> builder = CaseInsensitiveTrie.builder(
+				CharMatcher.whitespace().or(CharMatcher.anyOf("-_")).precomputed()
+		);
+
+		for (InstructionSet instructionSet : values()) {
+			for (String name : instructionSet.names) {
+				builder.put(name, instructionSet);
+			}
+		}
+
+		return builder.build();
+	}
+}
@@ -0,0 +1,545 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.therandomlabs.utils.platform.systemproperty.IBMSystemProperties;
+import com.therandomlabs.utils.platform.systemproperty.SunSystemProperties;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports how the JVM is configured, e.g. its garbage collector, maximum heap size and whether
+ * it uses compressed ordinary object pointers.
+ * <p>
+ * On HotSpot JVMs, VM options are read from the {@code HotSpotDiagnostic} MXBean. It is accessed
+ * through the platform {@link MBeanServer} rather than {@code com.sun.management}, so that this
+ * class also works on JVMs that do not provide it, such as OpenJ9. On those JVMs,
+ * {@link #isHotSpot()} returns {@code false}, and values are derived from the JVM arguments,
+ * the standard MXBeans and the system properties in {@link IBMSystemProperties} where possible.
+ * <p>
+ * Each value is only retrieved the first time it is requested, after which it is cached.
+ */
+public final class JVMInfo {
+	/**
+	 * Garbage collectors.
+	 */
+	public enum GarbageCollector {
+		/**
+		 * The serial garbage collector.
+		 */
+		SERIAL,
+		/**
+		 * The parallel garbage collector.
+		 */
+		PARALLEL,
+		/**
+		 * The Concurrent Mark Sweep garbage collector, which was removed in Java 14.
+		 */
+		CMS,
+		/**
+		 * The Garbage-First garbage collector.
+		 */
+		G1,
+		/**
+		 * The Z garbage collector.
+		 */
+		ZGC,
+		/**
+		 * The Shenandoah garbage collector.
+		 */
+		SHENANDOAH,
+		/**
+		 * The Epsilon garbage collector, which does not reclaim memory.
+		 */
+		EPSILON,
+		/**
+		 * An unknown garbage collector, e.g. an OpenJ9 garbage collection policy.
+		 */
+		UNKNOWN
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(JVMInfo.class);
+
+	private static final String HOTSPOT_DIAGNOSTIC_OBJECT_NAME =
+			"com.sun.management:type=HotSpotDiagnostic";
+
+	private final Supplier<@Nullable ObjectName> hotSpotDiagnostic;
+	@Nullable
+	private final MBeanServer server;
+	private final Supplier<List<String>> inputArguments;
+	private final Supplier<List<String>> garbageCollectorNames;
+	private final Supplier<GarbageCollector> garbageCollector;
+	private final Supplier<Long> maxHeapSize;
+	private final Supplier<Long> maxDirectMemorySize;
+	private final Supplier<Optional<Boolean>> compressedOops;
+	private final Supplier<Optional<Boolean>> compressedClassPointers;
+	private final Supplier<OptionalInt> objectAlignment;
+	private final Supplier<Optional<String>> jitCompiler;
+
+	JVMInfo(@Nullable MBeanServer server) {
+		this.server = server;
+		hotSpotDiagnostic = Suppliers.memoize(this::findHotSpotDiagnostic);
+		inputArguments = Suppliers.memoize(JVMInfo::readInputArguments);
+		garbageCollectorNames = Suppliers.memoize(JVMInfo::readGarbageCollectorNames);
+		garbageCollector = Suppliers.memoize(this::detectGarbageCollector);
+		maxHeapSize = Suppliers.memoize(this::readMaxHeapSize);
+		maxDirectMemorySize = Suppliers.memoize(this::readMaxDirectMemorySize);
+		compressedOops = Suppliers.memoize(this::readCompressedOops);
+		compressedClassPointers =
+				Suppliers.memoize(() -> getBooleanVMOption("UseCompressedClassPointers"));
+		objectAlignment = Suppliers.memoize(this::readObjectAlignment);
+		jitCompiler = Suppliers.memoize(JVMInfo::readJITCompiler);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("hotSpot", isHotSpot()).
+				add("garbageCollector", getGarbageCollector()).
+				add("maxHeapSize", getMaxHeapSize()).
+				add("maxDirectMemorySize", getMaxDirectMemorySize()).
+				add("compressedOops", usesCompressedOops().orElse(null)).
+				add("compressedClassPointers", usesCompressedClassPointers().orElse(null)).
+				add("objectAlignment", getObjectAlignment()).
+				add("jitCompiler", getJITCompiler().orElse(null)).
+				toString();
+	}
+
+	/**
+	 * Returns whether the JVM provides HotSpot VM options, i.e. whether it is HotSpot or a JVM
+	 * that derives from it.
+	 *
+	 * @return {@code true} if the JVM provides HotSpot VM options, or otherwise {@code false}.
+	 */
+	public boolean isHotSpot() {
+		return hotSpotDiagnostic.get() != null;
+	}
+
+	/**
+	 * Returns the current value of the HotSpot VM option with the specified name.
+	 * Unlike the other methods in this class, this method does not cache its result, since some
+	 * VM options can be changed at runtime.
+	 *
+	 * @param name a VM option name, e.g. {@code "MaxHeapSize"}.
+	 * @return the current value of the HotSpot VM option with the specified name,
+	 * or {@code null} if it does not exist or {@link #isHotSpot()} returns {@code false}.
+	 */
+	@Nullable
+	public String getVMOption(String name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		final ObjectName objectName = hotSpotDiagnostic.get();
+
+		if (objectName == null) {
+			return null;
+		}
+
+		try {
+			final Object option = server.invoke(
+					objectName, "getVMOption", new Object[] {name},
+					new String[] {String.class.getName()}
+			);
+			return option instanceof CompositeData ?
+					String.valueOf(((CompositeData) option).get("value")) : null;
+		} catch (JMException | RuntimeException ex) {
+			//getVMOption throws an IllegalArgumentException wrapped in a ReflectionException
+			//for VM options that do not exist, e.g. options that were removed in a later release.
+			logger.debug("Failed to retrieve VM option: {}", name, ex);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the arguments that were passed to the JVM.
+	 *
+	 * @return an immutable list containing the arguments that were passed to the JVM,
+	 * excluding the arguments to the main method.
+	 */
+	public List<String> getInputArguments() {
+		return inputArguments.get();
+	}
+
+	/**
+	 * Returns the names of the memory managers that perform garbage collection.
+	 *
+	 * @return an immutable list containing the names of the memory managers that perform garbage
+	 * collection, e.g. {@code "G1 Young Generation"} and {@code "G1 Old Generation"}.
+	 */
+	public List<String> getGarbageCollectorNames() {
+		return garbageCollectorNames.get();
+	}
+
+	/**
+	 * Returns the active {@link GarbageCollector}.
+	 *
+	 * @return the active {@link GarbageCollector}, or {@link GarbageCollector#UNKNOWN} if it
+	 * cannot be determined.
+	 */
+	public GarbageCollector getGarbageCollector() {
+		return garbageCollector.get();
+	}
+
+	/**
+	 * Returns the maximum heap size in bytes.
+	 *
+	 * @return the value of the {@code MaxHeapSize} VM option if {@link #isHotSpot()} returns
+	 * {@code true}, or otherwise {@link Runtime#maxMemory()}, which is {@link Long#MAX_VALUE} if
+	 * there is no limit.
+	 */
+	public long getMaxHeapSize() {
+		return maxHeapSize.get();
+	}
+
+	/**
+	 * Returns the maximum number of bytes that can be allocated for direct
+	 * {@link java.nio.ByteBuffer}s.
+	 *
+	 * @return the value of the {@code MaxDirectMemorySize} VM option or
+	 * {@code -XX:MaxDirectMemorySize} JVM argument, or {@link Runtime#maxMemory()} if it is not
+	 * set, since that is the default.
+	 */
+	public long getMaxDirectMemorySize() {
+		return maxDirectMemorySize.get();
+	}
+
+	/**
+	 * Returns whether the JVM uses compressed ordinary object pointers.
+	 * On OpenJ9, this returns whether the JVM uses compressed references.
+	 *
+	 * @return an {@link Optional} containing whether the JVM uses compressed ordinary object
+	 * pointers, or an empty {@link Optional} if this cannot be determined.
+	 */
+	public Optional<Boolean> usesCompressedOops() {
+		return compressedOops.get();
+	}
+
+	/**
+	 * Returns whether the JVM uses compressed class pointers.
+	 *
+	 * @return an {@link Optional} containing whether the JVM uses compressed class pointers,
+	 * or an empty {@link Optional} if this cannot be determined.
+	 */
+	public Optional<Boolean> usesCompressedClassPointers() {
+		return compressedClassPointers.get();
+	}
+
+	/**
+	 * Returns the alignment of Java objects in memory in bytes.
+	 *
+	 * @return an {@link OptionalInt} containing the value of the {@code ObjectAlignmentInBytes}
+	 * VM option, or an empty {@link OptionalInt} if {@link #isHotSpot()} returns {@code false}.
+	 */
+	public OptionalInt getObjectAlignment() {
+		return objectAlignment.get();
+	}
+
+	/**
+	 * Returns the name of the JIT compiler.
+	 *
+	 * @return an {@link Optional} containing the name of the JIT compiler,
+	 * e.g. {@code "HotSpot 64-Bit Tiered Compilers"}, or an empty {@link Optional} if the JVM
+	 * has no JIT compiler or only interprets bytecode.
+	 */
+	public Optional<String> getJITCompiler() {
+		return jitCompiler.get();
+	}
+
+	@Nullable
+	private ObjectName findHotSpotDiagnostic() {
+		if (server == null) {
+			return null;
+		}
+
+		try {
+			final ObjectName objectName = new ObjectName(HOTSPOT_DIAGNOSTIC_OBJECT_NAME);
+
+			if (server.isRegistered(objectName)) {
+				return objectName;
+			}
+		} catch (JMException | RuntimeException ex) {
+			logger.debug("Failed to find HotSpot diagnostic MXBean", ex);
+		}
+
+		logger.debug("HotSpot VM options are not available; some JVM information will be missing");
+		return null;
+	}
+
+	private GarbageCollector detectGarbageCollector() {
+		if (isHotSpot()) {
+			if (isVMOptionEnabled("UseG1GC")) {
+				return GarbageCollector.G1;
+			}
+
+			if (isVMOptionEnabled("UseZGC")) {
+				return GarbageCollector.ZGC;
+			}
+
+			if (isVMOptionEnabled("UseShenandoahGC")) {
+				return GarbageCollector.SHENANDOAH;
+			}
+
+			if (isVMOptionEnabled("UseParallelGC")) {
+				return GarbageCollector.PARALLEL;
+			}
+
+			if (isVMOptionEnabled("UseConcMarkSweepGC")) {
+				return GarbageCollector.CMS;
+			}
+
+			if (isVMOptionEnabled("UseSerialGC")) {
+				return GarbageCollector.SERIAL;
+			}
+
+			if (isVMOptionEnabled("UseEpsilonGC")) {
+				return GarbageCollector.EPSILON;
+			}
+		}
+
+		return getGarbageCollector(getGarbageCollectorNames());
+	}
+
+	private long readMaxHeapSize() {
+		final OptionalLong maxHeapSize = getLongVMOption("MaxHeapSize");
+		return maxHeapSize.isPresent() ? maxHeapSize.getAsLong() : Runtime.getRuntime().maxMemory();
+	}
+
+	private long readMaxDirectMemorySize() {
+		OptionalLong maxDirectMemorySize = getLongVMOption("MaxDirectMemorySize");
+
+		if (!maxDirectMemorySize.isPresent()) {
+			maxDirectMemorySize =
+					getSizeArgument(getInputArguments(), "-XX:MaxDirectMemorySize=");
+		}
+
+		//Zero means that the default is used.
+		return maxDirectMemorySize.isPresent() && maxDirectMemorySize.getAsLong() > 0L ?
+				maxDirectMemorySize.getAsLong() : Runtime.getRuntime().maxMemory();
+	}
+
+	private Optional<Boolean> readCompressedOops() {
+		final Optional<Boolean> compressedOops = getBooleanVMOption("UseCompressedOops");
+
+		if (compressedOops.isPresent()) {
+			return compressedOops;
+		}
+
+		//OpenJ9 loads its VM from a "compressedrefs" or "default" directory depending on whether
+		//it uses compressed references.
+		final Path bootstrapLibraryPath = IBMSystemProperties.otiVMBootstrapLibraryPath.get();
+
+		if (bootstrapLibraryPath != null && bootstrapLibraryPath.getFileName() != null) {
+			final String directoryName = bootstrapLibraryPath.getFileName().toString();
+
+			if ("compressedrefs".equals(directoryName)) {
+				return Optional.of(true);
+			}
+
+			if ("default".equals(directoryName)) {
+				return Optional.of(false);
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private OptionalInt readObjectAlignment() {
+		final OptionalLong objectAlignment = getLongVMOption("ObjectAlignmentInBytes");
+		return objectAlignment.isPresent() ?
+				OptionalInt.of((int) objectAlignment.getAsLong()) : OptionalInt.empty();
+	}
+
+	private boolean isVMOptionEnabled(String name) {
+		return getBooleanVMOption(name).orElse(false);
+	}
+
+	private Optional<Boolean> getBooleanVMOption(String name) {
+		final String value = getVMOption(name);
+		return value == null ? Optional.empty() : Optional.of(Boolean.parseBoolean(value));
+	}
+
+	private OptionalLong getLongVMOption(String name) {
+		final String value = getVMOption(name);
+
+		if (value != null) {
+			try {
+				return OptionalLong.of(Long.parseLong(value));
+			} catch (NumberFormatException ex) {
+				logger.debug("Invalid value for VM option {}: {}", name, value, ex);
+			}
+		}
+
+		return OptionalLong.empty();
+	}
+
+	/**
+	 * Returns the {@link JVMInfo} for the current JVM.
+	 *
+	 * @return the {@link JVMInfo} for the current JVM.
+	 */
+	public static JVMInfo current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	static GarbageCollector getGarbageCollector(List<String> garbageCollectorNames) {
+		for (String name : garbageCollectorNames) {
+			if (name.startsWith("G1 ")) {
+				return GarbageCollector.G1;
+			}
+
+			if (name.startsWith("ZGC")) {
+				return GarbageCollector.ZGC;
+			}
+
+			if (name.startsWith("Shenandoah")) {
+				return GarbageCollector.SHENANDOAH;
+			}
+
+			if (name.startsWith("PS ")) {
+				return GarbageCollector.PARALLEL;
+			}
+
+			if ("ParNew".equals(name) || "ConcurrentMarkSweep".equals(name)) {
+				return GarbageCollector.CMS;
+			}
+
+			if ("Copy".equals(name) || "MarkSweepCompact".equals(name)) {
+				return GarbageCollector.SERIAL;
+			}
+		}
+
+		return GarbageCollector.UNKNOWN;
+	}
+
+	static OptionalLong getSizeArgument(List<String> inputArguments, String prefix) {
+		OptionalLong size = OptionalLong.empty();
+
+		//The last occurrence of an argument takes precedence.
+		for (String argument : inputArguments) {
+			if (argument.startsWith(prefix)) {
+				size = parseSize(argument.substring(prefix.length()));
+			}
+		}
+
+		return size;
+	}
+
+	private static OptionalLong parseSize(String size) {
+		if (size.isEmpty()) {
+			return OptionalLong.empty();
+		}
+
+		final char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+		final int shift = "kmgt".indexOf(unit) * 10 + 10;
+		final String number = shift == 0 ? size : size.substring(0, size.length() - 1);
+
+		try {
+			final long value = Long.parseLong(number);
+			return value < 0L || Long.numberOfLeadingZeros(value) <= shift ?
+					OptionalLong.empty() : OptionalLong.of(value << shift);
+		} catch (NumberFormatException ex) {
+			logger.debug("Invalid size: {}", size, ex);
+		}
+
+		return OptionalLong.empty();
+	}
+
+	private static List<String> readInputArguments() {
+		try {
+			return ImmutableList.copyOf(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		} catch (RuntimeException ex) {
+			logger.warn("Failed to retrieve JVM arguments", ex);
+		}
+
+		return ImmutableList.of();
+	}
+
+	private static List<String> readGarbageCollectorNames() {
+		final ImmutableList.Builder<String> names = ImmutableList.builder();
+
+		try {
+			for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+				names.add(bean.getName());
+			}
+		} catch (RuntimeException ex) {
+			logger.warn("Failed to retrieve garbage collectors", ex);
+		}
+
+		return names.build();
+	}
+
+	private static Optional<String> readJITCompiler() {
+		final String compiler = SunSystemProperties.managementCompiler.get();
+
+		if (compiler != null) {
+			return Optional.of(compiler);
+		}
+
+		try {
+			final CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+			return bean == null ? Optional.empty() : Optional.of(bean.getName());
+		} catch (RuntimeException ex) {
+			logger.debug("Failed to retrieve JIT compiler", ex);
+		}
+
+		return Optional.empty();
+	}
+
+	@Nullable
+	private static MBeanServer getPlatformMBeanServer() {
+		try {
+			return ManagementFactory.getPlatformMBeanServer();
+		} catch (RuntimeException ex) {
+			logger.warn("Failed to retrieve platform MBean server", ex);
+		}
+
+		return null;
+	}
+
+	private static final class CurrentHolder {
+		static final JVMInfo CURRENT = new JVMInfo(getPlatformMBeanServer());
+	}
+}
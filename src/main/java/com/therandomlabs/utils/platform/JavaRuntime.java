@@ -0,0 +1,468 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Represents the version of a Java runtime, e.g. {@code 1.8.0_292-b10} or {@code 17.0.2+8}.
+ * <p>
+ * Both the legacy {@code 1.x} version format and the JEP 223 and JEP 322 version format are
+ * parsed into the same components. In the legacy format, {@code 1.8.0_292-b10} has the feature
+ * version {@code 8}, the update version {@code 292} and the build number {@code 10}.
+ */
+public final class JavaRuntime implements Comparable<JavaRuntime> {
+	private static final Logger logger = LoggerFactory.getLogger(JavaRuntime.class);
+
+	//The Java version that this library is compiled against.
+	private static final int MINIMUM_FEATURE_VERSION = 8;
+
+	private final String version;
+	private final int feature;
+	private final int interim;
+	private final int update;
+	private final int patch;
+	private final int build;
+	@Nullable
+	private final String vendor;
+
+	private JavaRuntime(
+			String version, int feature, int interim, int update, int patch, int build,
+			@Nullable String vendor
+	) {
+		this.version = version;
+		this.feature = feature;
+		this.interim = interim;
+		this.update = update;
+		this.patch = patch;
+		this.build = build;
+		this.vendor = vendor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(feature, interim, update, patch, build, vendor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof JavaRuntime)) {
+			return false;
+		}
+
+		final JavaRuntime runtime = (JavaRuntime) object;
+		return compareVersionComponents(runtime) == 0 && Objects.equals(vendor, runtime.vendor);
+	}
+
+	/**
+	 * Returns the version string of this {@link JavaRuntime}.
+	 *
+	 * @return the version string of this {@link JavaRuntime}.
+	 */
+	@Override
+	public String toString() {
+		return version;
+	}
+
+	/**
+	 * Compares this {@link JavaRuntime} to the specified {@link JavaRuntime} by their feature,
+	 * interim, update and patch versions and their build numbers. {@link JavaRuntime}s with the
+	 * same version components are ordered by their vendors.
+	 *
+	 * @param runtime another {@link JavaRuntime}.
+	 * @return a negative integer, zero or a positive integer if this {@link JavaRuntime} is
+	 * respectively older than, the same as or newer than the specified {@link JavaRuntime}.
+	 */
+	@Override
+	public int compareTo(JavaRuntime runtime) {
+		Preconditions.checkNotNull(runtime, "runtime should not be null");
+		final int comparison = compareVersionComponents(runtime);
+
+		if (comparison != 0) {
+			return comparison;
+		}
+
+		if (vendor == null) {
+			return runtime.vendor == null ? 0 : -1;
+		}
+
+		return runtime.vendor == null ? 1 : vendor.compareTo(runtime.vendor);
+	}
+
+	/**
+	 * Returns the version string of this {@link JavaRuntime}.
+	 *
+	 * @return the version string of this {@link JavaRuntime}, e.g. {@code "17.0.2+8-LTS"}.
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the feature version of this {@link JavaRuntime}.
+	 *
+	 * @return the feature version of this {@link JavaRuntime}, e.g. {@code 8} or {@code 17}.
+	 */
+	public int getFeature() {
+		return feature;
+	}
+
+	/**
+	 * Returns the interim version of this {@link JavaRuntime}.
+	 *
+	 * @return the interim version of this {@link JavaRuntime}, which is {@code 0} for all
+	 * releases so far.
+	 */
+	public int getInterim() {
+		return interim;
+	}
+
+	/**
+	 * Returns the update version of this {@link JavaRuntime}.
+	 *
+	 * @return the update version of this {@link JavaRuntime}, e.g. {@code 292} for
+	 * {@code 1.8.0_292} or {@code 2} for {@code 17.0.2}.
+	 */
+	public int getUpdate() {
+		return update;
+	}
+
+	/**
+	 * Returns the emergency patch version of this {@link JavaRuntime}.
+	 *
+	 * @return the emergency patch version of this {@link JavaRuntime}, e.g. {@code 1} for
+	 * {@code 11.0.16.1}.
+	 */
+	public int getPatch() {
+		return patch;
+	}
+
+	/**
+	 * Returns the build number of this {@link JavaRuntime}.
+	 *
+	 * @return the build number of this {@link JavaRuntime}, or {@code 0} if it is not known.
+	 */
+	public int getBuild() {
+		return build;
+	}
+
+	/**
+	 * Returns the vendor of this {@link JavaRuntime}.
+	 *
+	 * @return the vendor of this {@link JavaRuntime}, e.g. {@code "Eclipse Adoptium"},
+	 * or {@code null} if it is not known.
+	 */
+	@Nullable
+	public String getVendor() {
+		return vendor;
+	}
+
+	/**
+	 * Returns whether the feature version of this {@link JavaRuntime} is at least the specified
+	 * feature version.
+	 *
+	 * @param feature a feature version, e.g. {@code 11}.
+	 * @return {@code true} if the feature version of this {@link JavaRuntime} is at least the
+	 * specified feature version, or otherwise {@code false}.
+	 */
+	public boolean isAtLeast(int feature) {
+		return this.feature >= feature;
+	}
+
+	/**
+	 * Returns whether the version of this {@link JavaRuntime} is at least the specified version.
+	 *
+	 * @param feature a feature version, e.g. {@code 11}.
+	 * @param interim an interim version.
+	 * @param update an update version, e.g. {@code 292} for {@code 1.8.0_292}.
+	 * @return {@code true} if the version of this {@link JavaRuntime} is at least the specified
+	 * version, or otherwise {@code false}.
+	 */
+	public boolean isAtLeast(int feature, int interim, int update) {
+		if (this.feature != feature) {
+			return this.feature > feature;
+		}
+
+		if (this.interim != interim) {
+			return this.interim > interim;
+		}
+
+		return this.update >= update;
+	}
+
+	/**
+	 * Returns whether this {@link JavaRuntime} provides {@code java.lang.StackWalker},
+	 * which was added in Java 9.
+	 *
+	 * @return {@code true} if this {@link JavaRuntime} provides {@code java.lang.StackWalker},
+	 * or otherwise {@code false}.
+	 */
+	public boolean hasStackWalker() {
+		return feature >= 9;
+	}
+
+	/**
+	 * Returns whether this {@link JavaRuntime} supports the Java Platform Module System,
+	 * which was added in Java 9.
+	 *
+	 * @return {@code true} if this {@link JavaRuntime} supports the Java Platform Module System,
+	 * or otherwise {@code false}.
+	 */
+	public boolean hasModules() {
+		return feature >= 9;
+	}
+
+	/**
+	 * Returns whether this {@link JavaRuntime} supports virtual threads without preview features
+	 * being enabled. Virtual threads were finalized in Java 21.
+	 *
+	 * @return {@code true} if this {@link JavaRuntime} supports virtual threads,
+	 * or otherwise {@code false}.
+	 */
+	public boolean hasVirtualThreads() {
+		return feature >= 21;
+	}
+
+	/**
+	 * Returns whether this {@link JavaRuntime} provides the foreign function and memory API
+	 * ({@code java.lang.foreign}) without preview features being enabled. The foreign function
+	 * and memory API was finalized in Java 22.
+	 *
+	 * @return {@code true} if this {@link JavaRuntime} provides the foreign function and memory
+	 * API, or otherwise {@code false}.
+	 */
+	public boolean hasForeignMemoryAPI() {
+		return feature >= 22;
+	}
+
+	private int compareVersionComponents(JavaRuntime runtime) {
+		int comparison = Integer.compare(feature, runtime.feature);
+
+		if (comparison == 0) {
+			comparison = Integer.compare(interim, runtime.interim);
+		}
+
+		if (comparison == 0) {
+			comparison = Integer.compare(update, runtime.update);
+		}
+
+		if (comparison == 0) {
+			comparison = Integer.compare(patch, runtime.patch);
+		}
+
+		return comparison == 0 ? Integer.compare(build, runtime.build) : comparison;
+	}
+
+	/**
+	 * Returns the current {@link JavaRuntime}.
+	 * The system properties are only parsed the first time this method is called.
+	 *
+	 * @return the current {@link JavaRuntime}.
+	 */
+	public static JavaRuntime current() {
+		return CurrentHolder.CURRENT;
+	}
+
+	/**
+	 * Parses the specified Java version string.
+	 *
+	 * @param version a Java version string, e.g. {@code "1.8.0_292-b10"} or {@code "17.0.2+8"}.
+	 * @return a {@link JavaRuntime} with the version represented by the specified version
+	 * string, or {@code null} if it is invalid.
+	 * @see #parse(CharSequence, String)
+	 */
+	@Nullable
+	public static JavaRuntime parse(CharSequence version) {
+		return parse(version, null);
+	}
+
+	/**
+	 * Parses the specified Java version string. Both {@code java.version} and
+	 * {@code java.runtime.version} values are accepted, as are {@code java.specification.version}
+	 * values, although they do not contain update versions or build numbers.
+	 * <p>
+	 * The version string is read in a single pass without creating substrings or throwing
+	 * exceptions, so this method is cheap enough to call on arbitrary version strings,
+	 * e.g. from telemetry. The only object allocated is the returned {@link JavaRuntime}.
+	 *
+	 * @param version a Java version string, e.g. {@code "1.8.0_292-b10"} or {@code "17.0.2+8"}.
+	 * @param vendor a Java runtime vendor.
+	 * @return a {@link JavaRuntime} with the version represented by the specified version
+	 * string, or {@code null} if it is invalid.
+	 */
+	@Nullable
+	public static JavaRuntime parse(CharSequence version, @Nullable String vendor) {
+		Preconditions.checkNotNull(version, "version should not be null");
+		final int length = version.length();
+		int end = skipDigits(version, 0);
+		int feature = parseNumber(version, 0, end);
+
+		if (feature <= 0) {
+			return null;
+		}
+
+		//In the legacy format, "1.8.0_292" consists of the feature, interim and update versions
+		//after the leading "1". Otherwise, "11.0.16.1" consists of the feature, interim, update
+		//and patch versions.
+		final boolean legacy = feature == 1 && end < length && version.charAt(end) == '.';
+		final int componentCount = legacy ? 3 : 4;
+		int component = legacy ? 0 : 1;
+		int interim = 0;
+		int update = 0;
+		int patch = 0;
+
+		while (component < componentCount && end < length) {
+			final char separator = legacy && component == 2 ? '_' : '.';
+
+			if (version.charAt(end) != separator) {
+				break;
+			}
+
+			final int componentEnd = skipDigits(version, end + 1);
+			final int value = parseNumber(version, end + 1, componentEnd);
+
+			if (value == -1) {
+				break;
+			}
+
+			if (component == 0) {
+				feature = value;
+			} else if (component == 1) {
+				interim = value;
+			} else if (component == 2) {
+				update = value;
+			} else {
+				patch = value;
+			}
+
+			end = componentEnd;
+			component++;
+		}
+
+		if (legacy && (component == 0 || feature == 0)) {
+			return null;
+		}
+
+		return new JavaRuntime(
+				version.toString(), feature, interim, update, patch,
+				parseBuild(version, end, legacy), vendor
+		);
+	}
+
+	private static int skipDigits(CharSequence sequence, int start) {
+		int index = start;
+
+		while (index < sequence.length() && isDigit(sequence.charAt(index))) {
+			index++;
+		}
+
+		return index;
+	}
+
+	private static int parseNumber(CharSequence sequence, int start, int end) {
+		//Nine digits always fit in an int.
+		if (start == end || end - start > 9) {
+			return -1;
+		}
+
+		int value = 0;
+
+		for (int i = start; i < end; i++) {
+			value = value * 10 + sequence.charAt(i) - '0';
+		}
+
+		return value;
+	}
+
+	private static int parseBuild(CharSequence version, int start, boolean legacy) {
+		//The build number follows "+" in the current format, e.g. "17.0.2+8", and "-b" in the
+		//legacy format, e.g. "1.8.0_292-b10".
+		for (int i = start; i < version.length(); i++) {
+			final char character = version.charAt(i);
+			final boolean buildSeparator = legacy ?
+					character == 'b' && i > 0 && version.charAt(i - 1) == '-' :
+					character == '+';
+
+			if (!buildSeparator) {
+				continue;
+			}
+
+			final int build = parseNumber(version, i + 1, skipDigits(version, i + 1));
+
+			//In the legacy format, "-b" may also begin other identifiers, e.g. "-beta".
+			if (build != -1 || !legacy) {
+				return Math.max(build, 0);
+			}
+		}
+
+		return 0;
+	}
+
+	private static boolean isDigit(char character) {
+		return character >= '0' && character <= '9';
+	}
+
+	private static JavaRuntime detect() {
+		final String vendor = SystemProperties.javaVendor.get();
+
+		//java.runtime.version includes the build number, whereas java.version may not.
+		for (String version : new String[] {
+				SystemProperties.javaRuntimeVersion.get(), SystemProperties.javaVersion.get(),
+				SystemProperties.javaSpecificationVersion.get()
+		}) {
+			if (version != null) {
+				final JavaRuntime runtime = parse(version, vendor);
+
+				if (runtime != null) {
+					return runtime;
+				}
+			}
+		}
+
+		logger.warn("Failed to determine Java version; assuming Java {}", MINIMUM_FEATURE_VERSION);
+		return new JavaRuntime(
+				String.valueOf(MINIMUM_FEATURE_VERSION), MINIMUM_FEATURE_VERSION, 0, 0, 0, 0, vendor
+		);
+	}
+
+	private static final class CurrentHolder {
+		static final JavaRuntime CURRENT = detect();
+	}
+}
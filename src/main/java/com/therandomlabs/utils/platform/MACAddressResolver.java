@@ -0,0 +1,419 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Preconditions;
+import com.google.common.math.LongMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the MAC address of the local machine without blocking the caller on DNS.
+ * <p>
+ * The MAC address of the network interface that owns the local host address is preferred.
+ * Since looking up the local host address can block for seconds on hosts with broken DNS,
+ * this lookup is performed asynchronously and abandoned after a timeout, in which case the
+ * network interfaces are enumerated directly instead. Resolved addresses are cached for a
+ * configurable amount of time. If no MAC address can be determined, this is cached for at most
+ * {@link #NEGATIVE_TIME_TO_LIVE}, so that callers do not start a new lookup every time, and a
+ * local host lookup that is still blocked from a previous resolution is reused rather than
+ * started again.
+ * <p>
+ * Enumerating the network interfaces does not involve DNS, but it can still be slow, so
+ * {@link #get(String)} stops waiting after {@link #ENUMERATION_TIMEOUT} in addition to the
+ * timeout. The futures returned by {@link #resolve(String)} are not bounded in this way.
+ */
+public final class MACAddressResolver {
+	/**
+	 * The default lookup timeout.
+	 */
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2L);
+
+	/**
+	 * The default amount of time for which resolved MAC addresses are cached.
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10L);
+
+	/**
+	 * The maximum amount of time for which a failure to determine the MAC address is cached.
+	 * Failures are cached for the shorter of this and the time to live.
+	 */
+	public static final Duration NEGATIVE_TIME_TO_LIVE = Duration.ofSeconds(30L);
+
+	/**
+	 * The maximum amount of time that {@link #get(String)} waits for the network interfaces to be
+	 * enumerated in addition to the timeout.
+	 */
+	public static final Duration ENUMERATION_TIMEOUT = Duration.ofSeconds(2L);
+
+	private static final Logger logger = LoggerFactory.getLogger(MACAddressResolver.class);
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static final ExecutorService lookupExecutor = Executors.newCachedThreadPool(
+			new ThreadFactoryBuilder().
+					setDaemon(true).
+					setNameFormat("trlutils-mac-address-lookup-%d").
+					build()
+	);
+
+	private static final ScheduledExecutorService timeoutExecutor =
+			Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().
+							setDaemon(true).
+							setNameFormat("trlutils-mac-address-timeout-%d").
+							build()
+			);
+
+	private static final MACAddressResolver DEFAULT =
+			new MACAddressResolver(DEFAULT_TIMEOUT, DEFAULT_TIME_TO_LIVE);
+
+	private final long timeoutNanos;
+	private final long timeToLiveNanos;
+	private final long negativeTimeToLiveNanos;
+	private final AtomicReference<CompletableFuture<byte[]>> inFlight = new AtomicReference<>();
+
+	@Nullable
+	private volatile CompletableFuture<byte[]> localHostLookup;
+
+	@Nullable
+	private volatile CachedAddress cachedAddress;
+
+	/**
+	 * Constructs a {@link MACAddressResolver}.
+	 *
+	 * @param timeout the maximum amount of time to wait for the local host address lookup before
+	 * falling back to enumerating the network interfaces directly.
+	 * @param timeToLive the amount of time for which resolved MAC addresses are cached.
+	 */
+	public MACAddressResolver(Duration timeout, Duration timeToLive) {
+		Preconditions.checkNotNull(timeout, "timeout should not be null");
+		Preconditions.checkNotNull(timeToLive, "timeToLive should not be null");
+		Preconditions.checkArgument(!timeout.isNegative(), "timeout should not be negative");
+		Preconditions.checkArgument(!timeToLive.isNegative(), "timeToLive should not be negative");
+		timeoutNanos = timeout.toNanos();
+		timeToLiveNanos = timeToLive.toNanos();
+		negativeTimeToLiveNanos = Math.min(timeToLiveNanos, NEGATIVE_TIME_TO_LIVE.toNanos());
+	}
+
+	/**
+	 * Asynchronously resolves the MAC address of the local machine.
+	 * If a resolution is already in progress, its result is shared.
+	 *
+	 * @return a {@link CompletableFuture} that completes with a copy of the hardware address of
+	 * the local machine, or with {@code null} if it cannot be determined.
+	 * The {@link CompletableFuture} completes no later than shortly after the timeout.
+	 */
+	public CompletableFuture<byte[]> resolveHardwareAddress() {
+		final CachedAddress cached = cachedAddress;
+
+		if (cached != null && System.nanoTime() - cached.expiry < 0L) {
+			return CompletableFuture.completedFuture(
+					cached.address == null ? null : cached.address.clone()
+			);
+		}
+
+		CompletableFuture<byte[]> future;
+
+		do {
+			future = inFlight.get();
+
+			if (future == null) {
+				final CompletableFuture<byte[]> newFuture = new CompletableFuture<>();
+
+				if (inFlight.compareAndSet(null, newFuture)) {
+					startResolution(newFuture);
+					future = newFuture;
+				}
+			}
+		} while (future == null);
+
+		return future.thenApply(address -> address == null ? null : address.clone());
+	}
+
+	/**
+	 * Asynchronously resolves the MAC address in lowercase of the local machine with each group
+	 * separated by the specified string.
+	 *
+	 * @param separator a separator string.
+	 * @return a {@link CompletableFuture} that completes with the MAC address in lowercase of
+	 * the local machine with each group separated by the specified string, or with {@code null}
+	 * if it cannot be determined.
+	 */
+	public CompletableFuture<String> resolve(String separator) {
+		Preconditions.checkNotNull(separator, "separator should not be null");
+		return resolveHardwareAddress().thenApply(
+				address -> address == null ? null : format(address, separator)
+		);
+	}
+
+	/**
+	 * Returns the MAC address in lowercase of the local machine with each group separated by
+	 * the specified string. If it is not cached, this waits for at most the timeout plus
+	 * {@link #ENUMERATION_TIMEOUT}. If the resolution has not completed by then, {@code null} is
+	 * returned, but the resolution continues, so its result is cached for later calls.
+	 *
+	 * @param separator a separator string.
+	 * @return the MAC address in lowercase of the local machine with each group separated by the
+	 * specified string, or {@code null} if it cannot be determined in time.
+	 */
+	@Nullable
+	public String get(String separator) {
+		final CompletableFuture<String> future = resolve(separator);
+
+		try {
+			return future.get(
+					LongMath.saturatedAdd(timeoutNanos, ENUMERATION_TIMEOUT.toNanos()),
+					TimeUnit.NANOSECONDS
+			);
+		} catch (TimeoutException ex) {
+			logger.debug("Timed out while resolving MAC address of local machine");
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			throw new CompletionException(ex.getCause());
+		}
+
+		return null;
+	}
+
+	/**
+	 * Clears the cached MAC address or cached failure so that the next resolution looks it up
+	 * again.
+	 */
+	public void invalidate() {
+		cachedAddress = null;
+	}
+
+	/**
+	 * Returns the {@link MACAddressResolver} used by {@link Platform#getMACAddress(String)},
+	 * which uses {@link #DEFAULT_TIMEOUT} and {@link #DEFAULT_TIME_TO_LIVE}.
+	 *
+	 * @return the default {@link MACAddressResolver}.
+	 */
+	public static MACAddressResolver getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Formats the specified hardware address in lowercase hexadecimal with each group separated
+	 * by the specified string.
+	 *
+	 * @param address a hardware address.
+	 * @param separator a separator string.
+	 * @return the formatted hardware address.
+	 */
+	public static String format(byte[] address, String separator) {
+		Preconditions.checkNotNull(address, "address should not be null");
+		Preconditions.checkNotNull(separator, "separator should not be null");
+
+		final StringBuilder builder =
+				new StringBuilder(address.length * (2 + separator.length()));
+
+		for (int i = 0; i < address.length; i++) {
+			if (i != 0) {
+				builder.append(separator);
+			}
+
+			builder.append(HEX_DIGITS[(address[i] >> 4) & 0xF]).
+					append(HEX_DIGITS[address[i] & 0xF]);
+		}
+
+		return builder.toString();
+	}
+
+	private void startResolution(CompletableFuture<byte[]> future) {
+		future.whenComplete((address, ex) -> {
+			//This is logged once per resolution rather than by every caller, since failures
+			//are cached.
+			if (address == null) {
+				logger.warn("Failed to retrieve MAC address of local machine");
+			}
+
+			final long timeToLive = address == null ? negativeTimeToLiveNanos : timeToLiveNanos;
+			cachedAddress = new CachedAddress(address, System.nanoTime() + timeToLive);
+			inFlight.compareAndSet(future, null);
+		});
+
+		//A lookup that timed out may still be blocked on DNS, in which case we wait for it
+		//rather than blocking another thread.
+		CompletableFuture<byte[]> lookup = localHostLookup;
+
+		if (lookup == null || lookup.isDone()) {
+			lookup = CompletableFuture.supplyAsync(
+					MACAddressResolver::getLocalHostHardwareAddress, lookupExecutor
+			);
+			localHostLookup = lookup;
+		}
+
+		//The timeout and a failed lookup can both trigger the fallback, but the network
+		//interfaces should only be enumerated once per resolution.
+		final AtomicBoolean fallbackStarted = new AtomicBoolean();
+
+		lookup.whenComplete((address, ex) -> {
+			if (address != null) {
+				future.complete(address);
+			} else {
+				completeWithFallback(future, fallbackStarted);
+			}
+		});
+
+		timeoutExecutor.schedule(() -> {
+			if (!future.isDone()) {
+				logger.debug("Local host lookup timed out; enumerating network interfaces");
+				completeWithFallback(future, fallbackStarted);
+			}
+		}, timeoutNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static void completeWithFallback(
+			CompletableFuture<byte[]> future, AtomicBoolean fallbackStarted
+	) {
+		if (future.isDone() || !fallbackStarted.compareAndSet(false, true)) {
+			return;
+		}
+
+		CompletableFuture.supplyAsync(
+				MACAddressResolver::getFirstHardwareAddress, lookupExecutor
+		).whenComplete((address, ex) -> {
+			if (ex != null) {
+				logger.debug("Failed to enumerate network interfaces", ex);
+			}
+
+			future.complete(address);
+		});
+	}
+
+	@Nullable
+	private static byte[] getLocalHostHardwareAddress() {
+		try {
+			final InetAddress localHost = InetAddress.getLocalHost();
+			final NetworkInterface networkInterface = NetworkInterface.getByInetAddress(localHost);
+			return networkInterface == null ? null : getValidHardwareAddress(networkInterface);
+		} catch (UnknownHostException | SocketException ex) {
+			logger.debug("Failed to retrieve network interface of local host", ex);
+		}
+
+		return null;
+	}
+
+	@Nullable
+	private static byte[] getFirstHardwareAddress() {
+		final Enumeration<NetworkInterface> networkInterfaces;
+
+		try {
+			networkInterfaces = NetworkInterface.getNetworkInterfaces();
+		} catch (SocketException ex) {
+			logger.debug("Failed to enumerate network interfaces", ex);
+			return null;
+		}
+
+		if (networkInterfaces == null) {
+			return null;
+		}
+
+		//We prefer interfaces that are up, and then the interface with the lowest index so that
+		//the result is stable.
+		NetworkInterface best = null;
+		byte[] bestAddress = null;
+		boolean bestUp = false;
+
+		for (NetworkInterface networkInterface : Collections.list(networkInterfaces)) {
+			try {
+				if (networkInterface.isLoopback() || networkInterface.isVirtual()) {
+					continue;
+				}
+
+				final byte[] address = getValidHardwareAddress(networkInterface);
+
+				if (address == null) {
+					continue;
+				}
+
+				final boolean up = networkInterface.isUp();
+
+				if (best == null || (up && !bestUp) || (up == bestUp &&
+						networkInterface.getIndex() < best.getIndex())) {
+					best = networkInterface;
+					bestAddress = address;
+					bestUp = up;
+				}
+			} catch (SocketException ex) {
+				logger.debug("Failed to query network interface: {}", networkInterface, ex);
+			}
+		}
+
+		return bestAddress;
+	}
+
+	@Nullable
+	private static byte[] getValidHardwareAddress(NetworkInterface networkInterface)
+			throws SocketException {
+		final byte[] address = networkInterface.getHardwareAddress();
+
+		if (address == null || address.length == 0) {
+			return null;
+		}
+
+		//Some interfaces, such as tunnels, report an all-zero hardware address.
+		for (byte b : address) {
+			if (b != 0) {
+				return address;
+			}
+		}
+
+		return null;
+	}
+
+	private static final class CachedAddress {
+		@Nullable
+		private final byte[] address;
+		private final long expiry;
+
+		CachedAddress(@Nullable byte[] address, long expiry) {
+			this.address = address;
+			this.expiry = expiry;
+		}
+	}
+}
@@ -23,7 +23,6 @@
 
 package com.therandomlabs.utils.platform;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
@@ -73,7 +72,7 @@ public final class MacOSVersion {
 	 */
 	public static final OSVersion CATALINA = get("Catalina", 15);
 
-	private static final Set<OSVersion> versions = ImmutableSet.of(
+	private static final ImmutableSet<OSVersion> versions = ImmutableSet.of(
 			MOUNTAIN_LION,
 			MAVERICKS,
 			YOSEMITE,
@@ -89,17 +88,18 @@ public final class MacOSVersion {
 	/**
 	 * Returns all {@link OSVersion} instances that represent known macOS/Mac OS X versions.
 	 *
-	 * @return a mutable {@link Set} containing all {@link OSVersion} instances that represent
+	 * @return an immutable {@link Set} containing all {@link OSVersion} instances that represent
 	 * known macOS/Mac OS X versions.
 	 */
 	public static Set<OSVersion> getVersions() {
-		return new HashSet<>(versions);
+		return versions;
 	}
 
 	private static OSVersion get(String name, int versionNumber) {
 		return new OSVersion(
 				(versionNumber > 11 ? "macOS " : "Mac OS X ") + name,
-				"10." + versionNumber
+				"10." + versionNumber,
+				10, versionNumber
 		);
 	}
 }
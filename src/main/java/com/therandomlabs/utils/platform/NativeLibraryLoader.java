@@ -0,0 +1,481 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads native libraries that are bundled as resources, e.g. in a JAR.
+ * <p>
+ * Libraries are looked up at {@code <resourcePrefix>/<classifier>/<mapped name>}, where the
+ * classifier identifies the current {@link OS} and {@link InstructionSet}, e.g.
+ * {@code natives/linux-x86_64/libfoo.so} or {@code natives/windows-aarch64/foo.dll}.
+ * <p>
+ * A library is extracted to a cache directory that is keyed by the SHA-256 hash of its content,
+ * so it is only written once per version, and later starts reuse the cached file once its size
+ * and hash have been verified. Extraction writes to a temporary file that is atomically moved
+ * into place, and JVMs on the same host coordinate through file locks, so a partially written
+ * library is never loaded.
+ * <p>
+ * On file systems that support POSIX permissions, the cache directory and each library directory
+ * are created so that only the current user can access them, and existing directories are refused
+ * if they are not owned by the current user, are symbolic links or are writable by other users.
+ * Since no other user can write to them, a library cannot be replaced between the time that its
+ * hash is verified and the time that it is loaded.
+ */
+public final class NativeLibraryLoader {
+	private static final Logger logger = LoggerFactory.getLogger(NativeLibraryLoader.class);
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final int BUFFER_SIZE = 8192;
+	private static final long TRANSFER_SIZE = 1L << 20;
+	private static final Set<PosixFilePermission> OWNER_ONLY =
+			PosixFilePermissions.fromString("rwx------");
+
+	//FileChannel#lock cannot be used to coordinate threads in the same JVM,
+	//so we also lock in-process on the lock file path.
+	private static final ConcurrentMap<Path, Object> processLocks = new ConcurrentHashMap<>();
+
+	private final ClassLoader classLoader;
+	private final String resourcePrefix;
+	private final Path cacheDirectory;
+	private final ConcurrentMap<String, Path> extracted = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a {@link NativeLibraryLoader} that extracts libraries to a per-user
+	 * {@code trlutils-natives-<user name>} directory in the directory referenced by
+	 * {@link SystemProperties#tempDirectory}.
+	 *
+	 * @param classLoader the {@link ClassLoader} that the libraries should be loaded from.
+	 * @param resourcePrefix the resource path prefix of the libraries, e.g. {@code "natives"}.
+	 */
+	public NativeLibraryLoader(ClassLoader classLoader, String resourcePrefix) {
+		this(classLoader, resourcePrefix, getDefaultCacheDirectory());
+	}
+
+	/**
+	 * Constructs a {@link NativeLibraryLoader}.
+	 *
+	 * @param classLoader the {@link ClassLoader} that the libraries should be loaded from.
+	 * @param resourcePrefix the resource path prefix of the libraries, e.g. {@code "natives"}.
+	 * @param cacheDirectory the directory that libraries should be extracted to.
+	 * It is created if it does not exist, and it should not be writable by other users.
+	 */
+	public NativeLibraryLoader(
+			ClassLoader classLoader, String resourcePrefix, Path cacheDirectory
+	) {
+		Preconditions.checkNotNull(classLoader, "classLoader should not be null");
+		Preconditions.checkNotNull(resourcePrefix, "resourcePrefix should not be null");
+		Preconditions.checkNotNull(cacheDirectory, "cacheDirectory should not be null");
+		this.classLoader = classLoader;
+		this.resourcePrefix = trimSlashes(resourcePrefix);
+		this.cacheDirectory = cacheDirectory.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Returns the directory that libraries are extracted to.
+	 *
+	 * @return the directory that libraries are extracted to.
+	 */
+	public Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Returns the resource path of the library with the specified name for the current platform.
+	 *
+	 * @param libraryName a library name as passed to {@link System#loadLibrary(String)},
+	 * e.g. {@code "foo"}.
+	 * @return the resource path of the library with the specified name,
+	 * e.g. {@code "natives/linux-x86_64/libfoo.so"}.
+	 */
+	public String getResourcePath(String libraryName) {
+		Preconditions.checkNotNull(libraryName, "libraryName should not be null");
+		final String fileName = System.mapLibraryName(libraryName);
+		final String classifier = getPlatformClassifier();
+		return resourcePrefix.isEmpty() ?
+				classifier + "/" + fileName : resourcePrefix + "/" + classifier + "/" + fileName;
+	}
+
+	/**
+	 * Loads the library with the specified name.
+	 * If the library is bundled for the current platform, it is extracted if necessary and
+	 * loaded using {@link System#load(String)}. Otherwise, it is loaded from the library search
+	 * path using {@link System#loadLibrary(String)}.
+	 *
+	 * @param libraryName a library name as passed to {@link System#loadLibrary(String)},
+	 * e.g. {@code "foo"}.
+	 * @throws IOException if the library cannot be extracted.
+	 * @throws UnsatisfiedLinkError if the library cannot be loaded.
+	 */
+	public void load(String libraryName) throws IOException {
+		final Path library = extract(libraryName);
+
+		if (library == null) {
+			logger.debug("{} is not bundled, loading it from the library path", libraryName);
+			System.loadLibrary(libraryName);
+		} else {
+			System.load(library.toString());
+		}
+	}
+
+	/**
+	 * Extracts the library with the specified name for the current platform if it has not already
+	 * been extracted.
+	 *
+	 * @param libraryName a library name as passed to {@link System#loadLibrary(String)},
+	 * e.g. {@code "foo"}.
+	 * @return the path of the extracted library, or {@code null} if it is not bundled for the
+	 * current platform.
+	 * @throws IOException if the library cannot be extracted, or if the cache directory is not
+	 * private to the current user.
+	 */
+	@Nullable
+	public Path extract(String libraryName) throws IOException {
+		final String resourcePath = getResourcePath(libraryName);
+		final Path cached = extracted.get(resourcePath);
+
+		if (cached != null) {
+			return cached;
+		}
+
+		//First, we hash the resource without writing it anywhere, so that we can reuse a library
+		//that another JVM has already extracted.
+		final byte[] hash;
+
+		try (InputStream inputStream = classLoader.getResourceAsStream(resourcePath)) {
+			if (inputStream == null) {
+				return null;
+			}
+
+			hash = hash(inputStream);
+		}
+
+		final Path directory = cacheDirectory.resolve(toHex(hash));
+		final Path library = directory.resolve(System.mapLibraryName(libraryName));
+
+		//The directories are verified before the cached library is trusted, so that another user
+		//cannot plant a library or replace it after it has been verified.
+		createPrivateDirectory(cacheDirectory);
+		createPrivateDirectory(directory);
+
+		if (!isValid(library, hash)) {
+			final Path lockFile = directory.resolve(".lock");
+
+			synchronized (processLocks.computeIfAbsent(lockFile, path -> new Object())) {
+				try (FileChannel lockChannel = FileChannel.open(
+						lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+				)) {
+					final FileLock lock = lockChannel.lock();
+
+					try {
+						//Another JVM may have extracted the library while we waited for the lock.
+						if (!isValid(library, hash)) {
+							if (Files.exists(library)) {
+								logger.warn(
+										"Cached native library is corrupt and will be extracted " +
+												"again: {}",
+										library
+								);
+							}
+
+							write(resourcePath, library, hash);
+						}
+					} finally {
+						lock.release();
+					}
+				}
+			}
+		}
+
+		extracted.put(resourcePath, library);
+		return library;
+	}
+
+	private void write(String resourcePath, Path library, byte[] hash) throws IOException {
+		final Path temporaryFile =
+				Files.createTempFile(library.getParent(), library.getFileName().toString(), ".tmp");
+
+		try {
+			final MessageDigest digest = newDigest();
+
+			try (
+					InputStream inputStream = classLoader.getResourceAsStream(resourcePath);
+					ReadableByteChannel source = Channels.newChannel(
+							new DigestInputStream(checkResource(inputStream, resourcePath), digest)
+					);
+					FileChannel destination =
+							FileChannel.open(temporaryFile, StandardOpenOption.WRITE)
+			) {
+				long position = 0L;
+				long transferred;
+
+				while ((transferred =
+						destination.transferFrom(source, position, TRANSFER_SIZE)) > 0L) {
+					position += transferred;
+				}
+
+				destination.force(true);
+			}
+
+			if (!Arrays.equals(digest.digest(), hash)) {
+				throw new IOException("Resource changed while being extracted: " + resourcePath);
+			}
+
+			try {
+				Files.move(
+						temporaryFile, library, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING
+				);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporaryFile, library, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			logger.debug("Extracted {} to {}", resourcePath, library);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Returns the platform classifier that is used in resource paths for the current platform.
+	 *
+	 * @return the platform classifier for the current platform, e.g. {@code "linux-x86_64"}.
+	 * @see #getPlatformClassifier(OS, InstructionSet)
+	 */
+	public static String getPlatformClassifier() {
+		return getPlatformClassifier(CurrentPlatform.os(), CurrentPlatform.instructionSet());
+	}
+
+	/**
+	 * Returns the platform classifier that is used in resource paths for the specified
+	 * {@link OS} and {@link InstructionSet}, which consists of their lowercase names separated by
+	 * a hyphen. {@link OS#GNU_LINUX} is treated as {@link OS#LINUX}.
+	 *
+	 * @param os an {@link OS}.
+	 * @param instructionSet an {@link InstructionSet}.
+	 * @return the platform classifier for the specified {@link OS} and {@link InstructionSet},
+	 * e.g. {@code "linux-x86_64"}, {@code "macos-aarch64"} or {@code "windows-x86"}.
+	 */
+	public static String getPlatformClassifier(OS os, InstructionSet instructionSet) {
+		Preconditions.checkNotNull(os, "os should not be null");
+		Preconditions.checkNotNull(instructionSet, "instructionSet should not be null");
+		final OS classifierOS = os == OS.GNU_LINUX ? OS.LINUX : os;
+		return classifierOS.name().toLowerCase(Locale.ENGLISH).replace('_', '-') + "-" +
+				instructionSet.name().toLowerCase(Locale.ENGLISH);
+	}
+
+	private static Path getDefaultCacheDirectory() {
+		final Path tempDirectory = Preconditions.checkNotNull(
+				SystemProperties.tempDirectory.get(), "java.io.tmpdir should not be null"
+		);
+		//The temporary directory is usually shared between users, so each user has their own
+		//cache directory.
+		final String userName = SystemProperties.userAccountName.get("unknown").
+				replaceAll("[^A-Za-z0-9._-]", "_");
+		return tempDirectory.resolve("trlutils-natives-" + userName);
+	}
+
+	private static void createPrivateDirectory(Path directory) throws IOException {
+		if (!supportsPosix(directory)) {
+			Files.createDirectories(directory);
+			return;
+		}
+
+		if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+			final Path parent = directory.getParent();
+
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+
+			try {
+				Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+			} catch (FileAlreadyExistsException ignored) {
+				//Another thread or process created it first, so we verify it below.
+			}
+		}
+
+		checkPrivate(directory);
+	}
+
+	private static void checkPrivate(Path path) throws IOException {
+		final PosixFileAttributes attributes = Files.readAttributes(
+				path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS
+		);
+
+		if (attributes.isSymbolicLink()) {
+			throw new IOException("Native library cache path is a symbolic link: " + path);
+		}
+
+		if (CurrentUserHolder.USER == null) {
+			throw new IOException("Cannot verify native library cache path: " + path);
+		}
+
+		if (!attributes.owner().equals(CurrentUserHolder.USER)) {
+			throw new IOException(
+					"Native library cache path is not owned by the current user: " + path
+			);
+		}
+
+		final Set<PosixFilePermission> permissions = attributes.permissions();
+
+		if (permissions.contains(PosixFilePermission.GROUP_WRITE) ||
+				permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+			throw new IOException(
+					"Native library cache path is writable by other users: " + path
+			);
+		}
+	}
+
+	private static boolean supportsPosix(Path path) {
+		return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+	}
+
+	private static boolean isValid(Path library, byte[] hash) throws IOException {
+		if (!Files.isRegularFile(library, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+
+		if (supportsPosix(library)) {
+			checkPrivate(library);
+		}
+
+		//The library may have been truncated or modified, so we verify its hash before reusing it.
+		//The file is streamed rather than mapped, since on Windows, a mapping would prevent a
+		//corrupt library from being replaced until it is garbage collected.
+		try (InputStream inputStream = Files.newInputStream(library)) {
+			return Arrays.equals(hash(inputStream), hash);
+		}
+	}
+
+	private static byte[] hash(InputStream inputStream) throws IOException {
+		final MessageDigest digest = newDigest();
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		int read;
+
+		while ((read = inputStream.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+
+		return digest.digest();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			//Every Java platform implementation is required to support SHA-256.
+			throw new IllegalStateException("SHA-256 is not supported", ex);
+		}
+	}
+
+	private static InputStream checkResource(@Nullable InputStream inputStream, String path)
+			throws IOException {
+		if (inputStream == null) {
+			throw new IOException("Resource disappeared while being extracted: " + path);
+		}
+
+		return inputStream;
+	}
+
+	private static String toHex(byte[] bytes) {
+		final char[] hex = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+
+		return new String(hex);
+	}
+
+	private static final class CurrentUserHolder {
+		@Nullable
+		private static final UserPrincipal USER = getCurrentUser();
+
+		@Nullable
+		private static UserPrincipal getCurrentUser() {
+			//user.name can be overridden, so the owner of a newly created file is used instead.
+			try {
+				final Path file = Files.createTempFile("trlutils-owner", ".tmp");
+
+				try {
+					return Files.getOwner(file, LinkOption.NOFOLLOW_LINKS);
+				} finally {
+					Files.deleteIfExists(file);
+				}
+			} catch (IOException ex) {
+				logger.error("Failed to determine the current user", ex);
+			}
+
+			return null;
+		}
+	}
+
+	private static String trimSlashes(String path) {
+		int start = 0;
+		int end = path.length();
+
+		while (start < end && path.charAt(start) == '/') {
+			start++;
+		}
+
+		while (end > start && path.charAt(end - 1) == '/') {
+			end--;
+		}
+
+		return path.substring(start, end);
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable snapshot of the state of a network interface.
+ *
+ * @see NetworkInterfaceInventory
+ */
+public final class NetworkInterfaceInfo {
+	private final String name;
+	private final int index;
+	@Nullable
+	private final byte[] hardwareAddress;
+	private final int mtu;
+	private final boolean up;
+	private final boolean virtual;
+	private final ImmutableList<InetAddress> addresses;
+
+	NetworkInterfaceInfo(
+			String name, int index, @Nullable byte[] hardwareAddress, int mtu, boolean up,
+			boolean virtual, List<InetAddress> addresses
+	) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		this.name = name;
+		this.index = index;
+		this.hardwareAddress = isValidHardwareAddress(hardwareAddress) ?
+				hardwareAddress.clone() : null;
+		this.mtu = mtu;
+		this.up = up;
+		this.virtual = virtual;
+		this.addresses = ImmutableList.copyOf(addresses);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, index, Arrays.hashCode(hardwareAddress), mtu, up, virtual);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof NetworkInterfaceInfo)) {
+			return false;
+		}
+
+		final NetworkInterfaceInfo info = (NetworkInterfaceInfo) object;
+		return index == info.index && mtu == info.mtu && up == info.up &&
+				virtual == info.virtual && name.equals(info.name) &&
+				Arrays.equals(hardwareAddress, info.hardwareAddress) &&
+				addresses.equals(info.addresses);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("name", name).
+				add("index", index).
+				add("hardwareAddress", getFormattedHardwareAddress(":")).
+				add("mtu", mtu).
+				add("up", up).
+				add("virtual", virtual).
+				add("addresses", addresses).
+				toString();
+	}
+
+	/**
+	 * Returns the name of this network interface, e.g. {@code "eth0"}.
+	 *
+	 * @return the name of this network interface.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the index of this network interface.
+	 *
+	 * @return the index of this network interface, or {@code -1} if it is unknown.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the hardware address of this network interface.
+	 *
+	 * @return a copy of the hardware address of this network interface, or {@code null} if it
+	 * does not have one. Empty and all-zero addresses are reported as {@code null}.
+	 */
+	@Nullable
+	public byte[] getHardwareAddress() {
+		return hardwareAddress == null ? null : hardwareAddress.clone();
+	}
+
+	/**
+	 * Returns the hardware address of this network interface in lowercase with each group
+	 * separated by the specified string.
+	 *
+	 * @param separator a separator string.
+	 * @return the formatted hardware address of this network interface, or {@code null} if it
+	 * does not have one.
+	 */
+	@Nullable
+	public String getFormattedHardwareAddress(String separator) {
+		return hardwareAddress == null ?
+				null : MACAddressResolver.format(hardwareAddress, separator);
+	}
+
+	/**
+	 * Returns the maximum transmission unit of this network interface.
+	 *
+	 * @return the MTU of this network interface, or {@code -1} if it is unknown.
+	 */
+	public int getMTU() {
+		return mtu;
+	}
+
+	/**
+	 * Returns whether this network interface is up.
+	 *
+	 * @return {@code true} if this network interface is up, or otherwise {@code false}.
+	 */
+	public boolean isUp() {
+		return up;
+	}
+
+	/**
+	 * Returns whether this network interface is virtual, i.e. not backed by a physical device.
+	 * On Linux, this is the case for interfaces whose device is under
+	 * {@code /sys/devices/virtual}, e.g. bridges, veth pairs and tunnels.
+	 * Where sysfs is unavailable, this is approximated: sub-interfaces (see
+	 * {@link java.net.NetworkInterface#isVirtual()}), point-to-point interfaces and interfaces
+	 * without a hardware address are considered virtual.
+	 *
+	 * @return {@code true} if this network interface is virtual, or otherwise {@code false}.
+	 */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	/**
+	 * Returns the addresses bound to this network interface.
+	 *
+	 * @return an immutable list containing the addresses bound to this network interface.
+	 */
+	public ImmutableList<InetAddress> getAddresses() {
+		return addresses;
+	}
+
+	boolean hasSameAttributes(
+			@Nullable byte[] hardwareAddress, int index, int mtu, boolean up, boolean virtual
+	) {
+		return this.index == index && this.mtu == mtu && this.up == up &&
+				this.virtual == virtual && Arrays.equals(this.hardwareAddress, hardwareAddress);
+	}
+
+	static boolean isValidHardwareAddress(@Nullable byte[] hardwareAddress) {
+		if (hardwareAddress == null) {
+			return false;
+		}
+
+		for (byte b : hardwareAddress) {
+			if (b != 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,383 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An inventory of all non-loopback network interfaces of the local machine that can be
+ * refreshed cheaply.
+ * <p>
+ * On Linux, {@link #refresh()} reads the hardware address, MTU, flags and operational state
+ * of each interface from {@code /sys/class/net} and only queries the JDK for the addresses of
+ * interfaces that were added or whose attributes changed. Since changes to only the addresses
+ * of an interface are not visible in {@code /sys/class/net}, {@link #refreshAll()} should be
+ * called occasionally to pick those up. On other platforms, both methods enumerate all network
+ * interfaces through {@link NetworkInterface}.
+ */
+public final class NetworkInterfaceInventory {
+	/**
+	 * The difference between two snapshots of a {@link NetworkInterfaceInventory}.
+	 */
+	public static final class Diff {
+		private final ImmutableList<NetworkInterfaceInfo> added;
+		private final ImmutableList<NetworkInterfaceInfo> removed;
+		private final ImmutableList<NetworkInterfaceInfo> changed;
+
+		Diff(
+				Map<String, NetworkInterfaceInfo> previous,
+				Map<String, NetworkInterfaceInfo> current
+		) {
+			final ImmutableList.Builder<NetworkInterfaceInfo> added = ImmutableList.builder();
+			final ImmutableList.Builder<NetworkInterfaceInfo> removed = ImmutableList.builder();
+			final ImmutableList.Builder<NetworkInterfaceInfo> changed = ImmutableList.builder();
+
+			for (NetworkInterfaceInfo info : current.values()) {
+				final NetworkInterfaceInfo previousInfo = previous.get(info.getName());
+
+				if (previousInfo == null) {
+					added.add(info);
+				} else if (!previousInfo.equals(info)) {
+					changed.add(info);
+				}
+			}
+
+			for (NetworkInterfaceInfo info : previous.values()) {
+				if (!current.containsKey(info.getName())) {
+					removed.add(info);
+				}
+			}
+
+			this.added = added.build();
+			this.removed = removed.build();
+			this.changed = changed.build();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("added", added).
+					add("removed", removed).
+					add("changed", changed).
+					toString();
+		}
+
+		/**
+		 * Returns the network interfaces that were added.
+		 *
+		 * @return an immutable list containing the network interfaces that were added.
+		 */
+		public ImmutableList<NetworkInterfaceInfo> getAdded() {
+			return added;
+		}
+
+		/**
+		 * Returns the network interfaces that were removed.
+		 *
+		 * @return an immutable list containing the last known state of the network interfaces
+		 * that were removed.
+		 */
+		public ImmutableList<NetworkInterfaceInfo> getRemoved() {
+			return removed;
+		}
+
+		/**
+		 * Returns the network interfaces that changed.
+		 *
+		 * @return an immutable list containing the new state of the network interfaces that
+		 * changed.
+		 */
+		public ImmutableList<NetworkInterfaceInfo> getChanged() {
+			return changed;
+		}
+
+		/**
+		 * Returns whether nothing changed.
+		 *
+		 * @return {@code true} if no network interfaces were added, removed or changed,
+		 * or otherwise {@code false}.
+		 */
+		public boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+		}
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(NetworkInterfaceInventory.class);
+
+	private static final Path SYS_CLASS_NET = Paths.get("/sys/class/net");
+
+	private static final int IFF_UP = 0x1;
+	private static final int IFF_LOOPBACK = 0x8;
+
+	@Nullable
+	private final Path sysClassNet;
+
+	private volatile ImmutableSortedMap<String, NetworkInterfaceInfo> interfaces =
+			ImmutableSortedMap.of();
+
+	/**
+	 * Constructs a {@link NetworkInterfaceInventory} and takes an initial snapshot.
+	 */
+	public NetworkInterfaceInventory() {
+		this(Files.isDirectory(SYS_CLASS_NET) ? SYS_CLASS_NET : null);
+	}
+
+	NetworkInterfaceInventory(@Nullable Path sysClassNet) {
+		this.sysClassNet = sysClassNet;
+		refreshAll();
+	}
+
+	/**
+	 * Returns the network interfaces in the current snapshot.
+	 *
+	 * @return an immutable map of network interface names to the state of the network interfaces
+	 * in the current snapshot, sorted by name.
+	 */
+	public ImmutableSortedMap<String, NetworkInterfaceInfo> getInterfaces() {
+		return interfaces;
+	}
+
+	/**
+	 * Returns the network interface with the specified name in the current snapshot.
+	 *
+	 * @param name a network interface name.
+	 * @return the network interface with the specified name in the current snapshot,
+	 * or {@code null} if it does not exist.
+	 */
+	@Nullable
+	public NetworkInterfaceInfo getInterface(String name) {
+		return interfaces.get(name);
+	}
+
+	/**
+	 * Refreshes this {@link NetworkInterfaceInventory}. On Linux, the addresses of network
+	 * interfaces whose other attributes did not change are not queried again.
+	 *
+	 * @return the difference between the previous snapshot and the new snapshot.
+	 */
+	public synchronized Diff refresh() {
+		return sysClassNet == null ? update(readFromJDK()) : update(readFromSysFs(false));
+	}
+
+	/**
+	 * Refreshes this {@link NetworkInterfaceInventory}, including the addresses of every network
+	 * interface.
+	 *
+	 * @return the difference between the previous snapshot and the new snapshot.
+	 */
+	public synchronized Diff refreshAll() {
+		return sysClassNet == null ? update(readFromJDK()) : update(readFromSysFs(true));
+	}
+
+	private Diff update(Map<String, NetworkInterfaceInfo> newInterfaces) {
+		final ImmutableSortedMap<String, NetworkInterfaceInfo> previous = interfaces;
+		interfaces = ImmutableSortedMap.copyOf(newInterfaces);
+		return new Diff(previous, interfaces);
+	}
+
+	private Map<String, NetworkInterfaceInfo> readFromSysFs(boolean queryAllAddresses) {
+		final Map<String, NetworkInterfaceInfo> previous = interfaces;
+		final Map<String, NetworkInterfaceInfo> current = new TreeMap<>();
+		//The JDK is only queried if an interface is new or has changed.
+		Map<String, NetworkInterface> jdkInterfaces = null;
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(sysClassNet)) {
+			for (Path directory : stream) {
+				final String name = directory.getFileName().toString();
+				final long flags = parseFlags(SysFs.readLine(directory.resolve("flags")));
+
+				if ((flags & IFF_LOOPBACK) != 0) {
+					continue;
+				}
+
+				//Interfaces without a hardware address, e.g. tunnels, report all zeros.
+				final byte[] hardwareAddress =
+						parseHardwareAddress(SysFs.readLine(directory.resolve("address")));
+				final int index = (int) SysFs.readLong(directory.resolve("ifindex"), -1L);
+				final int mtu = (int) SysFs.readLong(directory.resolve("mtu"), -1L);
+				final String operState = SysFs.readLine(directory.resolve("operstate"));
+				//Interfaces that do not report their operational state, e.g. some tunnels,
+				//use "unknown", in which case we fall back to the administrative state.
+				final boolean up = "up".equals(operState) ||
+						("unknown".equals(operState) && (flags & IFF_UP) != 0);
+				final boolean virtual = isVirtual(directory);
+
+				final NetworkInterfaceInfo previousInfo = previous.get(name);
+
+				if (!queryAllAddresses && previousInfo != null &&
+						previousInfo.hasSameAttributes(hardwareAddress, index, mtu, up, virtual)) {
+					current.put(name, previousInfo);
+					continue;
+				}
+
+				if (jdkInterfaces == null) {
+					jdkInterfaces = getJDKInterfaces();
+				}
+
+				current.put(name, new NetworkInterfaceInfo(
+						name, index, hardwareAddress, mtu, up, virtual,
+						getAddresses(jdkInterfaces.get(name))
+				));
+			}
+		} catch (IOException ex) {
+			logger.warn("Failed to list network interfaces in: {}", sysClassNet, ex);
+			return previous;
+		}
+
+		return current;
+	}
+
+	private static Map<String, NetworkInterfaceInfo> readFromJDK() {
+		final Map<String, NetworkInterfaceInfo> current = new TreeMap<>();
+
+		for (NetworkInterface networkInterface : getJDKInterfaces().values()) {
+			try {
+				if (networkInterface.isLoopback()) {
+					continue;
+				}
+
+				final byte[] hardwareAddress = networkInterface.getHardwareAddress();
+				//Without sysfs, whether an interface is backed by a physical device can only be
+				//approximated.
+				final boolean virtual = networkInterface.isVirtual() ||
+						networkInterface.isPointToPoint() ||
+						!NetworkInterfaceInfo.isValidHardwareAddress(hardwareAddress);
+
+				current.put(networkInterface.getName(), new NetworkInterfaceInfo(
+						networkInterface.getName(), networkInterface.getIndex(), hardwareAddress,
+						networkInterface.getMTU(), networkInterface.isUp(), virtual,
+						getAddresses(networkInterface)
+				));
+			} catch (SocketException ex) {
+				logger.debug("Failed to query network interface: {}", networkInterface, ex);
+			}
+		}
+
+		return current;
+	}
+
+	private static Map<String, NetworkInterface> getJDKInterfaces() {
+		final Map<String, NetworkInterface> jdkInterfaces = new HashMap<>();
+
+		try {
+			final Enumeration<NetworkInterface> enumeration =
+					NetworkInterface.getNetworkInterfaces();
+
+			if (enumeration != null) {
+				for (NetworkInterface networkInterface : Collections.list(enumeration)) {
+					jdkInterfaces.put(networkInterface.getName(), networkInterface);
+				}
+			}
+		} catch (SocketException ex) {
+			logger.warn("Failed to enumerate network interfaces", ex);
+		}
+
+		return jdkInterfaces;
+	}
+
+	private static List<InetAddress> getAddresses(
+			@Nullable NetworkInterface networkInterface
+	) {
+		return networkInterface == null ?
+				ImmutableList.of() : Collections.list(networkInterface.getInetAddresses());
+	}
+
+	private static boolean isVirtual(Path directory) {
+		//Entries in /sys/class/net are symbolic links to the device directory, which is under
+		///sys/devices/virtual for interfaces that are not backed by a physical device.
+		try {
+			final Path target = Files.isSymbolicLink(directory) ?
+					Files.readSymbolicLink(directory) : directory;
+
+			for (Path element : target) {
+				if ("virtual".equals(element.toString())) {
+					return true;
+				}
+			}
+		} catch (IOException ex) {
+			logger.debug("Failed to resolve network interface device: {}", directory, ex);
+		}
+
+		return false;
+	}
+
+	private static long parseFlags(@Nullable String flags) {
+		if (flags == null) {
+			return 0L;
+		}
+
+		try {
+			return flags.startsWith("0x") ?
+					Long.parseLong(flags.substring(2), 16) : Long.parseLong(flags);
+		} catch (NumberFormatException ex) {
+			return 0L;
+		}
+	}
+
+	@Nullable
+	private static byte[] parseHardwareAddress(@Nullable String address) {
+		if (address == null || address.length() < 2) {
+			return null;
+		}
+
+		//Addresses are formatted as lowercase hexadecimal groups separated by colons.
+		final byte[] bytes = new byte[(address.length() + 1) / 3];
+
+		for (int i = 0; i < bytes.length; i++) {
+			final int high = Character.digit(address.charAt(i * 3), 16);
+			final int low = Character.digit(address.charAt(i * 3 + 1), 16);
+
+			if (high == -1 || low == -1) {
+				return null;
+			}
+
+			bytes[i] = (byte) ((high << 4) | low);
+		}
+
+		return NetworkInterfaceInfo.isValidHardwareAddress(bytes) ? bytes : null;
+	}
+}
@@ -26,8 +26,8 @@ package com.therandomlabs.utils.platform;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Set;
-import java.util.function.Function;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -43,7 +43,7 @@ public enum OS {
 	/**
 	 * Android.
 	 */
-	ANDROID("Android", "linux"),
+	ANDROID("Android"),
 	/**
 	 * FreeBSD.
 	 */
@@ -113,9 +113,13 @@ public enum OS {
 			filter(os -> os != UNKNOWN).
 			collect(ImmutableSet.toImmutableSet());
 
+	private static final CaseInsensitiveTrie<OS> NAMES = buildNameTrie();
+
 	private final String friendlyName;
 	private final ImmutableList<String> knownNames;
 	private final ImmutableSet<OSVersion> versions;
+	private final CaseInsensitiveTrie<OSVersion> versionsByName;
+	private final CaseInsensitiveTrie<OSVersion> versionsByVersionNumber;
 	private final boolean versionNumberInOSName;
 
 	OS(String friendlyName, String... knownNames) {
@@ -135,6 +139,19 @@ public enum OS {
 		}
 
 		this.versions = ImmutableSet.copyOf(versions);
+
+		final CaseInsensitiveTrie.Builder<OSVersion> versionsByName =
+				CaseInsensitiveTrie.builder(CharMatcher.none());
+		final CaseInsensitiveTrie.Builder<OSVersion> versionsByVersionNumber =
+				CaseInsensitiveTrie.builder(CharMatcher.none());
+
+		for (OSVersion version : this.versions) {
+			versionsByName.put(version.getFullName(), version);
+			versionsByVersionNumber.put(version.getVersionNumber(), version);
+		}
+
+		this.versionsByName = versionsByName.build();
+		this.versionsByVersionNumber = versionsByVersionNumber.build();
 		this.versionNumberInOSName = versionNumberInOSName;
 	}
 
@@ -188,105 +205,95 @@ public enum OS {
 	 */
 	public OSVersion getVersionByName(String name) {
 		Preconditions.checkNotNull(name, "name should not be null");
-
-		if (versions.isEmpty()) {
-			return OSVersion.unknown();
-		}
-
-		name = name.trim();
-
-		if (name.isEmpty()) {
-			return OSVersion.unknown();
-		}
-
-		return getVersion(name, OSVersion::getFullName);
+		final OSVersion version = versionsByName.get(name, trimStart(name), trimEnd(name));
+		return version == null ? OSVersion.unknown() : version;
 	}
 
 	/**
 	 * Returns the {@link OSVersion} with a version number equivalent to the specified version
 	 * number.
+	 * If there is no exact match, minor versions are ignored, e.g. {@code "10.13.6"} is
+	 * matched to {@code "10.13"}.
 	 *
 	 * @param versionNumber a version number.
 	 * @return the {@link OSVersion} with a version number equivalent to the specified version
 	 * number, or {@link OSVersion#unknown()} if it cannot be found.
 	 */
 	public OSVersion getVersionByVersionNumber(String versionNumber) {
-		if (versions.isEmpty()) {
-			return OSVersion.unknown();
-		}
+		Preconditions.checkNotNull(versionNumber, "versionNumber should not be null");
+		final int start = trimStart(versionNumber);
+		final int end = trimEnd(versionNumber);
 
-		versionNumber = versionNumber.trim();
-
-		if (versionNumber.isEmpty()) {
+		if (start >= end) {
 			return OSVersion.unknown();
 		}
 
-		//First, we try directly matching the version numbers.
-		final OSVersion quickMatch = getVersion(versionNumber, OSVersion::getVersionNumber);
-
-		if (!quickMatch.isUnknown()) {
-			return quickMatch;
-		}
-
-		//Then, we try matching by ignoring minor versions, e.g. 10.13.6 is matched to 10.13.
-		final String[] versionParts = versionNumber.split("\\.");
-
-		for (OSVersion version : versions) {
-			if (versionsMatch(versionParts, version.getVersionNumber().split("\\."))) {
-				return version;
-			}
-		}
-
-		return OSVersion.unknown();
+		final OSVersion version =
+				versionsByVersionNumber.getByParts(versionNumber, start, end, '.');
+		return version == null ? OSVersion.unknown() : version;
 	}
 
-	private OSVersion getVersion(String toFind, Function<OSVersion, String> versionToString) {
-		for (OSVersion version : versions) {
-			if (toFind.equalsIgnoreCase(versionToString.apply(version))) {
-				return version;
-			}
-		}
-
-		return OSVersion.unknown();
-	}
-
-	private boolean versionsMatch(String[] version1Parts, String[] version2Parts) {
-		final int partsToCheck = Math.min(version1Parts.length, version2Parts.length);
-
-		for (int i = 0; i < partsToCheck; i++) {
-			if (!version1Parts[i].equalsIgnoreCase(version2Parts[i])) {
-				return false;
-			}
-		}
-
-		return true;
+	/**
+	 * Returns the {@link OS} with the specified OS name.
+	 *
+	 * @param osName an OS name.
+	 * @return the {@link OS} with the specified OS name, or {@link #UNKNOWN} if it does not
+	 * exist.
+	 */
+	public static OS fromName(String osName) {
+		return fromName((CharSequence) osName);
 	}
 
 	/**
 	 * Returns the {@link OS} with the specified OS name.
+	 * An OS name matches an {@link OS} if it starts with one of that {@link OS}'s known names,
+	 * ignoring case and leading and trailing whitespace. If several known names match,
+	 * the longest one wins, so {@code "Windows CE"} matches {@link #WINDOWS_CE} rather than
+	 * {@link #WINDOWS}. This method does not allocate.
 	 *
 	 * @param osName an OS name.
 	 * @return the {@link OS} with the specified OS name, or {@link #UNKNOWN} if it does not
 	 * exist.
 	 */
-	public static OS fromName(String osName) {
-		final String nameToFind = osName.trim().toLowerCase(Locale.ENGLISH);
+	public static OS fromName(CharSequence osName) {
+		Preconditions.checkNotNull(osName, "osName should not be null");
+
+		final OS os = NAMES.getLongestPrefix(osName, trimStart(osName), trimEnd(osName));
+		return os == null ? UNKNOWN : os;
+	}
+
+	//These trim the same characters as String#trim without creating a new string.
+
+	private static int trimStart(CharSequence sequence) {
+		int start = 0;
 
-		if (nameToFind.isEmpty()) {
-			return UNKNOWN;
+		while (start < sequence.length() && sequence.charAt(start) <= ' ') {
+			start++;
 		}
 
-		//Since WINDOWS_CE is defined before WINDOWS, we need to check for WINDOWS_CE first.
-		if (nameToFind.equals(WINDOWS_CE.knownNames.get(0))) {
-			return WINDOWS_CE;
+		return start;
+	}
+
+	private static int trimEnd(CharSequence sequence) {
+		int end = sequence.length();
+
+		while (end > 0 && sequence.charAt(end - 1) <= ' ') {
+			end--;
 		}
 
+		return end;
+	}
+
+	private static CaseInsensitiveTrie<OS> buildNameTrie() {
+		final CaseInsensitiveTrie.Builder<OS> builder =
+				CaseInsensitiveTrie.builder(CharMatcher.none());
+
 		for (OS os : KNOWN_VALUES) {
-			if (os.knownNames.stream().anyMatch(nameToFind::startsWith)) {
-				return os;
+			for (String knownName : os.knownNames) {
+				builder.put(knownName, os);
 			}
 		}
 
-		return UNKNOWN;
+		return builder.build();
 	}
 }
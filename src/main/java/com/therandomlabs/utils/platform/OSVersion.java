@@ -25,10 +25,16 @@ package com.therandomlabs.utils.platform;
 
 import java.util.Objects;
 
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.ImmutableIntArray;
 import com.google.errorprone.annotations.Immutable;
 
 /**
  * Represents an {@link OS} version.
+ * <p>
+ * {@link OSVersion}s are ordered by their numeric version components, e.g. {@code [6, 1]} for
+ * Windows 7 or {@code [10, 13]} for macOS High Sierra. Missing trailing components are treated as
+ * {@code 0}, so {@code [10]} and {@code [10, 0]} represent the same version number.
  */
 @Immutable
 public final class OSVersion implements Comparable<OSVersion> {
@@ -36,10 +42,12 @@ public final class OSVersion implements Comparable<OSVersion> {
 
 	private final String fullName;
 	private final String versionNumber;
+	private final ImmutableIntArray versionComponents;
 
-	OSVersion(String fullName, String versionNumber) {
+	OSVersion(String fullName, String versionNumber, int... versionComponents) {
 		this.fullName = fullName;
 		this.versionNumber = versionNumber;
+		this.versionComponents = ImmutableIntArray.copyOf(versionComponents);
 	}
 
 	/**
@@ -72,11 +80,27 @@ public final class OSVersion implements Comparable<OSVersion> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Compares this {@link OSVersion} to the specified {@link OSVersion} by their version
+	 * components. {@link OSVersion}s with the same version components, e.g. Windows 10 and
+	 * Windows Server 2016, are ordered by their full names. {@link #unknown()} is ordered before
+	 * all other {@link OSVersion}s.
+	 *
+	 * @param version an {@link OSVersion}.
+	 * @return a negative integer, zero, or a positive integer as this {@link OSVersion} is less
+	 * than, equal to, or greater than the specified {@link OSVersion}.
 	 */
 	@Override
 	public int compareTo(OSVersion version) {
-		return fullName.compareTo(version.fullName);
+		if (this == version) {
+			return 0;
+		}
+
+		if (isUnknown() || version.isUnknown()) {
+			return isUnknown() ? -1 : 1;
+		}
+
+		final int result = compareVersionComponents(version.versionComponents);
+		return result == 0 ? fullName.compareTo(version.fullName) : result;
 	}
 
 	/**
@@ -100,6 +124,95 @@ public final class OSVersion implements Comparable<OSVersion> {
 		return versionNumber;
 	}
 
+	/**
+	 * Returns this {@link OSVersion}'s numeric version components, e.g. {@code [10, 13]} for
+	 * macOS High Sierra. For Windows, these are the Windows NT version components,
+	 * e.g. {@code [6, 1]} for Windows 7.
+	 *
+	 * @return an immutable array containing this {@link OSVersion}'s version components.
+	 * This is empty for {@link #unknown()}.
+	 */
+	public ImmutableIntArray getVersionComponents() {
+		return versionComponents;
+	}
+
+	/**
+	 * Returns the version component of this {@link OSVersion} at the specified index.
+	 *
+	 * @param index an index, e.g. {@code 0} for the major version.
+	 * @return the version component at the specified index, or {@code 0} if this
+	 * {@link OSVersion} does not have that many components.
+	 */
+	public int getVersionComponent(int index) {
+		Preconditions.checkArgument(index >= 0, "index should not be negative");
+		return index < versionComponents.length() ? versionComponents.get(index) : 0;
+	}
+
+	/**
+	 * Returns whether this {@link OSVersion}'s major version is at least the specified major
+	 * version. This method does not allocate.
+	 *
+	 * @param major a major version.
+	 * @return {@code true} if this {@link OSVersion} is not {@link #unknown()} and its
+	 * major version is greater than or equal to the specified major version,
+	 * or otherwise {@code false}.
+	 */
+	public boolean isAtLeast(int major) {
+		return !isUnknown() && getVersionComponent(0) >= major;
+	}
+
+	/**
+	 * Returns whether this {@link OSVersion}'s version number is at least the specified
+	 * version number. This method does not allocate.
+	 *
+	 * @param major a major version.
+	 * @param minor a minor version.
+	 * @return {@code true} if this {@link OSVersion} is not {@link #unknown()} and its
+	 * version number is greater than or equal to {@code major.minor}, or otherwise {@code false}.
+	 */
+	public boolean isAtLeast(int major, int minor) {
+		if (isUnknown()) {
+			return false;
+		}
+
+		final int actualMajor = getVersionComponent(0);
+		return actualMajor == major ? getVersionComponent(1) >= minor : actualMajor > major;
+	}
+
+	/**
+	 * Returns whether this {@link OSVersion}'s version number is at least the version number of
+	 * the specified {@link OSVersion}. Only the version components are compared.
+	 * This method does not allocate.
+	 *
+	 * @param version an {@link OSVersion}.
+	 * @return {@code true} if neither {@link OSVersion} is {@link #unknown()} and this
+	 * {@link OSVersion}'s version components are greater than or equal to those of the specified
+	 * {@link OSVersion}, or otherwise {@code false}.
+	 */
+	public boolean isAtLeast(OSVersion version) {
+		Preconditions.checkNotNull(version, "version should not be null");
+		return !isUnknown() && !version.isUnknown() &&
+				compareVersionComponents(version.versionComponents) >= 0;
+	}
+
+	/**
+	 * Returns whether this {@link OSVersion}'s version number is between the version numbers of
+	 * the specified {@link OSVersion}s, inclusive. Only the version components are compared.
+	 * This method does not allocate.
+	 *
+	 * @param min the minimum {@link OSVersion}.
+	 * @param max the maximum {@link OSVersion}.
+	 * @return {@code true} if none of the {@link OSVersion}s are {@link #unknown()} and this
+	 * {@link OSVersion}'s version components are between those of the specified
+	 * {@link OSVersion}s, inclusive, or otherwise {@code false}.
+	 */
+	public boolean isBetween(OSVersion min, OSVersion max) {
+		Preconditions.checkNotNull(min, "min should not be null");
+		Preconditions.checkNotNull(max, "max should not be null");
+		return isAtLeast(min) && !max.isUnknown() &&
+				compareVersionComponents(max.versionComponents) <= 0;
+	}
+
 	/**
 	 * Returns whether this {@link OSVersion} is {@link OSVersion#unknown()}.
 	 *
@@ -109,6 +222,22 @@ public final class OSVersion implements Comparable<OSVersion> {
 		return equals(UNKNOWN);
 	}
 
+	private int compareVersionComponents(ImmutableIntArray otherComponents) {
+		final int length = Math.max(versionComponents.length(), otherComponents.length());
+
+		for (int i = 0; i < length; i++) {
+			final int component = i < versionComponents.length() ? versionComponents.get(i) : 0;
+			final int otherComponent =
+					i < otherComponents.length() ? otherComponents.get(i) : 0;
+
+			if (component != otherComponent) {
+				return Integer.compare(component, otherComponent);
+			}
+		}
+
+		return 0;
+	}
+
 	/**
 	 * Returns an {@link OSVersion} that represents an unknown OS version.
 	 *
@@ -23,116 +23,168 @@
 
 package com.therandomlabs.utils.platform;
 
-import java.net.InetAddress;
 import java.net.MalformedURLException;
-import java.net.NetworkInterface;
-import java.net.SocketException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.UnknownHostException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.AccessController;
 import java.security.CodeSource;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
-import java.util.Locale;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
-import com.therandomlabs.utils.platform.systemproperty.IBMSystemProperties;
-import com.therandomlabs.utils.platform.systemproperty.SunSystemProperties;
-import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
-import com.therandomlabs.utils.platform.systemproperty.type.IntProperty;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Contains constants and methods for accessing platform information.
+ * <p>
+ * All constants in this class are computed when it is initialized. {@link CurrentPlatform}
+ * provides the same information, but only computes each value when it is first requested.
  */
 @SuppressWarnings("NullAway")
 public final class Platform {
 	/**
 	 * The current {@link OS}.
+	 *
+	 * @see CurrentPlatform#os()
 	 */
-	public static final OS CURRENT_OS = getOS();
+	public static final OS CURRENT_OS = CurrentPlatform.os();
 
 	/**
 	 * The current {@link OSVersion}.
+	 *
+	 * @see CurrentPlatform#osVersion()
 	 */
-	public static final OSVersion CURRENT_OS_VERSION = CURRENT_OS.isVersionNumberInOSName() ?
-			CURRENT_OS.getVersionByName(SystemProperties.osName.get()) :
-			CURRENT_OS.getVersionByVersionNumber(SystemProperties.osVersion.get());
+	public static final OSVersion CURRENT_OS_VERSION = CurrentPlatform.osVersion();
 
 	/**
 	 * Whether the current {@link OS} is either {@link OS#WINDOWS} or {@link OS#WINDOWS_CE}.
+	 *
+	 * @see CurrentPlatform#isWindowsOrWindowsCE()
 	 */
-	public static final boolean IS_WINDOWS_OR_WINDOWS_CE = CURRENT_OS.isWindowsOrWindowsCE();
+	public static final boolean IS_WINDOWS_OR_WINDOWS_CE = CurrentPlatform.isWindowsOrWindowsCE();
 
 	/**
 	 * The current JVM {@link Architecture}.
+	 *
+	 * @see CurrentPlatform#jvmArchitecture()
 	 */
-	public static final Architecture JVM_ARCHITECTURE;
+	public static final Architecture JVM_ARCHITECTURE = CurrentPlatform.jvmArchitecture();
 
 	/**
 	 * The JRE directory.
+	 *
+	 * @see CurrentPlatform#jreDirectory()
 	 */
-	public static final Path JRE_DIRECTORY = Preconditions.checkNotNull(
-			SystemProperties.javaInstallationDirectory.get(),
-			"java.home should not be null"
-	);
+	public static final Path JRE_DIRECTORY = CurrentPlatform.jreDirectory();
 
 	/**
 	 * The JRE {@code bin} directory.
+	 *
+	 * @see CurrentPlatform#jreBinDirectory()
 	 */
-	public static final Path JRE_BIN_DIRECTORY = JRE_DIRECTORY.resolve("bin");
+	public static final Path JRE_BIN_DIRECTORY = CurrentPlatform.jreBinDirectory();
 
 	/**
 	 * The {@code java} executable.
+	 *
+	 * @see CurrentPlatform#javaExecutable()
 	 */
-	public static final Path JAVA_EXECUTABLE = getJREExecutable("java");
+	public static final Path JAVA_EXECUTABLE = CurrentPlatform.javaExecutable();
 
 	/**
 	 * The {@code javaw} executable.
+	 *
+	 * @see CurrentPlatform#javawExecutable()
 	 */
-	public static final Path JAVAW_EXECUTABLE = getJREExecutable("javaw");
+	public static final Path JAVAW_EXECUTABLE = CurrentPlatform.javawExecutable();
 
 	/**
 	 * The current working directory, i.e. the directory in which {@code java} or {@code javaw}
 	 * was started.
+	 *
+	 * @see CurrentPlatform#currentWorkingDirectory()
 	 */
-	public static final Path CURRENT_WORKING_DIRECTORY =
-			SystemProperties.userCurrentWorkingDirectory.get(Paths.get(".").toAbsolutePath());
+	public static final Path CURRENT_WORKING_DIRECTORY = CurrentPlatform.currentWorkingDirectory();
 
 	private static final Logger logger = LoggerFactory.getLogger(Platform.class);
 
-	static {
-		final IntProperty dataModel = SunSystemProperties.architectureDataModel.hasValue() ?
-				SunSystemProperties.architectureDataModel : IBMSystemProperties.vmBitMode;
-
-		if (dataModel.valueEquals(32)) {
-			JVM_ARCHITECTURE = Architecture.THIRTY_TWO_BIT;
-		} else if (dataModel.valueEquals(64)) {
-			JVM_ARCHITECTURE = Architecture.SIXTY_FOUR_BIT;
-		} else {
-			//Fall back to os.arch.
-			JVM_ARCHITECTURE = Architecture.fromName(SystemProperties.jvmArchitecture.get());
-		}
-	}
+	private static final Pattern WINDOWS_FILE_URL_WITHOUT_SLASH =
+			Pattern.compile("file:[A-Za-z]:.*");
+
+	//Classes loaded from the same JAR or directory by the same class loader share a
+	//ProtectionDomain, so they only need to be resolved once. The keys are weak so that class
+	//loaders can still be unloaded.
+	private static final LoadingCache<ProtectionDomain, Optional<Path>> codeSourceLocations =
+			CacheBuilder.newBuilder().weakKeys().build(
+					new CacheLoader<ProtectionDomain, Optional<Path>>() {
+						@Override
+						public Optional<Path> load(ProtectionDomain protectionDomain) {
+							return Optional.ofNullable(
+									toPath(protectionDomain.getCodeSource().getLocation())
+							);
+						}
+					}
+			);
+
+	//ClassValue stores its values in the classes themselves, so this does not prevent them from
+	//being unloaded.
+	private static final ClassValue<Optional<Path>> classLocations =
+			new ClassValue<Optional<Path>>() {
+				@Override
+				protected Optional<Path> computeValue(Class<?> clazz) {
+					return Optional.ofNullable(findClassLocation(clazz));
+				}
+			};
 
 	private Platform() {}
 
 	/**
 	 * Returns the JRE executable with the specified file name.
+	 * <p>
+	 * The JRE {@code bin} directory is searched first, followed by the directories in the
+	 * {@code PATH} environment variable, as in {@link #findExecutable(String)}. If the executable
+	 * cannot be found in any of them, the path at which it would be in the JRE {@code bin}
+	 * directory is returned, even though it does not exist.
 	 *
 	 * @param name a JRE executable file name.
 	 * @return a {@link Path} that represents the JRE executable with the specified file name.
 	 */
 	public static Path getJREExecutable(String name) {
-		Preconditions.checkNotNull(name, "name should not be null");
-		name = name.toLowerCase(Locale.ENGLISH);
-		Preconditions.checkArgument(name.matches("[a-z]+"), "name should be alphabetic");
-		return JRE_BIN_DIRECTORY.resolve(CURRENT_OS == OS.WINDOWS ? name + ".exe" : name);
+		final Path jreExecutable = CurrentPlatform.getJREExecutable(name);
+		//On Windows, the file name already has an extension, so PATHEXT is not used.
+		final Path executable = findExecutable(jreExecutable.getFileName().toString());
+		return executable == null ? jreExecutable : executable;
+	}
+
+	/**
+	 * Returns the executable with the specified name.
+	 * The JRE {@code bin} directory is searched first, followed by the directories in the
+	 * {@code PATH} environment variable. All of these directories are indexed by a single
+	 * {@link SearchPathIndex}, so repeated lookups are hash lookups.
+	 *
+	 * @param name an executable name, e.g. {@code "java"} or {@code "ffmpeg"}.
+	 * @return a {@link Path} that represents the executable with the specified name,
+	 * or {@code null} if it cannot be found.
+	 * @throws IllegalArgumentException if the specified name contains a path separator.
+	 */
+	@Nullable
+	public static Path findExecutable(String name) {
+		return ExecutableIndexHolder.INDEX.findExecutable(name);
 	}
 
 	/**
@@ -163,6 +215,12 @@ public final class Platform {
 	/**
 	 * Returns the MAC address in lowercase of the local machine with each group separated by the
 	 * specified string.
+	 * <p>
+	 * This uses {@link MACAddressResolver#getDefault()}, so the result is cached, and this method
+	 * does not block for longer than {@link MACAddressResolver#DEFAULT_TIMEOUT} plus
+	 * {@link MACAddressResolver#ENUMERATION_TIMEOUT}, even if DNS or the network interfaces are
+	 * slow. If the MAC address cannot be retrieved in that time, {@code null} is returned, and it
+	 * is still resolved in the background for later calls.
 	 *
 	 * @param separator a separator string.
 	 * @return the MAC address in lowercase of the local machine with each group separated by the
@@ -170,28 +228,15 @@ public final class Platform {
 	 */
 	@Nullable
 	public static String getMACAddress(String separator) {
-		try {
-			final StringBuilder macAddress = new StringBuilder();
-
-			final InetAddress localHost = InetAddress.getLocalHost();
-			final NetworkInterface networkInterface = NetworkInterface.getByInetAddress(localHost);
-
-			if (networkInterface == null) {
-				logger.warn("Failed to retrieve MAC address of local machine");
-				return null;
-			}
-
-			for (byte b : networkInterface.getHardwareAddress()) {
-				//Format each byte as a hexadecimal number.
-				macAddress.append(String.format("%02x", b)).append(separator);
-			}
+		final String macAddress = MACAddressResolver.getDefault().get(separator);
 
-			return macAddress.substring(0, macAddress.length() - separator.length());
-		} catch (UnknownHostException | SocketException ex) {
-			logger.warn("Failed to retrieve MAC address of local machine", ex);
+		//MACAddressResolver logs failures once per resolution, and a null result may also be a
+		//cached failure or a timeout while the resolution continues.
+		if (macAddress == null) {
+			logger.debug("MAC address of local machine is not available");
 		}
 
-		return null;
+		return macAddress;
 	}
 
 	/**
@@ -210,20 +255,58 @@ public final class Platform {
 	@Nullable
 	public static Path getClassLocation(Class<?> clazz) {
 		Preconditions.checkNotNull(clazz, "clazz should not be null");
+		return classLocations.get(clazz).orElse(null);
+	}
+
+	/**
+	 * Returns the paths to the base locations of the specified classes.
+	 * The locations are resolved in parallel, and classes from the same code source share a
+	 * single resolution.
+	 *
+	 * @param classes a collection of classes.
+	 * @return an immutable map of the specified classes to the paths to their locations.
+	 * Classes for which a valid path cannot be found are not included.
+	 * @see #getClassLocation(Class)
+	 */
+	public static ImmutableMap<Class<?>, Path> getClassLocations(
+			Collection<? extends Class<?>> classes
+	) {
+		Preconditions.checkNotNull(classes, "classes should not be null");
+		final Map<Class<?>, Path> locations = classes.parallelStream().
+				distinct().
+				filter(clazz -> classLocations.get(clazz).isPresent()).
+				collect(Collectors.toConcurrentMap(
+						Function.identity(), clazz -> classLocations.get(clazz).get()
+				));
+		return ImmutableMap.copyOf(locations);
+	}
 
+	@Nullable
+	private static Path findClassLocation(Class<?> clazz) {
 		//Taken from: https://stackoverflow.com/a/12733172
 
-		final URL url = getClassURL(clazz);
+		final ProtectionDomain protectionDomain = getProtectionDomain(clazz);
 
-		if (url == null) {
-			return null;
+		if (protectionDomain != null) {
+			final CodeSource codeSource = protectionDomain.getCodeSource();
+
+			if (codeSource != null && codeSource.getLocation() != null) {
+				return codeSourceLocations.getUnchecked(protectionDomain).orElse(null);
+			}
 		}
 
+		final URL url = getClassResourceBaseURL(clazz);
+		return url == null ? null : toPath(url);
+	}
+
+	@Nullable
+	private static Path toPath(URL url) {
 		final String path = url.toExternalForm();
 		String correctedPath = path;
 
 		//Change initial file: to file:/ if necessary, for example, file:C:\dir => file:/C:\dir.
-		if (IS_WINDOWS_OR_WINDOWS_CE && path.matches("file:[A-Za-z]:.*")) {
+		if (CurrentPlatform.isWindowsOrWindowsCE() &&
+				WINDOWS_FILE_URL_WITHOUT_SLASH.matcher(path).matches()) {
 			correctedPath = "file:/" + path.substring(5);
 		}
 
@@ -241,23 +324,20 @@ public final class Platform {
 	}
 
 	@Nullable
-	private static URL getClassURL(Class<?> clazz) {
+	private static ProtectionDomain getProtectionDomain(Class<?> clazz) {
 		try {
-			final CodeSource codeSource = AccessController.doPrivileged(
+			return AccessController.doPrivileged(
 					(PrivilegedAction<ProtectionDomain>) clazz::getProtectionDomain
-			).getCodeSource();
-
-			if (codeSource != null) {
-				final URL location = codeSource.getLocation();
-
-				if (location != null) {
-					return location;
-				}
-			}
+			);
 		} catch (SecurityException ignored) {
 			//This occurs when we aren't allowed to retrieve the ProtectionDomain.
 		}
 
+		return null;
+	}
+
+	@Nullable
+	private static URL getClassResourceBaseURL(Class<?> clazz) {
 		//We ask for the class itself as a resource, then strip the class's path from the URL.
 		final URL resource = clazz.getResource(clazz.getSimpleName() + ".class");
 
@@ -297,13 +377,10 @@ public final class Platform {
 		return null;
 	}
 
-	private static OS getOS() {
-		final OS os = OS.fromName(SystemProperties.osName.get());
-
-		if (os == OS.LINUX && SystemProperties.jvmName.stringEquals("Dalvik")) {
-			return OS.ANDROID;
-		}
-
-		return os;
+	private static final class ExecutableIndexHolder {
+		static final SearchPathIndex INDEX = new SearchPathIndex(ImmutableList.<Path>builder().
+				add(CurrentPlatform.jreBinDirectory()).
+				addAll(SearchPathIndex.executablePath().getDirectories()).
+				build());
 	}
 }
@@ -0,0 +1,279 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates {@link ExecutorService}s, {@link ForkJoinPool}s and
+ * {@link java.util.concurrent.ScheduledExecutorService}s that are sized according to the number
+ * of CPUs that the current process can effectively use, as reported by
+ * {@link ContainerLimits#getEffectiveCPUs()}, rather than {@link Runtime#availableProcessors()}.
+ * This takes cgroup CPU quotas, CPU sets and the CPU affinity mask into account.
+ */
+public final class PlatformExecutors {
+	/**
+	 * Describes the kind of tasks that an executor runs, which determines how many threads it
+	 * uses and how many tasks it may queue.
+	 */
+	public enum Workload {
+		/**
+		 * Tasks that are mostly computation. One thread is used per effective CPU.
+		 */
+		CPU_BOUND(1, 64),
+		/**
+		 * Tasks that spend most of their time blocked on I/O. Eight threads are used per
+		 * effective CPU, or one virtual thread per task if virtual threads are supported.
+		 */
+		IO_BOUND(8, 16),
+		/**
+		 * Tasks that both compute and block. Two threads are used per effective CPU.
+		 */
+		MIXED(2, 32);
+
+		private final int threadsPerCPU;
+		private final int queuedTasksPerThread;
+
+		Workload(int threadsPerCPU, int queuedTasksPerThread) {
+			this.threadsPerCPU = threadsPerCPU;
+			this.queuedTasksPerThread = queuedTasksPerThread;
+		}
+
+		/**
+		 * Returns the number of threads that should be used for this {@link Workload}.
+		 *
+		 * @param effectiveCPUs the number of CPUs that can effectively be used.
+		 * @return the number of threads that should be used for this {@link Workload}.
+		 */
+		public int getThreadCount(int effectiveCPUs) {
+			Preconditions.checkArgument(effectiveCPUs > 0, "effectiveCPUs should be positive");
+			return effectiveCPUs * threadsPerCPU;
+		}
+
+		/**
+		 * Returns the maximum number of tasks that should be queued for this {@link Workload}
+		 * before task submitters are made to run tasks themselves.
+		 *
+		 * @param effectiveCPUs the number of CPUs that can effectively be used.
+		 * @return the maximum number of tasks that should be queued for this {@link Workload}.
+		 */
+		public int getQueueCapacity(int effectiveCPUs) {
+			return getThreadCount(effectiveCPUs) * queuedTasksPerThread;
+		}
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(PlatformExecutors.class);
+
+	private static final long KEEP_ALIVE_SECONDS = 60L;
+
+	private PlatformExecutors() {}
+
+	/**
+	 * Returns whether virtual threads are supported by the current runtime.
+	 * This is the case on Java 21 and newer.
+	 *
+	 * @return {@code true} if virtual threads are supported, or otherwise {@code false}.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VirtualThreadsHolder.SUPPORTED;
+	}
+
+	/**
+	 * Returns a new {@link ExecutorService} for the specified {@link Workload}.
+	 * For {@link Workload#IO_BOUND}, this is an executor that starts a new virtual thread for
+	 * each task if virtual threads are supported. Otherwise, this returns the result of
+	 * {@link #newThreadPoolExecutor(Workload, String)}.
+	 *
+	 * @param workload a {@link Workload}.
+	 * @param name the name of the executor, which is used as a prefix for thread names.
+	 * @return a new {@link ExecutorService}.
+	 */
+	public static ExecutorService newExecutor(Workload workload, String name) {
+		Preconditions.checkNotNull(workload, "workload should not be null");
+		Preconditions.checkNotNull(name, "name should not be null");
+
+		if (workload == Workload.IO_BOUND) {
+			final ExecutorService executor = newVirtualThreadExecutor(name);
+
+			if (executor != null) {
+				return executor;
+			}
+		}
+
+		return newThreadPoolExecutor(workload, name);
+	}
+
+	/**
+	 * Returns a new {@link ThreadPoolExecutor} for the specified {@link Workload}.
+	 * The pool uses {@link Workload#getThreadCount(int)} threads, which time out when idle,
+	 * and a bounded queue with a capacity of {@link Workload#getQueueCapacity(int)}.
+	 * When the queue is full, tasks are run by the threads that submit them, which slows down
+	 * submitters rather than rejecting tasks.
+	 *
+	 * @param workload a {@link Workload}.
+	 * @param name the name of the executor, which is used as a prefix for thread names.
+	 * @return a new {@link ThreadPoolExecutor}.
+	 */
+	public static ThreadPoolExecutor newThreadPoolExecutor(Workload workload, String name) {
+		Preconditions.checkNotNull(workload, "workload should not be null");
+		Preconditions.checkNotNull(name, "name should not be null");
+		final int effectiveCPUs = getEffectiveCPUs();
+		final int threads = workload.getThreadCount(effectiveCPUs);
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(workload.getQueueCapacity(effectiveCPUs)),
+				newThreadFactory(name), new ThreadPoolExecutor.CallerRunsPolicy()
+		);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Returns a new {@link ForkJoinPool} for the specified {@link Workload}.
+	 * The parallelism is {@link Workload#getThreadCount(int)}. Pools for workloads other than
+	 * {@link Workload#CPU_BOUND} use FIFO scheduling for tasks that are never joined.
+	 *
+	 * @param workload a {@link Workload}.
+	 * @param name the name of the pool, which is used as a prefix for thread names.
+	 * @return a new {@link ForkJoinPool}.
+	 */
+	public static ForkJoinPool newForkJoinPool(Workload workload, String name) {
+		Preconditions.checkNotNull(workload, "workload should not be null");
+		Preconditions.checkNotNull(name, "name should not be null");
+		final AtomicLong count = new AtomicLong();
+		return new ForkJoinPool(
+				workload.getThreadCount(getEffectiveCPUs()),
+				pool -> {
+					final ForkJoinWorkerThread thread =
+							ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+					thread.setName(name + "-" + count.getAndIncrement());
+					return thread;
+				},
+				null,
+				workload != Workload.CPU_BOUND
+		);
+	}
+
+	/**
+	 * Returns a new {@link ScheduledThreadPoolExecutor} for the specified {@link Workload}.
+	 * The pool uses {@link Workload#getThreadCount(int)} core threads, and cancelled tasks are
+	 * removed from its queue immediately.
+	 *
+	 * @param workload a {@link Workload}.
+	 * @param name the name of the executor, which is used as a prefix for thread names.
+	 * @return a new {@link ScheduledThreadPoolExecutor}.
+	 */
+	public static ScheduledThreadPoolExecutor newScheduledExecutor(
+			Workload workload, String name
+	) {
+		Preconditions.checkNotNull(workload, "workload should not be null");
+		Preconditions.checkNotNull(name, "name should not be null");
+		final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+				workload.getThreadCount(getEffectiveCPUs()), newThreadFactory(name)
+		);
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	/**
+	 * Returns a new {@link ExecutorService} that starts a new virtual thread for each task.
+	 *
+	 * @param name the name of the executor, which is used as a prefix for thread names.
+	 * @return a new {@link ExecutorService} that starts a new virtual thread for each task,
+	 * or {@code null} if virtual threads are not supported.
+	 */
+	@Nullable
+	public static ExecutorService newVirtualThreadExecutor(String name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+
+		if (!isVirtualThreadSupported()) {
+			return null;
+		}
+
+		//We use reflection since this library is compiled against Java 8.
+		//This is equivalent to:
+		//Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory())
+		try {
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builderClass.getMethod("name", String.class, long.class).
+					invoke(builder, name + "-", 0L);
+			final ThreadFactory factory =
+					(ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			final Method newThreadPerTaskExecutor =
+					Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+		} catch (ReflectiveOperationException | RuntimeException ex) {
+			logger.warn("Failed to create virtual thread executor", ex);
+		}
+
+		return null;
+	}
+
+	private static int getEffectiveCPUs() {
+		return ContainerLimits.current().getEffectiveCPUs();
+	}
+
+	private static ThreadFactory newThreadFactory(String name) {
+		return new ThreadFactoryBuilder().setNameFormat(name.replace("%", "%%") + "-%d").build();
+	}
+
+	private static final class VirtualThreadsHolder {
+		static final boolean SUPPORTED = isSupported();
+
+		private static boolean isSupported() {
+			final JavaRuntime runtime = JavaRuntime.current();
+
+			//Virtual threads are a preview feature in Java 19 and 20.
+			if (!runtime.hasVirtualThreads()) {
+				return false;
+			}
+
+			try {
+				Thread.class.getMethod("ofVirtual");
+				return true;
+			} catch (NoSuchMethodException ex) {
+				logger.debug("Virtual threads are not available on Java {}", runtime, ex);
+			}
+
+			return false;
+		}
+	}
+}
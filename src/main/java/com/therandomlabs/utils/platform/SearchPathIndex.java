@@ -0,0 +1,439 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.therandomlabs.utils.platform.systemproperty.SystemProperties;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the files in a list of search directories, such as the library search path
+ * ({@code java.library.path}) or the executable search path ({@code PATH}).
+ * <p>
+ * The directories are listed the first time a lookup is performed, after which lookups are hash
+ * lookups. The modification time of each directory is checked at most once per refresh interval,
+ * and only directories that have changed are listed again. As in a shell, if several
+ * directories contain a file with the same name, the file in the earliest directory is found.
+ * Executable lookups skip directories and non-executable files and keep searching later
+ * directories.
+ */
+public final class SearchPathIndex {
+	/**
+	 * The default minimum amount of time between checks for changes to the search directories.
+	 */
+	public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1L);
+
+	private static final Logger logger = LoggerFactory.getLogger(SearchPathIndex.class);
+
+	//Some file systems only store modification times with a granularity of one or two seconds,
+	//so a directory that was modified shortly before it was listed might change again without
+	//its modification time changing.
+	private static final long MODIFICATION_TIME_GRANULARITY_MILLIS = 2000L;
+
+	private static final ImmutableList<String> DEFAULT_WINDOWS_EXECUTABLE_EXTENSIONS =
+			ImmutableList.of(".com", ".exe", ".bat", ".cmd");
+
+	private final ImmutableList<Path> directories;
+	private final long refreshIntervalNanos;
+	private final boolean caseInsensitive;
+	private final Object refreshLock = new Object();
+
+	@Nullable
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Constructs a {@link SearchPathIndex} with {@link #DEFAULT_REFRESH_INTERVAL}.
+	 *
+	 * @param directories the search directories in order of priority.
+	 */
+	public SearchPathIndex(Collection<Path> directories) {
+		this(directories, DEFAULT_REFRESH_INTERVAL);
+	}
+
+	/**
+	 * Constructs a {@link SearchPathIndex}.
+	 *
+	 * @param directories the search directories in order of priority.
+	 * @param refreshInterval the minimum amount of time between checks for changes to the
+	 * search directories.
+	 */
+	public SearchPathIndex(Collection<Path> directories, Duration refreshInterval) {
+		Preconditions.checkNotNull(directories, "directories should not be null");
+		Preconditions.checkNotNull(refreshInterval, "refreshInterval should not be null");
+		Preconditions.checkArgument(
+				!refreshInterval.isNegative(), "refreshInterval should not be negative"
+		);
+		this.directories = ImmutableList.copyOf(ImmutableSet.copyOf(directories));
+		refreshIntervalNanos = refreshInterval.toNanos();
+		caseInsensitive = CurrentPlatform.isWindowsOrWindowsCE();
+	}
+
+	/**
+	 * Returns the search directories.
+	 *
+	 * @return an immutable list containing the search directories in order of priority.
+	 */
+	public List<Path> getDirectories() {
+		return directories;
+	}
+
+	/**
+	 * Returns the file with the specified name in the earliest search directory that contains it.
+	 *
+	 * @param fileName a file name, e.g. {@code "libfoo.so"}.
+	 * @return the file with the specified name, or {@code null} if no search directory
+	 * contains it.
+	 */
+	@Nullable
+	public Path find(String fileName) {
+		Preconditions.checkNotNull(fileName, "fileName should not be null");
+		final ImmutableList<Path> files = getSnapshot().files.get(toKey(fileName));
+		return files == null ? null : files.get(0);
+	}
+
+	/**
+	 * Returns the native library with the specified name in the earliest search directory that
+	 * contains it.
+	 *
+	 * @param libraryName a library name as passed to {@link System#loadLibrary(String)},
+	 * e.g. {@code "foo"}.
+	 * @return the native library with the specified name, or {@code null} if no search directory
+	 * contains it.
+	 */
+	@Nullable
+	public Path findLibrary(String libraryName) {
+		Preconditions.checkNotNull(libraryName, "libraryName should not be null");
+		return find(System.mapLibraryName(libraryName));
+	}
+
+	/**
+	 * Returns the executable with the specified name in the earliest search directory that
+	 * contains it. As in a shell, only regular files that are executable are returned, so
+	 * directories and non-executable files with the specified name are skipped, and later search
+	 * directories are still searched. On Windows, if the name has no extension, the extensions in
+	 * the {@code PATHEXT} environment variable are tried in each search directory.
+	 * <p>
+	 * Results are cached until a search directory changes, except that if a non-executable file
+	 * was skipped, the lookup is performed again each time, since its permissions can change
+	 * without its directory changing.
+	 *
+	 * @param name an executable name, e.g. {@code "ffmpeg"}.
+	 * @return the executable with the specified name, or {@code null} if no search directory
+	 * contains it.
+	 * @throws IllegalArgumentException if the specified name contains a path separator.
+	 */
+	@Nullable
+	public Path findExecutable(String name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		Preconditions.checkArgument(
+				name.indexOf('/') == -1 && name.indexOf(File.separatorChar) == -1,
+				"name should not contain path separators: %s", name
+		);
+
+		final Snapshot snapshot = getSnapshot();
+		final String key = toKey(name);
+		ExecutableLookup lookup = snapshot.executables.get(key);
+
+		if (lookup == null || lookup.recheck) {
+			lookup = findExecutableUncached(snapshot, name);
+			snapshot.executables.put(key, lookup);
+		}
+
+		return lookup.executable;
+	}
+
+	/**
+	 * Discards the index so that the search directories are listed again on the next lookup.
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	private ExecutableLookup findExecutableUncached(Snapshot snapshot, String name) {
+		final List<Path> candidates = new ArrayList<>();
+
+		if (caseInsensitive && name.indexOf('.') == -1) {
+			for (String extension : getWindowsExecutableExtensions()) {
+				candidates.addAll(snapshot.files.getOrDefault(
+						toKey(name + extension), ImmutableList.of()
+				));
+			}
+
+			//Each search directory is searched for every extension before the next one.
+			//The sort is stable, so the extensions stay in order within each directory.
+			candidates.sort(Comparator.comparingInt(file -> directories.indexOf(file.getParent())));
+		} else {
+			candidates.addAll(snapshot.files.getOrDefault(toKey(name), ImmutableList.of()));
+		}
+
+		boolean recheck = false;
+
+		for (Path file : candidates) {
+			if (!Files.isRegularFile(file)) {
+				//A directory can only become a file if its parent directory changes.
+				continue;
+			}
+
+			if (Files.isExecutable(file)) {
+				return new ExecutableLookup(file, recheck);
+			}
+
+			recheck = true;
+		}
+
+		return recheck ? new ExecutableLookup(null, true) : ExecutableLookup.NOT_FOUND;
+	}
+
+	private Snapshot getSnapshot() {
+		final Snapshot snapshot = this.snapshot;
+
+		if (snapshot != null && System.nanoTime() - snapshot.checkedAt < refreshIntervalNanos) {
+			return snapshot;
+		}
+
+		synchronized (refreshLock) {
+			final Snapshot current = this.snapshot;
+
+			//Another thread may have refreshed the index while we waited for the lock.
+			if (current != null && current != snapshot &&
+					System.nanoTime() - current.checkedAt < refreshIntervalNanos) {
+				return current;
+			}
+
+			final Snapshot refreshed = refresh(current);
+			this.snapshot = refreshed;
+			return refreshed;
+		}
+	}
+
+	private Snapshot refresh(@Nullable Snapshot previous) {
+		final Directory[] listings = new Directory[directories.size()];
+		boolean changed = previous == null;
+
+		for (int i = 0; i < listings.length; i++) {
+			final Path directory = directories.get(i);
+			final long modificationTime = getModificationTime(directory);
+			final Directory previousListing = previous == null ? null : previous.directories[i];
+
+			if (previousListing != null && !previousListing.isStale(modificationTime)) {
+				listings[i] = previousListing;
+			} else {
+				listings[i] = list(directory, modificationTime);
+				changed |= previousListing == null ||
+						!previousListing.fileNames.equals(listings[i].fileNames);
+			}
+		}
+
+		if (!changed) {
+			return new Snapshot(listings, previous.files, previous.executables);
+		}
+
+		//Every directory that contains a file name is kept in order of priority, so executable
+		//lookups can skip files that are not executable.
+		final Map<String, ImmutableList.Builder<Path>> files = new HashMap<>();
+
+		for (int i = 0; i < listings.length; i++) {
+			for (String fileName : listings[i].fileNames) {
+				files.computeIfAbsent(toKey(fileName), key -> ImmutableList.builder()).
+						add(directories.get(i).resolve(fileName));
+			}
+		}
+
+		logger.debug("Indexed {} file names in {}", files.size(), directories);
+		return new Snapshot(
+				listings,
+				ImmutableMap.copyOf(Maps.transformValues(files, ImmutableList.Builder::build)),
+				new ConcurrentHashMap<>()
+		);
+	}
+
+	private String toKey(String fileName) {
+		return caseInsensitive ? fileName.toLowerCase(Locale.ENGLISH) : fileName;
+	}
+
+	/**
+	 * Returns the {@link SearchPathIndex} for the library search path, i.e. the directories
+	 * in {@link SystemProperties#librarySearchDirectories}.
+	 * The directories are read the first time this method is called.
+	 *
+	 * @return the {@link SearchPathIndex} for the library search path.
+	 */
+	public static SearchPathIndex libraryPath() {
+		return LibraryPathHolder.LIBRARY_PATH;
+	}
+
+	/**
+	 * Returns the {@link SearchPathIndex} for the executable search path, i.e. the directories
+	 * in the {@code PATH} environment variable.
+	 * The directories are read the first time this method is called.
+	 *
+	 * @return the {@link SearchPathIndex} for the executable search path.
+	 */
+	public static SearchPathIndex executablePath() {
+		return ExecutablePathHolder.EXECUTABLE_PATH;
+	}
+
+	static ImmutableList<Path> parseSearchPath(@Nullable String searchPath) {
+		if (searchPath == null) {
+			return ImmutableList.of();
+		}
+
+		final ImmutableList.Builder<Path> directories = ImmutableList.builder();
+
+		for (String directory : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().
+				split(searchPath)) {
+			try {
+				directories.add(Paths.get(directory));
+			} catch (InvalidPathException ex) {
+				logger.debug("Invalid search path directory: {}", directory, ex);
+			}
+		}
+
+		return directories.build();
+	}
+
+	private static List<String> getWindowsExecutableExtensions() {
+		final String pathExt = System.getenv("PATHEXT");
+
+		if (pathExt == null) {
+			return DEFAULT_WINDOWS_EXECUTABLE_EXTENSIONS;
+		}
+
+		return Splitter.on(';').omitEmptyStrings().trimResults().splitToList(pathExt);
+	}
+
+	private static long getModificationTime(Path directory) {
+		try {
+			return Files.getLastModifiedTime(directory).toMillis();
+		} catch (NoSuchFileException ignored) {
+			//Search paths commonly contain directories that do not exist.
+		} catch (IOException | SecurityException ex) {
+			logger.debug("Failed to retrieve modification time of {}", directory, ex);
+		}
+
+		return -1L;
+	}
+
+	private static Directory list(Path directory, long modificationTime) {
+		final ImmutableSet.Builder<String> fileNames = ImmutableSet.builder();
+		final long listedAt = System.currentTimeMillis();
+
+		if (modificationTime != -1L) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (Path file : stream) {
+					fileNames.add(file.getFileName().toString());
+				}
+			} catch (IOException | SecurityException ex) {
+				logger.debug("Failed to list {}", directory, ex);
+			}
+		}
+
+		return new Directory(modificationTime, listedAt, fileNames.build());
+	}
+
+	private static final class LibraryPathHolder {
+		static final SearchPathIndex LIBRARY_PATH = new SearchPathIndex(
+				SystemProperties.librarySearchDirectories.get(ImmutableList.of())
+		);
+	}
+
+	private static final class ExecutablePathHolder {
+		static final SearchPathIndex EXECUTABLE_PATH =
+				new SearchPathIndex(parseSearchPath(System.getenv("PATH")));
+	}
+
+	private static final class Directory {
+		private final long modificationTime;
+		private final long listedAt;
+		private final ImmutableSet<String> fileNames;
+
+		Directory(long modificationTime, long listedAt, ImmutableSet<String> fileNames) {
+			this.modificationTime = modificationTime;
+			this.listedAt = listedAt;
+			this.fileNames = fileNames;
+		}
+
+		boolean isStale(long currentModificationTime) {
+			return currentModificationTime != modificationTime ||
+					listedAt - modificationTime < MODIFICATION_TIME_GRANULARITY_MILLIS;
+		}
+	}
+
+	private static final class ExecutableLookup {
+		static final ExecutableLookup NOT_FOUND = new ExecutableLookup(null, false);
+
+		@Nullable
+		private final Path executable;
+		//Whether a file that was not executable was skipped, in which case the lookup is
+		//performed again each time.
+		private final boolean recheck;
+
+		ExecutableLookup(@Nullable Path executable, boolean recheck) {
+			this.executable = executable;
+			this.recheck = recheck;
+		}
+	}
+
+	private static final class Snapshot {
+		private final Directory[] directories;
+		private final ImmutableMap<String, ImmutableList<Path>> files;
+		private final ConcurrentMap<String, ExecutableLookup> executables;
+		private final long checkedAt = System.nanoTime();
+
+		Snapshot(
+				Directory[] directories, ImmutableMap<String, ImmutableList<Path>> files,
+				ConcurrentMap<String, ExecutableLookup> executables
+		) {
+			this.directories = directories;
+			this.files = files;
+			this.executables = executables;
+		}
+	}
+}
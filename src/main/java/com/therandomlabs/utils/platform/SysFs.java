@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contains methods for reading the small text files exposed by Linux pseudo-filesystems such as
+ * {@code /sys} and {@code /proc}.
+ */
+final class SysFs {
+	private static final Logger logger = LoggerFactory.getLogger(SysFs.class);
+
+	private SysFs() {}
+
+	@Nullable
+	static String readLine(Path file) {
+		//Most of these files are only a few bytes long, so we avoid the large buffers that
+		//BufferedReader allocates.
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			byte[] buffer = new byte[64];
+			int length = 0;
+
+			while (true) {
+				final int read = inputStream.read(buffer, length, buffer.length - length);
+
+				if (read == -1) {
+					break;
+				}
+
+				final int end = length + read;
+
+				for (int i = length; i < end; i++) {
+					if (buffer[i] == '\n') {
+						return new String(buffer, 0, i, StandardCharsets.UTF_8).trim();
+					}
+				}
+
+				length = end;
+
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+			}
+
+			return length == 0 ?
+					null : new String(buffer, 0, length, StandardCharsets.UTF_8).trim();
+		} catch (NoSuchFileException ignored) {
+			//Missing files are expected, since not every attribute is present on every system.
+		} catch (IOException | SecurityException ex) {
+			logger.debug("Failed to read: {}", file, ex);
+		}
+
+		return null;
+	}
+
+	static long readLong(Path file, long defaultValue) {
+		final String line = readLine(file);
+
+		if (line == null) {
+			return defaultValue;
+		}
+
+		try {
+			return Long.parseLong(line);
+		} catch (NumberFormatException ex) {
+			logger.debug("Not a valid long in {}: {}", file, line);
+		}
+
+		return defaultValue;
+	}
+
+	static List<String> readLines(Path file) {
+		try {
+			return Files.readAllLines(file, StandardCharsets.UTF_8);
+		} catch (NoSuchFileException ignored) {
+			//Missing files are expected, since not every attribute is present on every system.
+		} catch (IOException | SecurityException ex) {
+			logger.debug("Failed to read: {}", file, ex);
+		}
+
+		return Collections.emptyList();
+	}
+
+	static BitSet readCPUList(Path file) {
+		final String line = readLine(file);
+		return line == null ? new BitSet() : parseCPUList(line);
+	}
+
+	//Parses the list format used by the kernel for CPU and NUMA node lists, e.g. "0-3,8,10-11".
+	//Invalid ranges are skipped.
+	static BitSet parseCPUList(CharSequence list) {
+		final BitSet cpus = new BitSet();
+		int start = -1;
+		int value = -1;
+
+		for (int i = 0; i <= list.length(); i++) {
+			final char ch = i == list.length() ? ',' : list.charAt(i);
+
+			if (ch >= '0' && ch <= '9') {
+				value = (value == -1 ? 0 : value * 10) + (ch - '0');
+			} else if (ch == '-') {
+				start = value;
+				value = -1;
+			} else if (ch == ',' || Character.isWhitespace(ch)) {
+				if (value != -1) {
+					if (start == -1) {
+						cpus.set(value);
+					} else if (start <= value) {
+						cpus.set(start, value + 1);
+					}
+				}
+
+				start = -1;
+				value = -1;
+			}
+		}
+
+		return cpus;
+	}
+}
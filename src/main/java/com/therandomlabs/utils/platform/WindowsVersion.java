@@ -23,57 +23,58 @@
 
 package com.therandomlabs.utils.platform;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
 
 /**
  * Contains {@link OSVersion}s that represent Windows versions that can run JRE 8 or newer.
+ * Their version components are the corresponding Windows NT version numbers,
+ * e.g. {@code 6.1} for Windows 7.
  */
 public final class WindowsVersion {
 	/**
 	 * Windows Vista.
 	 */
-	public static final OSVersion WINDOWS_VISTA = get("Vista");
+	public static final OSVersion WINDOWS_VISTA = get("Vista", 6, 0);
 
 	/**
 	 * Windows 7.
 	 */
-	public static final OSVersion WINDOWS_7 = get("7");
+	public static final OSVersion WINDOWS_7 = get("7", 6, 1);
 
 	/**
 	 * Windows Server 2008, the server version of Windows Vista,
 	 * or Windows Server 2008 R2, the server version of Windows 7.
 	 */
-	public static final OSVersion WINDOWS_SERVER_2008 = get("Server 2008");
+	public static final OSVersion WINDOWS_SERVER_2008 = get("Server 2008", 6, 0);
 
 	/**
 	 * Windows 8.
 	 */
-	public static final OSVersion WINDOWS_8 = get("8");
+	public static final OSVersion WINDOWS_8 = get("8", 6, 2);
 
 	/**
 	 * Windows 8.1.
 	 */
-	public static final OSVersion WINDOWS_8_1 = get("8.1");
+	public static final OSVersion WINDOWS_8_1 = get("8.1", 6, 3);
 
 	/**
 	 * Windows Server 2012, the server version of Windows 8.
 	 */
-	public static final OSVersion WINDOWS_SERVER_2012 = get("Server 2012");
+	public static final OSVersion WINDOWS_SERVER_2012 = get("Server 2012", 6, 2);
 
 	/**
 	 * Windows 10.
 	 */
-	public static final OSVersion WINDOWS_10 = get("10");
+	public static final OSVersion WINDOWS_10 = get("10", 10, 0);
 
 	/**
 	 * Windows Server 2016, the server version of Windows 10.
 	 */
-	public static final OSVersion WINDOWS_SERVER_2016 = get("Server 2016");
+	public static final OSVersion WINDOWS_SERVER_2016 = get("Server 2016", 10, 0);
 
-	private static final Set<OSVersion> versions = ImmutableSet.of(
+	private static final ImmutableSet<OSVersion> versions = ImmutableSet.of(
 			WINDOWS_VISTA,
 			WINDOWS_7,
 			WINDOWS_SERVER_2008,
@@ -89,14 +90,14 @@ public final class WindowsVersion {
 	/**
 	 * Returns all {@link OSVersion} instances that represent known Windows versions.
 	 *
-	 * @return a mutable {@link Set} containing all {@link OSVersion} instances that represent
+	 * @return an immutable {@link Set} containing all {@link OSVersion} instances that represent
 	 * known Windows versions.
 	 */
 	public static Set<OSVersion> getVersions() {
-		return new HashSet<>(versions);
+		return versions;
 	}
 
-	private static OSVersion get(String versionNumber) {
-		return new OSVersion("Windows " + versionNumber, versionNumber);
+	private static OSVersion get(String versionNumber, int... ntVersionComponents) {
+		return new OSVersion("Windows " + versionNumber, versionNumber, ntVersionComponents);
 	}
 }
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Thread-local overrides of {@link SystemProperty} values, which are created by
+ * {@link SystemProperty#override(Object)}. While an override is active on a thread,
+ * {@link SystemProperty#get()} and {@link SystemProperty#getRaw()} return the overridden value on
+ * that thread without changing the underlying {@link PropertySource}, so other threads are not
+ * affected.
+ * <p>
+ * Overrides are not inherited by new threads or executor tasks. To propagate them, the overrides
+ * of the current thread can be captured with {@link #capture()} and applied on another thread
+ * with {@link #apply()}, {@link #wrap(Runnable)} or {@link #propagating(Executor)}.
+ * This works the same way for platform threads and virtual threads.
+ * <p>
+ * When no overrides are active for a {@link SystemProperty} on any thread,
+ * {@link SystemProperty#get()} only checks a single field before reading the
+ * {@link PropertySource}.
+ */
+public final class PropertyOverrides {
+	private static final PropertyOverrides NONE = new PropertyOverrides(Collections.emptyMap());
+
+	//Maps are never modified after they are set, so they can be captured without copying.
+	private static final ThreadLocal<Map<SystemProperty<?>, Value<?>>> current =
+			ThreadLocal.withInitial(Collections::emptyMap);
+
+	private final Map<SystemProperty<?>, Value<?>> values;
+
+	private PropertyOverrides(Map<SystemProperty<?>, Value<?>> values) {
+		this.values = values;
+	}
+
+	/**
+	 * Returns whether these {@link PropertyOverrides} do not override any {@link SystemProperty}.
+	 *
+	 * @return {@code true} if these {@link PropertyOverrides} are empty, or otherwise
+	 * {@code false}.
+	 */
+	public boolean isEmpty() {
+		return values.isEmpty();
+	}
+
+	/**
+	 * Applies these {@link PropertyOverrides} to the current thread until the returned
+	 * {@link Scope} is closed. Any overrides that are already active on the current thread are
+	 * replaced, and they are restored when the returned {@link Scope} is closed.
+	 *
+	 * @return a {@link Scope} that should be closed on the current thread.
+	 */
+	public Scope apply() {
+		return new Scope(values, values.keySet());
+	}
+
+	/**
+	 * Returns a {@link Runnable} that runs the specified {@link Runnable} with these
+	 * {@link PropertyOverrides} applied. If these {@link PropertyOverrides} are empty,
+	 * the specified {@link Runnable} is returned as is.
+	 *
+	 * @param runnable a {@link Runnable}.
+	 * @return a {@link Runnable} that runs the specified {@link Runnable} with these
+	 * {@link PropertyOverrides} applied.
+	 */
+	public Runnable wrap(Runnable runnable) {
+		Preconditions.checkNotNull(runnable, "runnable should not be null");
+
+		if (isEmpty()) {
+			return runnable;
+		}
+
+		return () -> {
+			final Scope scope = apply();
+
+			try {
+				runnable.run();
+			} finally {
+				scope.close();
+			}
+		};
+	}
+
+	/**
+	 * Returns a {@link Callable} that calls the specified {@link Callable} with these
+	 * {@link PropertyOverrides} applied. If these {@link PropertyOverrides} are empty,
+	 * the specified {@link Callable} is returned as is.
+	 *
+	 * @param callable a {@link Callable}.
+	 * @param <V> the result type of the {@link Callable}.
+	 * @return a {@link Callable} that calls the specified {@link Callable} with these
+	 * {@link PropertyOverrides} applied.
+	 */
+	public <V> Callable<V> wrap(Callable<V> callable) {
+		Preconditions.checkNotNull(callable, "callable should not be null");
+
+		if (isEmpty()) {
+			return callable;
+		}
+
+		return () -> {
+			final Scope scope = apply();
+
+			try {
+				return callable.call();
+			} finally {
+				scope.close();
+			}
+		};
+	}
+
+	/**
+	 * Returns the overrides that are currently active on the current thread.
+	 * This does not copy any overrides, so it is cheap enough to call for every submitted task.
+	 *
+	 * @return the overrides that are currently active on the current thread.
+	 */
+	public static PropertyOverrides capture() {
+		final Map<SystemProperty<?>, Value<?>> values = current.get();
+		return values.isEmpty() ? NONE : new PropertyOverrides(values);
+	}
+
+	/**
+	 * Returns an {@link Executor} that propagates the overrides that are active on the thread
+	 * that submits each task to the thread that runs it.
+	 *
+	 * @param executor an {@link Executor}.
+	 * @return an {@link Executor} that runs tasks on the specified {@link Executor} with the
+	 * overrides of the submitting thread applied.
+	 */
+	public static Executor propagating(Executor executor) {
+		Preconditions.checkNotNull(executor, "executor should not be null");
+		return command -> executor.execute(capture().wrap(command));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static <T> Value<T> get(SystemProperty<T> property) {
+		return (Value<T>) current.get().get(property);
+	}
+
+	static <T> Scope override(SystemProperty<T> property, @Nullable String raw, @Nullable T value) {
+		final Map<SystemProperty<?>, Value<?>> values = new IdentityHashMap<>(current.get());
+		values.put(property, new Value<>(raw, value));
+		return new Scope(values, Collections.singleton(property));
+	}
+
+	/**
+	 * An active override or set of overrides on a thread. Scopes should be closed on the thread
+	 * that created them in the reverse order that they were created, which try-with-resources
+	 * statements ensure.
+	 */
+	public static final class Scope implements AutoCloseable {
+		private final Thread thread = Thread.currentThread();
+		private final Map<SystemProperty<?>, Value<?>> previous = current.get();
+		private final Collection<SystemProperty<?>> counted;
+		private boolean closed;
+
+		Scope(Map<SystemProperty<?>, Value<?>> values, Collection<SystemProperty<?>> counted) {
+			this.counted = counted;
+			//The counts are incremented before the overrides are visible so that
+			//SystemProperty#get never skips an active override.
+			counted.forEach(SystemProperty::addOverride);
+			current.set(values);
+		}
+
+		/**
+		 * Removes the overrides of this {@link Scope} and restores the overrides that were
+		 * active when it was created. Calling this method more than once has no effect.
+		 *
+		 * @throws IllegalStateException if this method is not called on the thread that created
+		 * this {@link Scope}.
+		 */
+		@Override
+		public void close() {
+			Preconditions.checkState(
+					Thread.currentThread() == thread,
+					"Scope should be closed on the thread that created it"
+			);
+
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			if (previous.isEmpty()) {
+				current.remove();
+			} else {
+				current.set(previous);
+			}
+
+			counted.forEach(SystemProperty::removeOverride);
+		}
+	}
+
+	static final class Value<T> {
+		@Nullable
+		final String raw;
+		@Nullable
+		final T value;
+
+		Value(@Nullable String raw, @Nullable T value) {
+			this.raw = raw;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,350 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable snapshot of the values of every {@link SystemProperty} declared in
+ * {@link SystemProperties}, {@link SunSystemProperties}, {@link IBMSystemProperties},
+ * {@link MacSystemProperties}, {@link GroovySystemProperties} and {@link MiscSystemProperties}.
+ * <p>
+ * A snapshot is taken by copying {@link System#getProperties()} once, in a single privileged
+ * block if a security manager is present, rather than reading it once per property. The copy is
+ * made while holding the lock that {@link System#setProperty(String, String)} takes, so the
+ * values in a snapshot are consistent with each other even if system properties are changed
+ * concurrently. Values are stored in
+ * arrays indexed by property, so accessing a value is an array read. Each value is converted by
+ * its {@link SystemProperty}, which caches the conversion, so taking snapshots repeatedly does
+ * not convert raw string values again while they stay the same.
+ * <p>
+ * Snapshots contain the values of the underlying system properties, so they do not reflect
+ * overrides made by {@link SystemProperty#override(Object)}.
+ */
+public final class PropertySnapshot {
+	private final String[] raws;
+	private final Object[] values;
+
+	private PropertySnapshot(String[] raws, Object[] values) {
+		this.raws = raws;
+		this.values = values;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this).omitNullValues();
+
+		for (int i = 0; i < raws.length; i++) {
+			helper.add(Registry.properties.get(i).getKey(), raws[i]);
+		}
+
+		return helper.toString();
+	}
+
+	/**
+	 * Returns the value of the specified {@link SystemProperty} in this snapshot.
+	 *
+	 * @param property a {@link SystemProperty} declared in one of the {@code *SystemProperties}
+	 * classes.
+	 * @param <T> the value type of the {@link SystemProperty}.
+	 * @return the value of the specified {@link SystemProperty} in this snapshot.
+	 * @throws IllegalArgumentException if the specified {@link SystemProperty} is not declared in
+	 * one of the {@code *SystemProperties} classes.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(SystemProperty<T> property) {
+		return (T) values[indexOf(property)];
+	}
+
+	/**
+	 * Returns the raw string value of the specified {@link SystemProperty} in this snapshot.
+	 *
+	 * @param property a {@link SystemProperty} declared in one of the {@code *SystemProperties}
+	 * classes.
+	 * @return the raw string value of the specified {@link SystemProperty} in this snapshot.
+	 * @throws IllegalArgumentException if the specified {@link SystemProperty} is not declared in
+	 * one of the {@code *SystemProperties} classes.
+	 */
+	@Nullable
+	public String getRaw(SystemProperty<?> property) {
+		return raws[indexOf(property)];
+	}
+
+	/**
+	 * Returns the changes between this snapshot and the specified newer snapshot, in the order
+	 * returned by {@link #getProperties()}. Raw string values are compared, so a change from one
+	 * invalid value to another is also reported.
+	 *
+	 * @param newer a newer {@link PropertySnapshot}.
+	 * @return a list of {@link Change}s that represent the properties with different raw string
+	 * values in the specified snapshot.
+	 */
+	public List<Change<?>> diff(PropertySnapshot newer) {
+		Preconditions.checkNotNull(newer, "newer should not be null");
+		List<Change<?>> changes = null;
+
+		for (int i = 0; i < raws.length; i++) {
+			if (!Objects.equals(raws[i], newer.raws[i])) {
+				if (changes == null) {
+					changes = new ArrayList<>();
+				}
+
+				changes.add(new Change<>(
+						Registry.properties.get(i), raws[i], newer.raws[i], values[i],
+						newer.values[i]
+				));
+			}
+		}
+
+		return changes == null ? ImmutableList.of() : ImmutableList.copyOf(changes);
+	}
+
+	/**
+	 * Takes a snapshot of the current values of every declared {@link SystemProperty}.
+	 *
+	 * @return a {@link PropertySnapshot}.
+	 */
+	public static PropertySnapshot take() {
+		final Properties systemProperties = System.getSecurityManager() == null ?
+				System.getProperties() :
+				AccessController.doPrivileged(
+						(PrivilegedAction<Properties>) System::getProperties
+				);
+		//Properties.clone is synchronized, so concurrent writes cannot interleave with the copy.
+		final Properties properties = (Properties) systemProperties.clone();
+
+		final List<SystemProperty<?>> declared = Registry.properties;
+		final String[] raws = new String[declared.size()];
+		final Object[] values = new Object[raws.length];
+
+		for (int i = 0; i < raws.length; i++) {
+			final SystemProperty<?> property = declared.get(i);
+			raws[i] = properties.getProperty(property.getKey());
+			values[i] = property.convert(raws[i]);
+		}
+
+		return new PropertySnapshot(raws, values);
+	}
+
+	/**
+	 * Returns every {@link SystemProperty} declared in the {@code *SystemProperties} classes,
+	 * which are the properties that snapshots contain. They are ordered by declaring class in the
+	 * order listed in the {@link PropertySnapshot} documentation, and then by field name.
+	 *
+	 * @return an immutable list of every {@link SystemProperty} declared in the
+	 * {@code *SystemProperties} classes.
+	 */
+	public static List<SystemProperty<?>> getProperties() {
+		return Registry.properties;
+	}
+
+	/**
+	 * Returns whether the specified {@link SystemProperty} is declared in one of the
+	 * {@code *SystemProperties} classes and is therefore contained in snapshots.
+	 *
+	 * @param property a {@link SystemProperty}.
+	 * @return {@code true} if the specified {@link SystemProperty} is contained in snapshots,
+	 * or otherwise {@code false}.
+	 */
+	public static boolean isDeclared(SystemProperty<?> property) {
+		Preconditions.checkNotNull(property, "property should not be null");
+		return Registry.indices.containsKey(property);
+	}
+
+	private static int indexOf(SystemProperty<?> property) {
+		Preconditions.checkNotNull(property, "property should not be null");
+		final int index = property.snapshotIndex;
+
+		if (index >= 0) {
+			return index;
+		}
+
+		//The index may not be visible to this thread yet, but the registry is safely published
+		//by class initialization.
+		final Integer registered = Registry.indices.get(property);
+		Preconditions.checkArgument(
+				registered != null, "Property is not declared: %s", property.getKey()
+		);
+		return registered;
+	}
+
+	/**
+	 * A change to the raw string value of a {@link SystemProperty} between two
+	 * {@link PropertySnapshot}s.
+	 *
+	 * @param <T> the value type of the {@link SystemProperty}.
+	 */
+	public static final class Change<T> {
+		private final SystemProperty<T> property;
+		@Nullable
+		private final String oldRaw;
+		@Nullable
+		private final String newRaw;
+		@Nullable
+		private final T oldValue;
+		@Nullable
+		private final T newValue;
+
+		@SuppressWarnings("unchecked")
+		Change(
+				SystemProperty<T> property, @Nullable String oldRaw, @Nullable String newRaw,
+				@Nullable Object oldValue, @Nullable Object newValue
+		) {
+			this.property = property;
+			this.oldRaw = oldRaw;
+			this.newRaw = newRaw;
+			this.oldValue = (T) oldValue;
+			this.newValue = (T) newValue;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("key", property.getKey()).
+					add("oldRaw", oldRaw).
+					add("newRaw", newRaw).
+					toString();
+		}
+
+		/**
+		 * Returns the {@link SystemProperty} that changed.
+		 *
+		 * @return the {@link SystemProperty} that changed.
+		 */
+		public SystemProperty<T> getProperty() {
+			return property;
+		}
+
+		/**
+		 * Returns the raw string value in the older snapshot.
+		 *
+		 * @return the raw string value in the older snapshot.
+		 */
+		@Nullable
+		public String getOldRaw() {
+			return oldRaw;
+		}
+
+		/**
+		 * Returns the raw string value in the newer snapshot.
+		 *
+		 * @return the raw string value in the newer snapshot.
+		 */
+		@Nullable
+		public String getNewRaw() {
+			return newRaw;
+		}
+
+		/**
+		 * Returns the value in the older snapshot.
+		 *
+		 * @return the value in the older snapshot.
+		 */
+		@Nullable
+		public T getOldValue() {
+			return oldValue;
+		}
+
+		/**
+		 * Returns the value in the newer snapshot.
+		 *
+		 * @return the value in the newer snapshot.
+		 */
+		@Nullable
+		public T getNewValue() {
+			return newValue;
+		}
+	}
+
+	private static final class Registry {
+		private static final List<SystemProperty<?>> properties;
+		private static final Map<SystemProperty<?>, Integer> indices;
+
+		static {
+			final ImmutableList.Builder<SystemProperty<?>> builder = ImmutableList.builder();
+
+			for (Class<?> declaringClass : new Class<?>[] {
+					SystemProperties.class,
+					SunSystemProperties.class,
+					IBMSystemProperties.class,
+					MacSystemProperties.class,
+					GroovySystemProperties.class,
+					MiscSystemProperties.class
+			}) {
+				//The order of getDeclaredFields() is unspecified, so fields are sorted by name to
+				//keep the order of diff stable.
+				final Field[] fields = declaringClass.getDeclaredFields();
+				Arrays.sort(fields, Comparator.comparing(Field::getName));
+
+				for (Field field : fields) {
+					final int modifiers = field.getModifiers();
+
+					if (Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) &&
+							SystemProperty.class.isAssignableFrom(field.getType())) {
+						try {
+							builder.add((SystemProperty<?>) field.get(null));
+						} catch (IllegalAccessException ex) {
+							throw new IllegalStateException("Failed to access " + field, ex);
+						}
+					}
+				}
+			}
+
+			properties = builder.build();
+			//Different instances may share a key, so properties are looked up by identity.
+			final Map<SystemProperty<?>, Integer> map = new IdentityHashMap<>(properties.size());
+
+			for (int i = 0; i < properties.size(); i++) {
+				final SystemProperty<?> property = properties.get(i);
+				map.put(property, i);
+				property.snapshotIndex = i;
+			}
+
+			indices = map;
+		}
+	}
+}
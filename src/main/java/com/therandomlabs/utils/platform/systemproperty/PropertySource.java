@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A source of raw string property values, e.g. the system properties, the environment variables
+ * or a {@code .properties} file. A {@link SystemProperty} reads its raw string value from a
+ * {@link PropertySource}, so the same parsing can be used for any of them.
+ * <p>
+ * Implementations should be thread-safe. Implementations for common sources are provided by
+ * {@link PropertySources}.
+ *
+ * @see PropertySources
+ */
+public interface PropertySource {
+	/**
+	 * The value returned by {@link #getVersion()} if a {@link PropertySource} does not track
+	 * changes to its values.
+	 */
+	long UNTRACKED = -1L;
+
+	/**
+	 * Returns the raw string value of the property with the specified key.
+	 *
+	 * @param key a property key.
+	 * @return the raw string value of the property with the specified key, or {@code null} if it
+	 * does not exist.
+	 */
+	@Nullable
+	String get(String key);
+
+	/**
+	 * Returns whether the properties in this {@link PropertySource} can be set by calling
+	 * {@link #set(String, String)}.
+	 *
+	 * @return {@code true} if the properties in this {@link PropertySource} can be set,
+	 * or otherwise {@code false}.
+	 */
+	default boolean isWritable() {
+		return false;
+	}
+
+	/**
+	 * Sets the raw string value of the property with the specified key.
+	 *
+	 * @param key a property key.
+	 * @param value a raw string value, or {@code null} if the property should be removed.
+	 * @return the previous raw string value of the property with the specified key.
+	 * @throws UnsupportedOperationException if {@link #isWritable()} returns {@code false}.
+	 */
+	@Nullable
+	default String set(String key, @Nullable String value) {
+		throw new UnsupportedOperationException("Cannot set properties in " + this);
+	}
+
+	/**
+	 * Atomically sets the raw string value of the property with the specified key if its current
+	 * raw string value is the specified expected value.
+	 * <p>
+	 * {@link SystemProperty} already serializes its own changes to each key, so the default
+	 * implementation, which calls {@link #get(String)} and then {@link #set(String, String)},
+	 * is only non-atomic with respect to changes made outside of {@link SystemProperty}.
+	 * Implementations that can be changed externally should override this method.
+	 *
+	 * @param key a property key.
+	 * @param expected the expected raw string value, or {@code null} if the property is expected
+	 * not to exist.
+	 * @param value a raw string value, or {@code null} if the property should be removed.
+	 * @return {@code true} if the raw string value was set, or {@code false} if the current raw
+	 * string value was not the expected value.
+	 * @throws UnsupportedOperationException if {@link #isWritable()} returns {@code false}.
+	 */
+	default boolean compareAndSet(String key, @Nullable String expected, @Nullable String value) {
+		if (!isWritable()) {
+			throw new UnsupportedOperationException("Cannot set properties in " + this);
+		}
+
+		if (!Objects.equals(get(key), expected)) {
+			return false;
+		}
+
+		set(key, value);
+		return true;
+	}
+
+	/**
+	 * Returns the change version of this {@link PropertySource}. The change version increases
+	 * whenever any value in this {@link PropertySource} changes, so while it stays the same,
+	 * values that were parsed previously can be reused without reading their raw string values
+	 * again.
+	 *
+	 * @return the change version of this {@link PropertySource}, or {@link #UNTRACKED} if it
+	 * does not track changes to its values, in which case the raw string values should always
+	 * be read again.
+	 */
+	default long getVersion() {
+		return UNTRACKED;
+	}
+}
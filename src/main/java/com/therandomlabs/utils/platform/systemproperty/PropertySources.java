@@ -0,0 +1,612 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides {@link PropertySource} implementations.
+ */
+public final class PropertySources {
+	/**
+	 * The default minimum amount of time between checks for changes to a {@code .properties}
+	 * file.
+	 */
+	public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1L);
+
+	private static final Logger logger = LoggerFactory.getLogger(PropertySources.class);
+
+	//Some file systems only store modification times with a granularity of one or two seconds,
+	//so a file that was modified shortly before it was read might change again without its
+	//modification time changing.
+	private static final long MODIFICATION_TIME_GRANULARITY_MILLIS = 2000L;
+
+	private static final CharMatcher ENVIRONMENT_VARIABLE_SEPARATORS = CharMatcher.anyOf(".-");
+
+	private PropertySources() {}
+
+	/**
+	 * Returns the {@link PropertySource} for the system properties. It is writable, and it does
+	 * not track changes, since system properties can be changed directly through
+	 * {@link System#setProperty(String, String)}.
+	 *
+	 * @return the {@link PropertySource} for the system properties.
+	 */
+	public static PropertySource system() {
+		return SystemPropertySource.INSTANCE;
+	}
+
+	/**
+	 * Returns the {@link PropertySource} for the environment variables. If there is no
+	 * environment variable with a key, the key is converted to the conventional environment
+	 * variable form by replacing periods and hyphens with underscores and converting it to
+	 * uppercase, so that {@code "app.max-threads"} also matches {@code APP_MAX_THREADS}.
+	 * It is not writable, and since environment variables do not change during the lifetime of
+	 * a process, its change version is always {@code 0}.
+	 *
+	 * @return the {@link PropertySource} for the environment variables.
+	 */
+	public static PropertySource environment() {
+		return EnvironmentPropertySource.INSTANCE;
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads the specified {@code .properties} file with
+	 * {@link #DEFAULT_REFRESH_INTERVAL}.
+	 *
+	 * @param file a {@code .properties} file.
+	 * @return a {@link PropertySource} that reads the specified {@code .properties} file.
+	 * @see #fromFile(Path, Duration)
+	 */
+	public static PropertySource fromFile(Path file) {
+		return fromFile(file, DEFAULT_REFRESH_INTERVAL);
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads the specified {@code .properties} file.
+	 * The file is parsed by {@link Properties#load(InputStream)}.
+	 * At most once per refresh interval, its size and modification time are checked, and if they
+	 * have changed, it is read again and the change version is incremented. If the file does not
+	 * exist, the {@link PropertySource} is empty. It is not writable.
+	 *
+	 * @param file a {@code .properties} file.
+	 * @param refreshInterval the minimum amount of time between checks for changes to the
+	 * file.
+	 * @return a {@link PropertySource} that reads the specified {@code .properties} file.
+	 */
+	public static PropertySource fromFile(Path file, Duration refreshInterval) {
+		Preconditions.checkNotNull(file, "file should not be null");
+		Preconditions.checkNotNull(refreshInterval, "refreshInterval should not be null");
+		Preconditions.checkArgument(
+				!refreshInterval.isNegative(), "refreshInterval should not be negative"
+		);
+		return new FilePropertySource(file, refreshInterval.toNanos());
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads each property from a file in the specified
+	 * directory, e.g. a sysfs directory. Keys are paths relative to the directory that use
+	 * {@code '/'} as the separator, e.g. {@code "block/sda/queue/rotational"}, and values are
+	 * the contents of the files with trailing whitespace removed.
+	 *
+	 * @param directory a directory.
+	 * @return a {@link PropertySource} that reads each property from a file in the specified
+	 * directory.
+	 * @see #fromDirectory(Path, char)
+	 */
+	public static PropertySource fromDirectory(Path directory) {
+		return fromDirectory(directory, '/');
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads each property from a file in the specified
+	 * directory. Keys are paths relative to the directory that use the specified separator,
+	 * and values are the contents of the files with trailing whitespace removed.
+	 * The files are read every time a property is requested, since files in pseudo-file systems
+	 * such as procfs and sysfs can change without their modification times changing, so this
+	 * {@link PropertySource} does not track changes. It is not writable.
+	 *
+	 * @param directory a directory.
+	 * @param keySeparator the character that separates the path segments in keys.
+	 * @return a {@link PropertySource} that reads each property from a file in the specified
+	 * directory.
+	 */
+	public static PropertySource fromDirectory(Path directory, char keySeparator) {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		return new DirectoryPropertySource(directory.toAbsolutePath().normalize(), keySeparator);
+	}
+
+	/**
+	 * Returns a {@link PropertySource} for the kernel parameters in {@code /proc/sys} on Linux.
+	 * Keys use the same form as {@code sysctl}, e.g. {@code "vm.swappiness"}.
+	 *
+	 * @return a {@link PropertySource} for the kernel parameters in {@code /proc/sys}.
+	 */
+	public static PropertySource sysctl() {
+		return fromDirectory(Paths.get("/proc/sys"), '.');
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads each property from the first of the specified
+	 * {@link PropertySource}s that contains it.
+	 *
+	 * @param sources {@link PropertySource}s in order of precedence.
+	 * @return a {@link PropertySource} that layers the specified {@link PropertySource}s.
+	 * @see #layered(List)
+	 */
+	public static PropertySource layered(PropertySource... sources) {
+		Preconditions.checkNotNull(sources, "sources should not be null");
+		return layered(ImmutableList.copyOf(sources));
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that reads each property from the first of the specified
+	 * {@link PropertySource}s that contains it. Properties are set in the first writable
+	 * {@link PropertySource}. Its change version is the sum of the change versions of the
+	 * specified {@link PropertySource}s, or {@link PropertySource#UNTRACKED} if any of them does
+	 * not track changes.
+	 * <p>
+	 * {@link PropertySource#set(String, String)} returns the previously visible value, and
+	 * {@link PropertySource#compareAndSet(String, String, String)} compares against the visible
+	 * value. Both throw an {@link UnsupportedOperationException} if the change would not be
+	 * visible, i.e. if a property is set while it is contained by a read-only
+	 * {@link PropertySource} with higher precedence than the first writable one, or if it is
+	 * removed while a {@link PropertySource} with lower precedence than the first writable one
+	 * still contains it.
+	 *
+	 * @param sources {@link PropertySource}s in order of precedence.
+	 * @return a {@link PropertySource} that layers the specified {@link PropertySource}s.
+	 */
+	public static PropertySource layered(List<? extends PropertySource> sources) {
+		Preconditions.checkNotNull(sources, "sources should not be null");
+		Preconditions.checkArgument(!sources.isEmpty(), "sources should not be empty");
+		return sources.size() == 1 ?
+				sources.get(0) : new LayeredPropertySource(ImmutableList.copyOf(sources));
+	}
+
+	private static final class SystemPropertySource implements PropertySource {
+		static final SystemPropertySource INSTANCE = new SystemPropertySource();
+
+		@Override
+		public String toString() {
+			return "system properties";
+		}
+
+		@Nullable
+		@Override
+		public String get(String key) {
+			return SystemProperty.getProperty(key);
+		}
+
+		@Override
+		public boolean isWritable() {
+			return true;
+		}
+
+		@Nullable
+		@Override
+		public String set(String key, @Nullable String value) {
+			return SystemProperty.setProperty(key, value);
+		}
+
+		@Override
+		public boolean compareAndSet(
+				String key, @Nullable String expected, @Nullable String value
+		) {
+			Preconditions.checkNotNull(key, "key should not be null");
+
+			if (System.getSecurityManager() == null) {
+				return compareAndSetProperty(key, expected, value);
+			}
+
+			return AccessController.doPrivileged(
+					(PrivilegedAction<Boolean>) () -> compareAndSetProperty(key, expected, value)
+			);
+		}
+
+		private static boolean compareAndSetProperty(
+				String key, @Nullable String expected, @Nullable String value
+		) {
+			//System.setProperty modifies the same map, and these operations are atomic on it,
+			//so they are also correct with respect to changes made outside of this library.
+			final Properties properties = System.getProperties();
+
+			if (expected == null) {
+				return value == null ?
+						!properties.containsKey(key) : properties.putIfAbsent(key, value) == null;
+			}
+
+			return value == null ?
+					properties.remove(key, expected) : properties.replace(key, expected, value);
+		}
+	}
+
+	private static final class EnvironmentPropertySource implements PropertySource {
+		static final EnvironmentPropertySource INSTANCE = new EnvironmentPropertySource();
+
+		private final Map<String, String> environment = readEnvironment();
+		private final Map<String, Optional<String>> values = new ConcurrentHashMap<>();
+
+		@Override
+		public String toString() {
+			return "environment variables";
+		}
+
+		@Nullable
+		@Override
+		public String get(String key) {
+			Preconditions.checkNotNull(key, "key should not be null");
+			return values.computeIfAbsent(key, this::find).orElse(null);
+		}
+
+		@Override
+		public long getVersion() {
+			return 0L;
+		}
+
+		private Optional<String> find(String key) {
+			final String value = environment.get(key);
+			return value != null ? Optional.of(value) : Optional.ofNullable(environment.get(
+					ENVIRONMENT_VARIABLE_SEPARATORS.replaceFrom(key, '_').toUpperCase(Locale.ROOT)
+			));
+		}
+
+		private static Map<String, String> readEnvironment() {
+			try {
+				return ImmutableMap.copyOf(System.getenv());
+			} catch (SecurityException ex) {
+				logger.warn("Could not retrieve environment variables", ex);
+			}
+
+			return ImmutableMap.of();
+		}
+	}
+
+	private static final class FilePropertySource implements PropertySource {
+		private final Path file;
+		private final long refreshIntervalNanos;
+		@Nullable
+		private volatile Snapshot snapshot;
+
+		FilePropertySource(Path file, long refreshIntervalNanos) {
+			this.file = file;
+			this.refreshIntervalNanos = refreshIntervalNanos;
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).add("file", file).toString();
+		}
+
+		@Nullable
+		@Override
+		public String get(String key) {
+			Preconditions.checkNotNull(key, "key should not be null");
+			return getSnapshot().values.get(key);
+		}
+
+		@Override
+		public long getVersion() {
+			return getSnapshot().version;
+		}
+
+		private Snapshot getSnapshot() {
+			final Snapshot snapshot = this.snapshot;
+
+			if (snapshot != null &&
+					System.nanoTime() - snapshot.checkedAt < refreshIntervalNanos) {
+				return snapshot;
+			}
+
+			synchronized (this) {
+				final Snapshot current = this.snapshot;
+
+				//Another thread may have refreshed the file while we waited for the lock.
+				if (current != null && current != snapshot &&
+						System.nanoTime() - current.checkedAt < refreshIntervalNanos) {
+					return current;
+				}
+
+				final Snapshot refreshed = refresh(current);
+				this.snapshot = refreshed;
+				return refreshed;
+			}
+		}
+
+		private Snapshot refresh(@Nullable Snapshot previous) {
+			long size = -1L;
+			long modificationTime = -1L;
+
+			try {
+				final BasicFileAttributes attributes =
+						Files.readAttributes(file, BasicFileAttributes.class);
+				size = attributes.size();
+				modificationTime = attributes.lastModifiedTime().toMillis();
+			} catch (NoSuchFileException ignored) {
+				//A missing file is treated as an empty file.
+			} catch (IOException | SecurityException ex) {
+				logger.warn("Failed to read attributes of properties file: {}", file, ex);
+			}
+
+			final long readAt = System.currentTimeMillis();
+
+			if (previous != null && previous.size == size &&
+					previous.modificationTime == modificationTime &&
+					previous.readAt - modificationTime >= MODIFICATION_TIME_GRANULARITY_MILLIS) {
+				return new Snapshot(
+						previous.values, size, modificationTime, previous.readAt,
+						previous.version
+				);
+			}
+
+			final ImmutableMap<String, String> values = size == -1L ? ImmutableMap.of() : read();
+
+			if (previous != null && previous.values.equals(values)) {
+				return new Snapshot(values, size, modificationTime, readAt, previous.version);
+			}
+
+			return new Snapshot(
+					values, size, modificationTime, readAt,
+					previous == null ? 0L : previous.version + 1L
+			);
+		}
+
+		private ImmutableMap<String, String> read() {
+			//The file is read rather than mapped, since on Windows, a mapping would prevent the
+			//file from being edited or replaced until it is garbage collected.
+			try (InputStream inputStream = Files.newInputStream(file)) {
+				final Properties properties = new Properties();
+				properties.load(inputStream);
+				return ImmutableMap.copyOf(Maps.fromProperties(properties));
+			} catch (NoSuchFileException ignored) {
+				//The file was deleted after its attributes were read.
+			} catch (IOException | IllegalArgumentException | SecurityException ex) {
+				logger.warn("Failed to read properties file: {}", file, ex);
+			}
+
+			return ImmutableMap.of();
+		}
+	}
+
+	private static final class Snapshot {
+		private final ImmutableMap<String, String> values;
+		private final long size;
+		private final long modificationTime;
+		private final long readAt;
+		private final long version;
+		private final long checkedAt = System.nanoTime();
+
+		Snapshot(
+				ImmutableMap<String, String> values, long size, long modificationTime,
+				long readAt, long version
+		) {
+			this.values = values;
+			this.size = size;
+			this.modificationTime = modificationTime;
+			this.readAt = readAt;
+			this.version = version;
+		}
+	}
+
+	private static final class DirectoryPropertySource implements PropertySource {
+		private final Path directory;
+		private final char keySeparator;
+
+		DirectoryPropertySource(Path directory, char keySeparator) {
+			this.directory = directory;
+			this.keySeparator = keySeparator;
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("directory", directory).
+					add("keySeparator", keySeparator).
+					toString();
+		}
+
+		@Nullable
+		@Override
+		public String get(String key) {
+			Preconditions.checkNotNull(key, "key should not be null");
+			final Path file;
+
+			try {
+				file = directory.resolve(
+						keySeparator == '/' ? key : key.replace(keySeparator, '/')
+				).normalize();
+			} catch (InvalidPathException ex) {
+				return null;
+			}
+
+			//Keys such as "../etc/passwd" should not escape the directory.
+			if (!file.startsWith(directory) || file.equals(directory)) {
+				return null;
+			}
+
+			try {
+				return CharMatcher.whitespace().trimTrailingFrom(
+						new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+				);
+			} catch (NoSuchFileException ignored) {
+				//The property does not exist.
+			} catch (IOException | SecurityException ex) {
+				//This includes directories and files that cannot be read without privileges.
+				logger.debug("Failed to read property file: {}", file, ex);
+			}
+
+			return null;
+		}
+	}
+
+	private static final class LayeredPropertySource implements PropertySource {
+		private final ImmutableList<PropertySource> sources;
+
+		LayeredPropertySource(ImmutableList<PropertySource> sources) {
+			this.sources = sources;
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).add("sources", sources).toString();
+		}
+
+		@Nullable
+		@Override
+		public String get(String key) {
+			return get(key, 0);
+		}
+
+		@Override
+		public boolean isWritable() {
+			for (PropertySource source : sources) {
+				if (source.isWritable()) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		@Nullable
+		@Override
+		public String set(String key, @Nullable String value) {
+			final int index = getWritableIndex(key, value);
+			//The sources with higher precedence do not contain the key, so this is the visible
+			//value.
+			final String previous = get(key, index);
+			sources.get(index).set(key, value);
+			return previous;
+		}
+
+		@Override
+		public boolean compareAndSet(
+				String key, @Nullable String expected, @Nullable String value
+		) {
+			final int index = getWritableIndex(key, value);
+			final PropertySource source = sources.get(index);
+			final String current = source.get(key);
+
+			if (current != null) {
+				return current.equals(expected) && source.compareAndSet(key, current, value);
+			}
+
+			//The visible value, if any, is read from a source with lower precedence, and
+			//setting the value in this source hides it.
+			return Objects.equals(get(key, index + 1), expected) &&
+					source.compareAndSet(key, null, value);
+		}
+
+		@Override
+		public long getVersion() {
+			//Change versions never decrease, so their sum changes whenever any of them does.
+			long version = 0L;
+
+			for (PropertySource source : sources) {
+				final long sourceVersion = source.getVersion();
+
+				if (sourceVersion == UNTRACKED) {
+					return UNTRACKED;
+				}
+
+				version += sourceVersion;
+			}
+
+			return version;
+		}
+
+		//Returns the index of the first writable source, or throws an exception if the new value
+		//would not be visible. A SystemProperty that compares against the visible value would
+		//otherwise retry forever, and set(null) would appear to succeed without any effect.
+		private int getWritableIndex(String key, @Nullable String value) {
+			for (int i = 0; i < sources.size(); i++) {
+				final PropertySource source = sources.get(i);
+
+				if (!source.isWritable()) {
+					if (source.get(key) != null) {
+						throw new UnsupportedOperationException(String.format(
+								"Cannot set %s in %s because it is shadowed by %s",
+								key, this, source
+						));
+					}
+
+					continue;
+				}
+
+				if (value == null && get(key, i + 1) != null) {
+					throw new UnsupportedOperationException(String.format(
+							"Cannot remove %s from %s because a source with lower precedence " +
+									"also contains it",
+							key, this
+					));
+				}
+
+				return i;
+			}
+
+			throw new UnsupportedOperationException("Cannot set properties in " + this);
+		}
+
+		@Nullable
+		private String get(String key, int fromIndex) {
+			for (int i = fromIndex; i < sources.size(); i++) {
+				final String value = sources.get(i).get(key);
+
+				if (value != null) {
+					return value;
+				}
+			}
+
+			return null;
+		}
+	}
+}
@@ -25,23 +25,62 @@ package com.therandomlabs.utils.platform.systemproperty;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Striped;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Represents a system property.
+ * Represents a system property. By default, the raw string value of a {@link SystemProperty} is
+ * read from the system properties, but it can be read from any {@link PropertySource},
+ * e.g. {@link PropertySources#environment()}.
  *
  * @param <T> the system property value type.
  */
 public abstract class SystemProperty<T> {
 	private static final Logger logger = LoggerFactory.getLogger(SystemProperty.class);
 
+	private static final int MAX_INVALID_RAW_VALUES = 16;
+	//compareAndSet only fails repeatedly if the raw string value keeps changing outside of this
+	//library or if the PropertySource never accepts the raw string value that it returned.
+	private static final int MAX_COMPARE_AND_SET_ATTEMPTS = 100;
+
+	//Striped by key rather than by instance so that different SystemProperty instances with the
+	//same key are also serialized.
+	private static final Striped<Lock> locks =
+			Striped.lock(Runtime.getRuntime().availableProcessors() * 4);
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<SystemProperty> overrideCounts =
+			AtomicIntegerFieldUpdater.newUpdater(SystemProperty.class, "overrideCount");
+
 	private final String key;
 	private final boolean editable;
+	private final PropertySource source;
+
+	@Nullable
+	private volatile CachedValue<T> cachedValue;
+	@Nullable
+	private volatile Map<String, Boolean> invalidRawValues;
+	@Nullable
+	private volatile Listeners<T> listeners;
+	//The number of active PropertyOverrides.Scopes that override this property on any thread.
+	private volatile int overrideCount;
+	//The index of this property in PropertySnapshot, or -1 if it is not declared in one of the
+	//*SystemProperties classes. This is only set while PropertySnapshot's registry is initialized.
+	int snapshotIndex = -1;
 
 	/**
 	 * Constructs a {@link SystemProperty}.
@@ -51,9 +90,25 @@ public abstract class SystemProperty<T> {
 	 * {@link #set(Object)} instead of {@link #forceSet(String)}.
 	 */
 	protected SystemProperty(String key, boolean editable) {
+		this(key, editable, PropertySources.system());
+	}
+
+	/**
+	 * Constructs a {@link SystemProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link SystemProperty}.
+	 * @param editable whether this {@link SystemProperty} can be edited by calling
+	 * {@link #set(Object)} instead of {@link #forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link SystemProperty} reads its raw
+	 * string value from.
+	 */
+	protected SystemProperty(String key, boolean editable, PropertySource source) {
 		Preconditions.checkNotNull(key, "key should not be null");
+		Preconditions.checkNotNull(source, "source should not be null");
 		this.key = key;
 		this.editable = editable;
+		this.source = source;
 	}
 
 	/**
@@ -76,15 +131,27 @@ public abstract class SystemProperty<T> {
 		return key;
 	}
 
+	/**
+	 * Returns the {@link PropertySource} that this {@link SystemProperty} reads its raw string
+	 * value from.
+	 *
+	 * @return the {@link PropertySource} that this {@link SystemProperty} reads its raw string
+	 * value from.
+	 */
+	public final PropertySource getSource() {
+		return source;
+	}
+
 	/**
 	 * Returns whether this {@link SystemProperty} can be edited by calling
 	 * {@link #set(Object)} instead of {@link #forceSet(String)}.
+	 * A {@link SystemProperty} is never editable if its {@link PropertySource} is not writable.
 	 *
-	 * @return {@code true} if this {@link SystemProperty} can be edited by calling
-	 * {@link #set(Object)}, or otherwise {@code false}.
+	 * @return {@code true} if this {@link SystemProperty} was constructed as editable and its
+	 * {@link PropertySource} is writable, or otherwise {@code false}.
 	 */
 	public final boolean isEditable() {
-		return editable;
+		return editable && source.isWritable();
 	}
 
 	/**
@@ -115,16 +182,65 @@ public abstract class SystemProperty<T> {
 	 */
 	@Nullable
 	public final String getRaw() {
-		return getProperty(key);
+		if (overrideCount != 0) {
+			final PropertyOverrides.Value<T> override = PropertyOverrides.get(this);
+
+			if (override != null) {
+				return override.raw;
+			}
+		}
+
+		return source.get(key);
 	}
 
 	/**
 	 * Returns this {@link SystemProperty}'s value.
+	 * <p>
+	 * The value converted by {@link #fromRawString(String)} is cached along with the raw string
+	 * value it was converted from, and it is only converted again when the raw string value
+	 * changes. While the raw string value stays the same, this method does not allocate.
+	 * If the {@link PropertySource} tracks changes, the raw string value is not even read again
+	 * while its change version stays the same.
 	 *
 	 * @return this {@link SystemProperty}'s value.
 	 */
 	@Nullable
-	public abstract T get();
+	public T get() {
+		//This is zero unless an override is active on some thread, so the thread-local lookup
+		//is usually skipped.
+		if (overrideCount != 0) {
+			final PropertyOverrides.Value<T> override = PropertyOverrides.get(this);
+
+			if (override != null) {
+				return override.value;
+			}
+		}
+
+		return getCachedValue().value;
+	}
+
+	private CachedValue<T> getCachedValue() {
+		//The version is read before the raw string value, so if the value changes in between,
+		//the newer value is cached with the older version and is read again next time.
+		final long version = source.getVersion();
+		CachedValue<T> cached = cachedValue;
+
+		if (cached != null && version != PropertySource.UNTRACKED && cached.version == version) {
+			return cached;
+		}
+
+		final String raw = source.get(key);
+
+		if (cached == null || !cached.matches(raw)) {
+			cached = new CachedValue<>(raw, raw == null ? null : fromRawString(raw), version);
+			cachedValue = cached;
+		} else if (cached.version != version) {
+			cached = new CachedValue<>(cached.raw, cached.value, version);
+			cachedValue = cached;
+		}
+
+		return cached;
+	}
 
 	/**
 	 * Returns this {@link SystemProperty}'s value if it is non-{@code null}.
@@ -142,6 +258,7 @@ public abstract class SystemProperty<T> {
 
 	/**
 	 * Sets this {@link SystemProperty}'s value to the specified value.
+	 * This is equivalent to {@link #getAndSet(Object)}.
 	 *
 	 * @param value a value.
 	 * @return the previous value of this {@link SystemProperty}.
@@ -149,36 +266,265 @@ public abstract class SystemProperty<T> {
 	 */
 	@Nullable
 	public final T set(@Nullable T value) {
-		if (!isEditable()) {
-			throw new UnsupportedOperationException("Cannot set value of uneditable property");
-		}
+		return getAndSet(value);
+	}
+
+	/**
+	 * Atomically sets this {@link SystemProperty}'s value to the specified value and returns the
+	 * previous value.
+	 *
+	 * @param value a value.
+	 * @return the previous value of this {@link SystemProperty}.
+	 * @throws UnsupportedOperationException if {@link #isEditable()} returns {@code false}.
+	 * @throws IllegalStateException if the raw string value could not be replaced because it
+	 * kept changing concurrently.
+	 * @see #compareAndSet(Object, Object)
+	 */
+	@Nullable
+	public final T getAndSet(@Nullable T value) {
+		checkEditable();
+		final String newRaw = value == null ? null : toRawString(value);
+		final Lock lock = locks.get(key);
+		String raw;
 
-		final T previous = get();
+		lock.lock();
 
-		if (value == null) {
-			forceSet(null);
-		} else {
-			setProperty(key, toRawString(value));
+		try {
+			int attempts = 0;
+
+			do {
+				checkAttempts(attempts++);
+				raw = source.get(key);
+			} while (!source.compareAndSet(key, raw, newRaw));
+		} finally {
+			lock.unlock();
 		}
 
+		final T previous = convert(raw);
+		cachedValue = null;
+		checkForChange();
 		return previous;
 	}
 
+	/**
+	 * Atomically sets this {@link SystemProperty}'s value to the specified value if its current
+	 * value is equal to the specified expected value according to
+	 * {@link Objects#equals(Object, Object)}.
+	 * <p>
+	 * Changes made through this {@link SystemProperty} and any other {@link SystemProperty} with
+	 * the same key are serialized by a lock striped by key, so operations on different keys do
+	 * not contend on a lock in this library. The raw string value is then replaced by
+	 * {@link PropertySource#compareAndSet(String, String, String)}, so for
+	 * {@link PropertySources#system()}, this also stays atomic if the system property is changed
+	 * outside of this library, e.g. through {@link System#setProperty(String, String)}.
+	 * <p>
+	 * Writes to different system properties do not scale across cores on any JRE, since every
+	 * write to {@link System#getProperties()} takes its monitor. On Java 9 and newer, only reads
+	 * of the system properties avoid the monitor. Writes to different keys only scale if the
+	 * {@link PropertySource} itself allows concurrent writes, e.g. if it is backed by a
+	 * {@code ConcurrentHashMap}.
+	 *
+	 * @param expected the expected value.
+	 * @param value a value.
+	 * @return {@code true} if the value was set, or {@code false} if the current value was not
+	 * equal to the expected value.
+	 * @throws UnsupportedOperationException if {@link #isEditable()} returns {@code false}.
+	 * @throws IllegalStateException if the raw string value could not be replaced because it
+	 * kept changing concurrently.
+	 */
+	public final boolean compareAndSet(@Nullable T expected, @Nullable T value) {
+		checkEditable();
+		final String newRaw = value == null ? null : toRawString(value);
+		final Lock lock = locks.get(key);
+
+		lock.lock();
+
+		try {
+			String raw;
+			int attempts = 0;
+
+			//If the raw string value is changed externally between the read and the write,
+			//the write fails and the new raw string value is compared instead.
+			do {
+				checkAttempts(attempts++);
+				raw = source.get(key);
+
+				if (!Objects.equals(convert(raw), expected)) {
+					return false;
+				}
+			} while (!source.compareAndSet(key, raw, newRaw));
+		} finally {
+			lock.unlock();
+		}
+
+		cachedValue = null;
+		checkForChange();
+		return true;
+	}
+
+	/**
+	 * Atomically updates this {@link SystemProperty}'s value by applying the specified function
+	 * to its current value, and returns the updated value.
+	 * The function is called while holding the lock described in
+	 * {@link #compareAndSet(Object, Object)}, so it should return quickly. It may be called more
+	 * than once if the system property is changed concurrently outside of this library.
+	 *
+	 * @param function a function that is passed the current value, which may be {@code null},
+	 * and returns the updated value.
+	 * @return the updated value of this {@link SystemProperty}.
+	 * @throws UnsupportedOperationException if {@link #isEditable()} returns {@code false}.
+	 * @throws IllegalStateException if the raw string value could not be replaced because it
+	 * kept changing concurrently.
+	 */
+	@Nullable
+	public final T updateAndGet(UnaryOperator<T> function) {
+		Preconditions.checkNotNull(function, "function should not be null");
+		checkEditable();
+		final Lock lock = locks.get(key);
+		T value;
+
+		lock.lock();
+
+		try {
+			String raw;
+			String newRaw;
+			int attempts = 0;
+
+			do {
+				checkAttempts(attempts++);
+				raw = source.get(key);
+				value = function.apply(convert(raw));
+				newRaw = value == null ? null : toRawString(value);
+			} while (!source.compareAndSet(key, raw, newRaw));
+		} finally {
+			lock.unlock();
+		}
+
+		cachedValue = null;
+		checkForChange();
+		return value;
+	}
+
+	/**
+	 * Overrides this {@link SystemProperty}'s value with the specified value on the current thread
+	 * until the returned {@link PropertyOverrides.Scope} is closed. This does not change the
+	 * underlying {@link PropertySource}, so other threads are not affected, and it works
+	 * regardless of the value returned by {@link #isEditable()}.
+	 * Overrides can be propagated to other threads using {@link PropertyOverrides}.
+	 * <p>
+	 * The override applies to this {@link SystemProperty} instance rather than to its key.
+	 * Other {@link SystemProperty} instances with the same key, including those of other types,
+	 * still return the value of their {@link PropertySource} on the current thread. Unlike the
+	 * locks described in {@link #compareAndSet(Object, Object)}, which are shared by key, an
+	 * override holds a value that has already been converted by this {@link SystemProperty}, so
+	 * it cannot be shared with instances that may convert raw string values differently.
+	 * <p>
+	 * Changes made through {@link #set(Object)} and the other write operations are not affected by
+	 * overrides, and listeners are not notified of them.
+	 *
+	 * @param value a value, or {@code null} if this {@link SystemProperty} should have no value.
+	 * @return a {@link PropertyOverrides.Scope} that should be closed on the current thread,
+	 * ideally by a try-with-resources statement.
+	 */
+	public final PropertyOverrides.Scope override(@Nullable T value) {
+		return PropertyOverrides.override(
+				this, value == null ? null : toRawString(value), value
+		);
+	}
+
 	/**
 	 * Sets this {@link SystemProperty}'s raw string value to the specified value.
 	 * This works regardless of the value returned by {@link #isEditable()},
 	 * and no validation is performed on the new value.
 	 *
-	 * @param value a raw string value.
+	 * @param value a raw string value, or {@code null} if the property should be removed.
 	 * @return the previous raw string value of this {@link SystemProperty}.
+	 * @throws UnsupportedOperationException if the {@link PropertySource} of this
+	 * {@link SystemProperty} is not writable, or if it cannot make the change visible, as described
+	 * in {@link PropertySources#layered(List)}.
 	 */
 	@Nullable
 	public final String forceSet(@Nullable String value) {
-		final String previous = getRaw();
-		setProperty(key, value);
+		final String previous = source.set(key, value);
+		cachedValue = null;
+		checkForChange();
 		return previous;
 	}
 
+	/**
+	 * Adds a listener that is called on {@link SystemPropertyWatcher#getDefaultExecutor()}
+	 * whenever the value of this {@link SystemProperty} changes.
+	 *
+	 * @param listener a {@link SystemPropertyListener}.
+	 * @see #addListener(SystemPropertyListener, Executor)
+	 */
+	public final void addListener(SystemPropertyListener<T> listener) {
+		addListener(listener, SystemPropertyWatcher.getDefaultExecutor());
+	}
+
+	/**
+	 * Adds a listener that is called on the specified {@link Executor} whenever the value of this
+	 * {@link SystemProperty} changes. A change to the raw string value that does not change the
+	 * converted value according to {@link Objects#equals(Object, Object)}, e.g. from an invalid
+	 * raw string value to no value, is not dispatched. Changes made through {@link #set(Object)} or
+	 * {@link #forceSet(String)} are detected immediately, and other changes, e.g. those made
+	 * directly through {@link System#setProperty(String, String)}, are detected by
+	 * {@link SystemPropertyWatcher}.
+	 * <p>
+	 * Calls to the listener are never concurrent and are made in the order that the changes were
+	 * detected, even if the {@link Executor} uses multiple threads. Since changes are detected
+	 * while holding a lock, a direct {@link Executor} should only be used for listeners that
+	 * return quickly.
+	 *
+	 * @param listener a {@link SystemPropertyListener}.
+	 * @param executor the {@link Executor} that the listener should be called on.
+	 */
+	public final void addListener(SystemPropertyListener<T> listener, Executor executor) {
+		Preconditions.checkNotNull(listener, "listener should not be null");
+		Preconditions.checkNotNull(executor, "executor should not be null");
+
+		synchronized (this) {
+			Listeners<T> listeners = this.listeners;
+
+			if (listeners == null) {
+				listeners = new Listeners<>(getCachedValue());
+				this.listeners = listeners;
+				SystemPropertyWatcher.watch(this);
+			}
+
+			listeners.registrations.add(new Registration<>(
+					listener, MoreExecutors.newSequentialExecutor(executor)
+			));
+		}
+	}
+
+	/**
+	 * Removes the specified listener from this {@link SystemProperty}.
+	 *
+	 * @param listener a {@link SystemPropertyListener}.
+	 * @return {@code true} if the listener was removed, or {@code false} if it had not been added.
+	 */
+	public final boolean removeListener(SystemPropertyListener<T> listener) {
+		Preconditions.checkNotNull(listener, "listener should not be null");
+
+		synchronized (this) {
+			final Listeners<T> listeners = this.listeners;
+
+			if (listeners == null || !listeners.registrations.removeIf(
+					registration -> registration.listener.equals(listener)
+			)) {
+				return false;
+			}
+
+			if (listeners.registrations.isEmpty()) {
+				this.listeners = null;
+				SystemPropertyWatcher.unwatch(this);
+			}
+
+			return true;
+		}
+	}
+
 	/**
 	 * Returns whether this {@link SystemProperty}'s value is equivalent to the specified value.
 	 *
@@ -191,6 +537,73 @@ public abstract class SystemProperty<T> {
 		return Objects.equals(get(), value);
 	}
 
+	private void checkEditable() {
+		if (!isEditable()) {
+			throw new UnsupportedOperationException("Cannot set value of uneditable property");
+		}
+	}
+
+	private void checkAttempts(int attempts) {
+		if (attempts == MAX_COMPARE_AND_SET_ATTEMPTS) {
+			throw new IllegalStateException(String.format(
+					"Failed to set %s in %s after %d attempts", key, source, attempts
+			));
+		}
+	}
+
+	@Nullable
+	T convert(@Nullable String raw) {
+		final CachedValue<T> cached = cachedValue;
+
+		if (cached != null && cached.matches(raw)) {
+			return cached.value;
+		}
+
+		//The converted value is cached so that it is not converted again by get() or by
+		//PropertySnapshot while the raw string value stays the same.
+		final T value = raw == null ? null : fromRawString(raw);
+		cachedValue = new CachedValue<>(raw, value, PropertySource.UNTRACKED);
+		return value;
+	}
+
+	void addOverride() {
+		overrideCounts.incrementAndGet(this);
+	}
+
+	void removeOverride() {
+		overrideCounts.decrementAndGet(this);
+	}
+
+	void checkForChange() {
+		final Listeners<T> listeners = this.listeners;
+
+		if (listeners == null) {
+			return;
+		}
+
+		//Changes are dispatched while holding the lock so that listeners are notified of
+		//concurrent changes in the order that they were detected.
+		synchronized (listeners) {
+			final CachedValue<T> previous = listeners.observed;
+			final long version = source.getVersion();
+
+			if (version != PropertySource.UNTRACKED && previous.version == version) {
+				return;
+			}
+
+			final CachedValue<T> current = getCachedValue();
+			listeners.observed = current;
+
+			if (previous.matches(current.raw) || Objects.equals(previous.value, current.value)) {
+				return;
+			}
+
+			for (Registration<T> registration : listeners.registrations) {
+				registration.dispatch(this, previous.value, current.value);
+			}
+		}
+	}
+
 	/**
 	 * Returns whether {@link #toString()} is equivalent to the specified string value.
 	 *
@@ -214,6 +627,50 @@ public abstract class SystemProperty<T> {
 		return Objects.equals(getRaw(), value);
 	}
 
+	/**
+	 * Converts the specified raw string value to a value.
+	 * The result is cached by {@link #get()} until the raw string value changes.
+	 *
+	 * @param raw a non-{@code null} raw string value.
+	 * @return the value that the specified raw string value represents, or {@code null} if it
+	 * is invalid.
+	 */
+	@Nullable
+	protected abstract T fromRawString(String raw);
+
+	/**
+	 * Returns whether a warning should be logged for the specified invalid raw string value.
+	 * This only returns {@code true} the first time it is called with a specific raw string value,
+	 * so that each distinct invalid value is only warned about once. Only the most recent
+	 * invalid raw string values are remembered, so a property that receives many distinct invalid
+	 * values does not retain all of them, and an invalid value may be warned about again after
+	 * many others.
+	 *
+	 * @param raw an invalid raw string value.
+	 * @return {@code true} if the specified raw string value has not been warned about yet,
+	 * or otherwise {@code false}.
+	 */
+	protected final boolean shouldWarnInvalid(String raw) {
+		Preconditions.checkNotNull(raw, "raw should not be null");
+		Map<String, Boolean> invalidRawValues = this.invalidRawValues;
+
+		if (invalidRawValues == null) {
+			synchronized (this) {
+				invalidRawValues = this.invalidRawValues;
+
+				if (invalidRawValues == null) {
+					invalidRawValues = CacheBuilder.newBuilder().
+							maximumSize(MAX_INVALID_RAW_VALUES).
+							<String, Boolean>build().
+							asMap();
+					this.invalidRawValues = invalidRawValues;
+				}
+			}
+		}
+
+		return invalidRawValues.putIfAbsent(raw, Boolean.TRUE) == null;
+	}
+
 	/**
 	 * Converts the specified value to a raw string value.
 	 *
@@ -235,6 +692,11 @@ public abstract class SystemProperty<T> {
 	public static String getProperty(String key) {
 		Preconditions.checkNotNull(key, "key should not be null");
 
+		//Without a security manager, doPrivileged is unnecessary, so we avoid the overhead.
+		if (System.getSecurityManager() == null) {
+			return System.getProperty(key);
+		}
+
 		try {
 			return AccessController.doPrivileged(
 					(PrivilegedAction<String>) () -> System.getProperty(key)
@@ -259,6 +721,10 @@ public abstract class SystemProperty<T> {
 		Preconditions.checkNotNull(key, "key should not be null");
 		Preconditions.checkNotNull(defaultValue, "defaultValue should not be null");
 
+		if (System.getSecurityManager() == null) {
+			return System.getProperty(key, defaultValue);
+		}
+
 		try {
 			return AccessController.doPrivileged(
 					(PrivilegedAction<String>) () -> System.getProperty(key, defaultValue)
@@ -275,16 +741,21 @@ public abstract class SystemProperty<T> {
 	 * raw string value.
 	 *
 	 * @param key a system property key.
-	 * @param value a raw string value.
+	 * @param value a raw string value, or {@code null} if the system property should be removed.
 	 * @return the previous raw string value of the system property.
 	 */
 	@Nullable
 	public static String setProperty(String key, @Nullable String value) {
 		Preconditions.checkNotNull(key, "key should not be null");
 
+		if (System.getSecurityManager() == null) {
+			return value == null ? System.clearProperty(key) : System.setProperty(key, value);
+		}
+
 		try {
 			return AccessController.doPrivileged(
-					(PrivilegedAction<String>) () -> System.setProperty(key, value)
+					(PrivilegedAction<String>) () -> value == null ?
+							System.clearProperty(key) : System.setProperty(key, value)
 			);
 		} catch (SecurityException ex) {
 			logger.warn("Could not set system property: {}", key, ex);
@@ -292,4 +763,62 @@ public abstract class SystemProperty<T> {
 
 		return null;
 	}
+
+	private static final class Listeners<T> {
+		private final List<Registration<T>> registrations = new CopyOnWriteArrayList<>();
+		//Guarded by this object's monitor.
+		private CachedValue<T> observed;
+
+		Listeners(CachedValue<T> observed) {
+			this.observed = observed;
+		}
+	}
+
+	private static final class Registration<T> {
+		private final SystemPropertyListener<T> listener;
+		private final Executor executor;
+
+		Registration(SystemPropertyListener<T> listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		void dispatch(SystemProperty<T> property, @Nullable T oldValue, @Nullable T newValue) {
+			try {
+				executor.execute(() -> {
+					try {
+						listener.onChange(property, oldValue, newValue);
+					} catch (RuntimeException ex) {
+						logger.warn("Listener for {} failed", property.getKey(), ex);
+					}
+				});
+			} catch (RejectedExecutionException ex) {
+				logger.warn("Failed to notify listener for {}", property.getKey(), ex);
+			}
+		}
+	}
+
+	private static final class CachedValue<T> {
+		@Nullable
+		private final String raw;
+		private final int rawHash;
+		@Nullable
+		private final T value;
+		private final long version;
+
+		CachedValue(@Nullable String raw, @Nullable T value, long version) {
+			this.raw = raw;
+			rawHash = raw == null ? 0 : raw.hashCode();
+			this.value = value;
+			this.version = version;
+		}
+
+		boolean matches(@Nullable String raw) {
+			//System.getProperty generally returns the same instance while a property is
+			//unchanged, so the identity check is usually enough. String caches its hash code,
+			//so comparing hashes first is also cheap.
+			return this.raw == raw ||
+					(raw != null && rawHash == raw.hashCode() && raw.equals(this.raw));
+		}
+	}
 }
@@ -0,0 +1,44 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Listens for changes to the value of a {@link SystemProperty}.
+ *
+ * @param <T> the system property value type.
+ * @see SystemProperty#addListener(SystemPropertyListener)
+ */
+@FunctionalInterface
+public interface SystemPropertyListener<T> {
+	/**
+	 * Called when the value of a {@link SystemProperty} changes.
+	 *
+	 * @param property the {@link SystemProperty} whose value changed.
+	 * @param oldValue the previous value of the {@link SystemProperty}.
+	 * @param newValue the new value of the {@link SystemProperty}.
+	 */
+	void onChange(SystemProperty<T> property, @Nullable T oldValue, @Nullable T newValue);
+}
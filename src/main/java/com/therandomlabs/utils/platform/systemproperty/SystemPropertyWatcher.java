@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects changes to {@link SystemProperty}s that have listeners but are not changed through
+ * {@link SystemProperty#set(Object)} or {@link SystemProperty#forceSet(String)}, e.g. changes
+ * made directly through {@link System#setProperty(String, String)}.
+ * <p>
+ * A single shared daemon thread scans the watched {@link SystemProperty}s once per scan interval,
+ * and only while there are any. For {@link SystemProperty}s that read from
+ * {@link PropertySources#system()}, a hash of all system properties is computed first, and they
+ * are only checked if it has changed since the previous scan.
+ * <p>
+ * Computing this hash iterates over every system property. On Java 8,
+ * {@link System#getProperties()} is a {@link java.util.Hashtable}, so the scanning thread holds
+ * its monitor for the whole iteration, and any concurrent read or write of any system property
+ * blocks until it finishes. The cost grows with the number of system properties, so a longer
+ * scan interval may be preferable for applications that access system properties frequently.
+ */
+public final class SystemPropertyWatcher {
+	/**
+	 * The default amount of time between scans.
+	 */
+	public static final Duration DEFAULT_SCAN_INTERVAL = Duration.ofSeconds(1L);
+
+	private static final Logger logger = LoggerFactory.getLogger(SystemPropertyWatcher.class);
+
+	private static final Set<SystemProperty<?>> watched = ConcurrentHashMap.newKeySet();
+	private static final Object lock = new Object();
+
+	private static volatile Duration scanInterval = DEFAULT_SCAN_INTERVAL;
+	@Nullable
+	private static volatile Executor defaultExecutor;
+	@Nullable
+	private static ScheduledExecutorService scanner;
+	@Nullable
+	private static ScheduledFuture<?> scan;
+	//Only accessed by scan(), which is synchronized.
+	private static int systemPropertiesHash;
+	private static boolean systemPropertiesHashed;
+
+	private SystemPropertyWatcher() {}
+
+	/**
+	 * Returns the amount of time between scans.
+	 *
+	 * @return the amount of time between scans.
+	 */
+	public static Duration getScanInterval() {
+		return scanInterval;
+	}
+
+	/**
+	 * Sets the amount of time between scans.
+	 *
+	 * @param interval the amount of time between scans.
+	 */
+	public static void setScanInterval(Duration interval) {
+		Preconditions.checkNotNull(interval, "interval should not be null");
+		Preconditions.checkArgument(
+				!interval.isNegative() && !interval.isZero(), "interval should be positive"
+		);
+
+		synchronized (lock) {
+			scanInterval = interval;
+
+			if (scan != null) {
+				scan.cancel(false);
+				scan = null;
+				schedule();
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link Executor} that listeners are called on if no {@link Executor} is
+	 * specified when they are added. By default, this is a shared cached thread pool with
+	 * daemon threads.
+	 *
+	 * @return the default listener {@link Executor}.
+	 */
+	public static Executor getDefaultExecutor() {
+		final Executor executor = defaultExecutor;
+		return executor == null ? DefaultExecutorHolder.DEFAULT_EXECUTOR : executor;
+	}
+
+	/**
+	 * Sets the {@link Executor} that listeners are called on if no {@link Executor} is specified
+	 * when they are added. This only affects listeners that are added afterwards.
+	 *
+	 * @param executor an {@link Executor}.
+	 */
+	public static void setDefaultExecutor(Executor executor) {
+		Preconditions.checkNotNull(executor, "executor should not be null");
+		defaultExecutor = executor;
+	}
+
+	/**
+	 * Checks all watched {@link SystemProperty}s for changes immediately rather than waiting for
+	 * the next scan.
+	 */
+	public static synchronized void scan() {
+		if (watched.isEmpty()) {
+			systemPropertiesHashed = false;
+			return;
+		}
+
+		final boolean systemPropertiesChanged = haveSystemPropertiesChanged();
+
+		for (SystemProperty<?> property : watched) {
+			if (systemPropertiesChanged || property.getSource() != PropertySources.system()) {
+				try {
+					property.checkForChange();
+				} catch (RuntimeException ex) {
+					logger.warn("Failed to check for changes to {}", property.getKey(), ex);
+				}
+			}
+		}
+	}
+
+	static void watch(SystemProperty<?> property) {
+		synchronized (lock) {
+			if (watched.add(property) && scan == null) {
+				schedule();
+			}
+		}
+	}
+
+	static void unwatch(SystemProperty<?> property) {
+		synchronized (lock) {
+			if (watched.remove(property) && watched.isEmpty() && scan != null) {
+				scan.cancel(false);
+				scan = null;
+			}
+		}
+	}
+
+	private static boolean haveSystemPropertiesChanged() {
+		final int hash;
+
+		try {
+			//This combines the hash codes of every key and value, so it changes whenever a
+			//system property is added, removed or changed, barring hash collisions.
+			hash = System.getProperties().hashCode();
+		} catch (SecurityException ex) {
+			return true;
+		}
+
+		final boolean changed = !systemPropertiesHashed || hash != systemPropertiesHash;
+		systemPropertiesHash = hash;
+		systemPropertiesHashed = true;
+		return changed;
+	}
+
+	//Must be called while holding lock.
+	private static void schedule() {
+		if (scanner == null) {
+			scanner = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().
+					setNameFormat("trlutils-system-property-watcher").
+					setDaemon(true).
+					build());
+		}
+
+		final long intervalNanos = scanInterval.toNanos();
+		scan = scanner.scheduleWithFixedDelay(
+				SystemPropertyWatcher::scan, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS
+		);
+	}
+
+	private static final class DefaultExecutorHolder {
+		static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(
+				new ThreadFactoryBuilder().
+						setNameFormat("trlutils-system-property-listener-%d").
+						setDaemon(true).
+						build()
+		);
+	}
+}
@@ -23,7 +23,9 @@
 
 package com.therandomlabs.utils.platform.systemproperty.type;
 
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,16 +56,74 @@ public class BooleanProperty extends SystemProperty<Boolean> {
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Constructs an uneditable {@link BooleanProperty} that reads its raw string value from the
+	 * specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link BooleanProperty}.
+	 * @param source the {@link PropertySource} that this {@link BooleanProperty} reads its raw
+	 * string value from.
+	 */
+	public BooleanProperty(String key, PropertySource source) {
+		this(key, false, source);
+	}
+
+	/**
+	 * Constructs a {@link BooleanProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link BooleanProperty}.
+	 * @param editable whether this {@link BooleanProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link BooleanProperty} reads its raw
+	 * string value from.
+	 */
+	public BooleanProperty(String key, boolean editable, PropertySource source) {
+		super(key, editable, source);
+	}
+
+	/**
+	 * Returns this {@link BooleanProperty}'s value.
+	 *
+	 * @return this {@link BooleanProperty}'s value, or {@code false} if it does not have a valid
+	 * value.
 	 */
 	@Override
 	public Boolean get() {
-		final String raw = getRaw();
+		final Boolean value = super.get();
+		return value == null ? Boolean.FALSE : value;
+	}
+
+	/**
+	 * Returns this {@link BooleanProperty}'s value as {@code boolean} without boxing.
+	 *
+	 * @param defaultValue the value to return if this {@link BooleanProperty} does not have a
+	 * valid value.
+	 * @return this {@link BooleanProperty}'s value, or the specified default value if it does not
+	 * have a valid value.
+	 */
+	public final boolean getAsBoolean(boolean defaultValue) {
+		final Boolean value = super.get();
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	protected Boolean fromRawString(String raw) {
+		if ("true".equalsIgnoreCase(raw)) {
+			return Boolean.TRUE;
+		}
+
+		if ("false".equalsIgnoreCase(raw)) {
+			return Boolean.FALSE;
+		}
 
-		if (!"false".equalsIgnoreCase(raw) && !"true".equalsIgnoreCase(raw)) {
-			logger.warn("Not a valid boolean; assuming false: {}", raw);
+		if (shouldWarnInvalid(raw)) {
+			logger.warn("Not a valid boolean: {}", raw);
 		}
 
-		return Boolean.valueOf(raw);
+		return null;
 	}
 }
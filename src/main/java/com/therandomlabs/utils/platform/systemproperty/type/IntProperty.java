@@ -23,6 +23,9 @@
 
 package com.therandomlabs.utils.platform.systemproperty.type;
 
+import java.util.OptionalInt;
+
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -54,22 +57,68 @@ public class IntProperty extends SystemProperty<Integer> {
 		super(key, editable);
 	}
 
+	/**
+	 * Constructs an uneditable {@link IntProperty} that reads its raw string value from the
+	 * specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link IntProperty}.
+	 * @param source the {@link PropertySource} that this {@link IntProperty} reads its raw
+	 * string value from.
+	 */
+	public IntProperty(String key, PropertySource source) {
+		this(key, false, source);
+	}
+
+	/**
+	 * Constructs an {@link IntProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link IntProperty}.
+	 * @param editable whether this {@link IntProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link IntProperty} reads its raw
+	 * string value from.
+	 */
+	public IntProperty(String key, boolean editable, PropertySource source) {
+		super(key, editable, source);
+	}
+
+	/**
+	 * Returns this {@link IntProperty}'s value as {@code int} without boxing.
+	 *
+	 * @param defaultValue the value to return if this {@link IntProperty} does not have a valid
+	 * value.
+	 * @return this {@link IntProperty}'s value, or the specified default value if it does not have
+	 * a valid value.
+	 */
+	public final int getAsInt(int defaultValue) {
+		final Integer value = get();
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Returns this {@link IntProperty}'s value as an {@link OptionalInt}.
+	 *
+	 * @return an {@link OptionalInt} containing this {@link IntProperty}'s value, or an empty
+	 * {@link OptionalInt} if it does not have a valid value.
+	 */
+	public final OptionalInt getAsOptionalInt() {
+		final Integer value = get();
+		return value == null ? OptionalInt.empty() : OptionalInt.of(value);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Nullable
 	@Override
-	public Integer get() {
-		final String raw = getRaw();
-
-		if (raw == null) {
-			return null;
-		}
-
+	protected Integer fromRawString(String raw) {
 		try {
 			return Integer.valueOf(raw);
 		} catch (NumberFormatException ex) {
-			logger.warn("Not a valid integer: {}", raw, ex);
+			if (shouldWarnInvalid(raw)) {
+				logger.warn("Not a valid integer: {}", raw, ex);
+			}
 		}
 
 		return null;
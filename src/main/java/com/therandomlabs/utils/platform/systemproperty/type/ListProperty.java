@@ -26,7 +26,9 @@ package com.therandomlabs.utils.platform.systemproperty.type;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -65,16 +67,35 @@ public abstract class ListProperty<E> extends SystemProperty<List<E>> {
 		this.separator = separator;
 	}
 
+	/**
+	 * Constructs a {@link ListProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link ListProperty}.
+	 * @param separator the string that separates the list elements in the raw string value
+	 * of this {@link ListProperty}.
+	 * @param editable whether this {@link ListProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link ListProperty} reads its raw
+	 * string value from.
+	 */
+	protected ListProperty(
+			String key, String separator, boolean editable, PropertySource source
+	) {
+		super(key, editable, source);
+		this.separator = separator;
+	}
+
 	/**
 	 * Returns this {@link ListProperty}'s value.
 	 *
-	 * @return a mutable {@link List} containing the elements of this {@link ListProperty}'s value.
+	 * @return an immutable {@link List} containing the elements of this {@link ListProperty}'s
+	 * value.
 	 */
 	@Nullable
 	@Override
 	public final List<E> get() {
-		final List<String> raw = getRawList();
-		return raw == null ? null : convertList(raw);
+		return super.get();
 	}
 
 	/**
@@ -86,7 +107,7 @@ public abstract class ListProperty<E> extends SystemProperty<List<E>> {
 	@Nullable
 	public final List<String> getRawList() {
 		final String raw = getRaw();
-		return raw == null ? null : Lists.newArrayList(raw.split(Pattern.quote(separator)));
+		return raw == null ? null : splitRaw(raw);
 	}
 
 	/**
@@ -114,6 +135,15 @@ public abstract class ListProperty<E> extends SystemProperty<List<E>> {
 		return separator;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected final List<E> fromRawString(String raw) {
+		//The converted list is cached and shared between callers, so it is made immutable.
+		return ImmutableList.copyOf(convertList(splitRaw(raw)));
+	}
+
 	/**
 	 * Converts a raw string list value into a list value of type {@link E}.
 	 *
@@ -122,4 +152,8 @@ public abstract class ListProperty<E> extends SystemProperty<List<E>> {
 	 * raw string list value.
 	 */
 	protected abstract List<E> convertList(List<String> list);
+
+	private List<String> splitRaw(String raw) {
+		return Lists.newArrayList(raw.split(Pattern.quote(separator)));
+	}
 }
@@ -23,6 +23,9 @@
 
 package com.therandomlabs.utils.platform.systemproperty.type;
 
+import java.util.OptionalLong;
+
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -54,22 +57,68 @@ public class LongProperty extends SystemProperty<Long> {
 		super(key, editable);
 	}
 
+	/**
+	 * Constructs an uneditable {@link LongProperty} that reads its raw string value from the
+	 * specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link LongProperty}.
+	 * @param source the {@link PropertySource} that this {@link LongProperty} reads its raw
+	 * string value from.
+	 */
+	public LongProperty(String key, PropertySource source) {
+		this(key, false, source);
+	}
+
+	/**
+	 * Constructs a {@link LongProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link LongProperty}.
+	 * @param editable whether this {@link LongProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link LongProperty} reads its raw
+	 * string value from.
+	 */
+	public LongProperty(String key, boolean editable, PropertySource source) {
+		super(key, editable, source);
+	}
+
+	/**
+	 * Returns this {@link LongProperty}'s value as {@code long} without boxing.
+	 *
+	 * @param defaultValue the value to return if this {@link LongProperty} does not have a valid
+	 * value.
+	 * @return this {@link LongProperty}'s value, or the specified default value if it does not have
+	 * a valid value.
+	 */
+	public final long getAsLong(long defaultValue) {
+		final Long value = get();
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Returns this {@link LongProperty}'s value as an {@link OptionalLong}.
+	 *
+	 * @return an {@link OptionalLong} containing this {@link LongProperty}'s value, or an empty
+	 * {@link OptionalLong} if it does not have a valid value.
+	 */
+	public final OptionalLong getAsOptionalLong() {
+		final Long value = get();
+		return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Nullable
 	@Override
-	public Long get() {
-		final String raw = getRaw();
-
-		if (raw == null) {
-			return null;
-		}
-
+	protected Long fromRawString(String raw) {
 		try {
 			return Long.valueOf(raw);
 		} catch (NumberFormatException ex) {
-			logger.warn("Not a valid long: {}", raw, ex);
+			if (shouldWarnInvalid(raw)) {
+				logger.warn("Not a valid long: {}", raw, ex);
+			}
 		}
 
 		return null;
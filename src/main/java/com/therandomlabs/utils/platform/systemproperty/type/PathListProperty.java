@@ -30,6 +30,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +74,36 @@ public class PathListProperty extends ListProperty<Path> {
 		super(key, separator, editable);
 	}
 
+	/**
+	 * Constructs an uneditable {@link PathListProperty} with {@link File#pathSeparator} as the
+	 * separator that reads its raw string value from the specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link PathListProperty}.
+	 * @param source the {@link PropertySource} that this {@link PathListProperty} reads its raw
+	 * string value from.
+	 */
+	public PathListProperty(String key, PropertySource source) {
+		this(key, File.pathSeparator, false, source);
+	}
+
+	/**
+	 * Constructs a {@link PathListProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link PathListProperty}.
+	 * @param separator the string that separates the paths in the raw string value
+	 * of this {@link PathListProperty}.
+	 * @param editable whether this {@link PathListProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link PathListProperty} reads its raw
+	 * string value from.
+	 */
+	public PathListProperty(
+			String key, String separator, boolean editable, PropertySource source
+	) {
+		super(key, separator, editable, source);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -84,7 +115,9 @@ public class PathListProperty extends ListProperty<Path> {
 			try {
 				paths.add(Paths.get(path).toAbsolutePath().normalize());
 			} catch (InvalidPathException ex) {
-				logger.warn("Invalid path: {}", path, ex);
+				if (shouldWarnInvalid(path)) {
+					logger.warn("Invalid path: {}", path, ex);
+				}
 			}
 		}
 
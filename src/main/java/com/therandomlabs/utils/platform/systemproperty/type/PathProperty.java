@@ -30,6 +30,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import com.google.common.base.Preconditions;
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
+import com.therandomlabs.utils.platform.systemproperty.PropertySources;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -90,7 +92,37 @@ public class PathProperty extends SystemProperty<Path> {
 	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
 	 */
 	public PathProperty(String key, Behavior behavior, boolean editable) {
-		super(key, editable);
+		this(key, behavior, editable, PropertySources.system());
+	}
+
+	/**
+	 * Constructs an uneditable {@link PathProperty} with the behavior
+	 * {@link Behavior#DO_NOTHING} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link PathProperty}.
+	 * @param source the {@link PropertySource} that this {@link PathProperty} reads its raw
+	 * string value from.
+	 */
+	public PathProperty(String key, PropertySource source) {
+		this(key, Behavior.DO_NOTHING, false, source);
+	}
+
+	/**
+	 * Constructs a {@link PathProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link PathProperty}.
+	 * @param behavior the action that should be performed when {@link #get()} is called.
+	 * @param editable whether this {@link PathProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link PathProperty} reads its raw
+	 * string value from.
+	 */
+	public PathProperty(
+			String key, Behavior behavior, boolean editable, PropertySource source
+	) {
+		super(key, editable, source);
 		Preconditions.checkNotNull(behavior, "behavior should not be null");
 		this.behavior = behavior;
 	}
@@ -101,29 +133,25 @@ public class PathProperty extends SystemProperty<Path> {
 	@Nullable
 	@Override
 	public Path get() {
-		String raw = getRaw();
+		final Path path = super.get();
 
-		if (raw == null) {
-			return null;
+		if (path == null || behavior == Behavior.DO_NOTHING) {
+			return path;
 		}
 
 		try {
-			final Path path = Paths.get(raw);
-
 			if (behavior == Behavior.ENSURE_FILE_EXISTS) {
 				if (!Files.exists(path)) {
 					ensureParentExists(path);
 					Files.createFile(path);
 				}
-			} else if (behavior == Behavior.ENSURE_DIRECTORY_EXISTS && !Files.exists(path)) {
+			} else if (!Files.exists(path)) {
 				Files.createDirectories(path);
 			}
 
-			return path.toAbsolutePath().normalize();
-		} catch (InvalidPathException ex) {
-			logger.warn("Invalid path: {}", raw, ex);
+			return path;
 		} catch (IOException ex) {
-			logger.warn("Failed to create: {}", raw, ex);
+			logger.warn("Failed to create: {}", path, ex);
 		}
 
 		return null;
@@ -138,6 +166,23 @@ public class PathProperty extends SystemProperty<Path> {
 		return behavior;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	protected Path fromRawString(String raw) {
+		try {
+			return Paths.get(raw).toAbsolutePath().normalize();
+		} catch (InvalidPathException ex) {
+			if (shouldWarnInvalid(raw)) {
+				logger.warn("Invalid path: {}", raw, ex);
+			}
+		}
+
+		return null;
+	}
+
 	private void ensureParentExists(Path path) throws IOException {
 		final Path parent = path.getParent();
 
@@ -25,6 +25,7 @@ package com.therandomlabs.utils.platform.systemproperty.type;
 
 import java.util.List;
 
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 
 /**
@@ -79,6 +80,38 @@ public class StringListProperty extends ListProperty<String> {
 		super(key, separator, editable);
 	}
 
+	/**
+	 * Constructs an uneditable {@link StringListProperty} that reads its raw string value from
+	 * the specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link StringListProperty}.
+	 * @param separator the string that separates the list elements in the raw string value
+	 * of this {@link StringListProperty}.
+	 * @param source the {@link PropertySource} that this {@link StringListProperty} reads its raw
+	 * string value from.
+	 */
+	public StringListProperty(String key, String separator, PropertySource source) {
+		this(key, separator, false, source);
+	}
+
+	/**
+	 * Constructs a {@link StringListProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link StringListProperty}.
+	 * @param separator the string that separates the list elements in the raw string value
+	 * of this {@link StringListProperty}.
+	 * @param editable whether this {@link StringListProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link StringListProperty} reads its raw
+	 * string value from.
+	 */
+	public StringListProperty(
+			String key, String separator, boolean editable, PropertySource source
+	) {
+		super(key, separator, editable, source);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -23,6 +23,7 @@
 
 package com.therandomlabs.utils.platform.systemproperty.type;
 
+import com.therandomlabs.utils.platform.systemproperty.PropertySource;
 import com.therandomlabs.utils.platform.systemproperty.SystemProperty;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -50,6 +51,32 @@ public class StringProperty extends SystemProperty<String> {
 		super(key, editable);
 	}
 
+	/**
+	 * Constructs an uneditable {@link StringProperty} that reads its raw string value from the
+	 * specified {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link StringProperty}.
+	 * @param source the {@link PropertySource} that this {@link StringProperty} reads its raw
+	 * string value from.
+	 */
+	public StringProperty(String key, PropertySource source) {
+		this(key, false, source);
+	}
+
+	/**
+	 * Constructs a {@link StringProperty} that reads its raw string value from the specified
+	 * {@link PropertySource}.
+	 *
+	 * @param key the key of this {@link StringProperty}.
+	 * @param editable whether this {@link StringProperty} can be edited by calling
+	 * {@link SystemProperty#set(Object)} instead of {@link SystemProperty#forceSet(String)}.
+	 * @param source the {@link PropertySource} that this {@link StringProperty} reads its raw
+	 * string value from.
+	 */
+	public StringProperty(String key, boolean editable, PropertySource source) {
+		super(key, editable, source);
+	}
+
 	/**
 	 * Returns this {@link StringProperty}'s value.
 	 *
@@ -61,4 +88,12 @@ public class StringProperty extends SystemProperty<String> {
 	public String get() {
 		return getRaw();
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String fromRawString(String raw) {
+		return raw;
+	}
 }
@@ -33,4 +33,13 @@ public class ArchitectureTest {
 		assertThat(Architecture.fromName("32 BIT")).isEqualTo(Architecture.THIRTY_TWO_BIT);
 		assertThat(Architecture.fromName("x8664")).isEqualTo(Architecture.SIXTY_FOUR_BIT);
 	}
+
+	@Test
+	public void fromNameIgnoresSeparatorsAndCase() {
+		assertThat(Architecture.fromName("X86 - 32")).isEqualTo(Architecture.THIRTY_TWO_BIT);
+		assertThat(Architecture.fromName(new StringBuilder("AArch64"))).
+				isEqualTo(Architecture.SIXTY_FOUR_BIT);
+		assertThat(Architecture.fromName("x86_6")).isEqualTo(Architecture.UNKNOWN);
+		assertThat(Architecture.fromName("")).isEqualTo(Architecture.UNKNOWN);
+	}
 }
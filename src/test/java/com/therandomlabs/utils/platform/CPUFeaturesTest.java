@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CPUFeaturesTest {
+	@TempDir
+	public Path tempDirectory;
+
+	@Test
+	public void x86FlagsShouldBeParsed() throws IOException {
+		final CPUFeatures features = read(
+				"processor\t: 0\n" +
+						"model name\t: Test CPU\n" +
+						"flags\t\t: fpu sse sse2 pni ssse3 sse4_2 avx avx2 aes avx512_vnni\n" +
+						"\n" +
+						"processor\t: 1\n" +
+						"flags\t\t: fpu\n"
+		);
+
+		assertThat(features.has(CPUFeature.SSE3)).isTrue();
+		assertThat(features.has(CPUFeature.AVX2)).isTrue();
+		assertThat(features.has(CPUFeature.AVX512F)).isFalse();
+		assertThat(features.hasAll(CPUFeature.AVX, CPUFeature.AES)).isTrue();
+		assertThat(features.hasAll(CPUFeature.AVX, CPUFeature.FMA)).isFalse();
+		assertThat(features.hasFlag("avx512_vnni")).isTrue();
+		assertThat(features.getFeatures()).containsExactly(
+				CPUFeature.SSE, CPUFeature.SSE2, CPUFeature.SSE3, CPUFeature.SSSE3,
+				CPUFeature.SSE4_2, CPUFeature.AVX, CPUFeature.AVX2, CPUFeature.AES
+		);
+	}
+
+	@Test
+	public void armFeaturesShouldBeParsed() throws IOException {
+		final CPUFeatures features = read(
+				"processor\t: 0\n" +
+						"BogoMIPS\t: 50.00\n" +
+						"Features\t: fp asimd evtstrm aes pmull sha1 sha2 crc32 atomics sve\n"
+		);
+
+		assertThat(features.hasAll(CPUFeature.NEON, CPUFeature.SVE, CPUFeature.AES)).isTrue();
+		assertThat(features.has(CPUFeature.SVE2)).isFalse();
+		assertThat(features.has(CPUFeature.AVX)).isFalse();
+	}
+
+	@Test
+	public void missingCPUInfoShouldMeanNoFeatures() {
+		final CPUFeatures features = CPUFeatures.read(tempDirectory.resolve("cpuinfo"));
+		assertThat(features.getFeatures()).isEmpty();
+		assertThat(features.getFlags()).isEmpty();
+	}
+
+	private CPUFeatures read(String cpuinfo) throws IOException {
+		final Path file = tempDirectory.resolve("cpuinfo");
+		Files.write(file, cpuinfo.getBytes(StandardCharsets.UTF_8));
+		return CPUFeatures.read(file);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CPUTopologyTest {
+	@TempDir
+	public Path sysDevicesSystem;
+
+	@Test
+	public void topologyShouldBeReadFromSysFs() throws IOException {
+		//Two sockets with two cores each and two threads per core.
+		//CPUs n and n + 4 are SMT siblings, and each socket is a NUMA node.
+		write("cpu/online", "0-7");
+
+		for (int cpu = 0; cpu < 8; cpu++) {
+			final int socket = (cpu % 4) / 2;
+			final int core = cpu % 2;
+			final int sibling = cpu < 4 ? cpu + 4 : cpu - 4;
+			write("cpu/cpu" + cpu + "/topology/physical_package_id", Integer.toString(socket));
+			write("cpu/cpu" + cpu + "/topology/core_id", Integer.toString(core));
+			write(
+					"cpu/cpu" + cpu + "/topology/thread_siblings_list",
+					Math.min(cpu, sibling) + "," + Math.max(cpu, sibling)
+			);
+		}
+
+		writeCache(0, 1, "Data", "48K", 64);
+		writeCache(1, 1, "Instruction", "32K", 64);
+		writeCache(2, 2, "Unified", "2048K", 64);
+		writeCache(3, 3, "Unified", "32M", 128);
+
+		write("node/online", "0-1");
+		write("node/node0/cpulist", "0-1,4-5");
+		write("node/node0/meminfo", "Node 0 MemTotal:        4194304 kB\nNode 0 MemFree: 1 kB");
+		write("node/node1/cpulist", "2-3,6-7");
+		write("node/node1/meminfo", "Node 1 MemTotal:        2097152 kB");
+
+		final CPUTopology topology = CPUTopology.read(sysDevicesSystem, 1);
+
+		assertThat(topology.isAvailable()).isTrue();
+		assertThat(topology.getCPUCount()).isEqualTo(8);
+		assertThat(topology.getCoreCount()).isEqualTo(4);
+		assertThat(topology.getSocketCount()).isEqualTo(2);
+		assertThat(topology.getThreadsPerCore()).isEqualTo(2);
+		assertThat(topology.getSocket(6)).isEqualTo(1);
+		assertThat(topology.getCore(6)).isEqualTo(0);
+		assertThat(topology.getNode(6)).isEqualTo(1);
+		assertThat(topology.getSMTSiblings(6).stream()).containsExactly(2, 6);
+		assertThat(topology.getNodeIDs().asList()).containsExactly(0, 1);
+		assertThat(topology.getNodeCPUs(1).stream()).containsExactly(2, 3, 6, 7);
+		assertThat(topology.getNodeMemory(0)).isEqualTo(4L << 30);
+		assertThat(topology.getNodeMemory(2)).isEqualTo(-1L);
+		assertThat(topology.getCacheSize(1)).isEqualTo(48L << 10);
+		assertThat(topology.getCacheSize(3)).isEqualTo(32L << 20);
+		assertThat(topology.getCacheLineSize(3)).isEqualTo(128);
+	}
+
+	@Test
+	public void missingSysFsShouldFallBackToAvailableProcessors() {
+		final CPUTopology topology = CPUTopology.read(sysDevicesSystem, 4);
+
+		assertThat(topology.isAvailable()).isFalse();
+		assertThat(topology.getCPUCount()).isEqualTo(4);
+		assertThat(topology.getCoreCount()).isEqualTo(4);
+		assertThat(topology.getSocketCount()).isEqualTo(1);
+		assertThat(topology.getSocket(0)).isEqualTo(-1);
+		assertThat(topology.getNodeIDs().isEmpty()).isTrue();
+		assertThat(topology.getCacheSize(2)).isEqualTo(-1L);
+	}
+
+	private void writeCache(int index, int level, String type, String size, int lineSize)
+			throws IOException {
+		final String directory = "cpu/cpu0/cache/index" + index + "/";
+		write(directory + "level", Integer.toString(level));
+		write(directory + "type", type);
+		write(directory + "size", size);
+		write(directory + "coherency_line_size", Integer.toString(lineSize));
+	}
+
+	private void write(String path, String content) throws IOException {
+		final Path file = sysDevicesSystem.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, (content + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClasspathIndexTest {
+	private static final byte[] STUB =
+			"#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	public Path tempDirectory;
+
+	@Test
+	public void earlierEntriesShouldTakePrecedence() throws IOException {
+		final Path first = writeJAR("first.jar", "META-INF/", "META-INF/plugin", "a/A.class");
+		final Path second = writeJAR("second.jar", "META-INF/plugin", "b/B.class", "é.txt");
+		final Path directory = tempDirectory.resolve("classes");
+		Files.createDirectories(directory.resolve("c"));
+		Files.createFile(directory.resolve("c/C.class"));
+		Files.createFile(directory.resolve("META-INF-plugin"));
+
+		final ClasspathIndex index = ClasspathIndex.build(
+				Arrays.asList(second, tempDirectory.resolve("missing.jar"), first, directory),
+				false
+		);
+
+		assertThat(index.findEntry("META-INF/plugin")).isEqualTo(second);
+		assertThat(index.findEntries("META-INF/plugin")).containsExactly(second, first);
+		assertThat(index.findEntry("a/A.class")).isEqualTo(first);
+		assertThat(index.findEntry("c/C.class")).isEqualTo(directory);
+		assertThat(index.findEntry("é.txt")).isEqualTo(second);
+		assertThat(index.contains("META-INF/")).isFalse();
+		assertThat(index.contains("d/D.class")).isFalse();
+		assertThat(index.getResourceNames("META-INF")).
+				containsExactly("META-INF-plugin", "META-INF/plugin");
+		assertThat(index.getResourceNames("")).hasSize(6);
+	}
+
+	@Test
+	public void archiveCommentsShouldBeSkipped() throws IOException {
+		final Path jar = tempDirectory.resolve("comment.jar");
+
+		try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(jar))) {
+			output.putNextEntry(new ZipEntry("resource"));
+			output.closeEntry();
+			output.setComment("comment");
+		}
+
+		assertThat(ClasspathIndex.readJAR(jar)).containsExactly("resource");
+	}
+
+	@Test
+	public void zip64ArchivesShouldBeRead() throws IOException {
+		//More than 65535 entries requires a ZIP64 end of central directory record.
+		final String[] names = new String[70000];
+
+		for (int i = 0; i < names.length; i++) {
+			names[i] = String.format("r/%05d", i);
+		}
+
+		assertThat(ClasspathIndex.readJAR(writeJAR("zip64.jar", names))).isEqualTo(names);
+		assertThat(ClasspathIndex.readJAR(writeJAR("zip64-stub.jar", STUB, names))).
+				isEqualTo(names);
+	}
+
+	@Test
+	public void prependedDataShouldBeSkipped() throws IOException {
+		assertThat(ClasspathIndex.readJAR(writeJAR("stub.jar", STUB, "a", "b"))).
+				containsExactly("a", "b");
+	}
+
+	@Test
+	public void indexFilesShouldBeReused() throws IOException {
+		final Path jar = writeJAR("indexed.jar", "a", "b");
+		final Path indexFile =
+				tempDirectory.resolve("indexed.jar" + ClasspathIndex.INDEX_FILE_SUFFIX);
+		final FileTime modificationTime = Files.getLastModifiedTime(jar);
+
+		assertThat(ClasspathIndex.build(ImmutableList.of(jar)).contains("a")).isTrue();
+		assertThat(indexFile).exists();
+
+		//A JAR with the same size and modification time is not read again.
+		Files.write(jar, new byte[(int) Files.size(jar)]);
+		Files.setLastModifiedTime(jar, modificationTime);
+		assertThat(ClasspathIndex.build(ImmutableList.of(jar)).getResourceNames("")).
+				containsExactly("a", "b");
+
+		writeJAR("indexed.jar", "c");
+		Files.setLastModifiedTime(jar, FileTime.fromMillis(modificationTime.toMillis() + 2000L));
+		assertThat(ClasspathIndex.build(ImmutableList.of(jar)).getResourceNames("")).
+				containsExactly("c");
+	}
+
+	@Test
+	public void invalidJARsShouldBeIgnored() throws IOException {
+		final Path jar = tempDirectory.resolve("invalid.jar");
+		Files.write(jar, "not a jar".getBytes(StandardCharsets.UTF_8));
+		assertThat(ClasspathIndex.build(ImmutableList.of(jar), false).getResourceNames("")).
+				isEmpty();
+	}
+
+	@Test
+	public void classLocationShouldContainThisClass() {
+		final Path location = Platform.getClassLocation(ClasspathIndexTest.class);
+		final String resourceName =
+				ClasspathIndexTest.class.getName().replace('.', '/') + ".class";
+		assertThat(ClasspathIndex.build(ImmutableList.of(location), false).findEntry(resourceName)).
+				isEqualTo(location);
+	}
+
+	private Path writeJAR(String fileName, String... names) throws IOException {
+		return writeJAR(fileName, new byte[0], names);
+	}
+
+	private Path writeJAR(String fileName, byte[] prefix, String... names) throws IOException {
+		final Path jar = tempDirectory.resolve(fileName);
+		final OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(jar));
+		//Offsets in the archive do not include the prefix, as in self-executing JARs.
+		outputStream.write(prefix);
+
+		try (ZipOutputStream output = new ZipOutputStream(outputStream)) {
+			for (String name : names) {
+				output.putNextEntry(new ZipEntry(name));
+				output.closeEntry();
+			}
+		}
+
+		return jar;
+	}
+}
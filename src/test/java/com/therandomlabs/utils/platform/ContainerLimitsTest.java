@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ContainerLimitsTest {
+	@TempDir
+	public Path root;
+
+	@Test
+	public void cgroupV1LimitsShouldBeRead() throws IOException {
+		write(
+				"proc/self/cgroup",
+				"5:memory:/docker/abc\n4:cpuset:/docker/abc\n3:cpu,cpuacct:/docker/abc\n0::/\n"
+		);
+		write(
+				"proc/self/mountinfo",
+				"30 25 0:26 / /sys/fs/cgroup/cpu,cpuacct rw - cgroup cgroup rw,cpu,cpuacct\n" +
+						"31 25 0:27 / /sys/fs/cgroup/cpuset rw - cgroup cgroup rw,cpuset\n" +
+						"32 25 0:28 / /sys/fs/cgroup/memory rw - cgroup cgroup rw,memory\n" +
+						"33 25 0:29 / /sys/fs/cgroup/unified rw - cgroup2 cgroup2 rw\n"
+		);
+		write("proc/self/status", "Name:\tjava\nCpus_allowed_list:\t0-7\n");
+		write("sys/fs/cgroup/cpu,cpuacct/docker/abc/cpu.cfs_quota_us", "150000");
+		write("sys/fs/cgroup/cpu,cpuacct/docker/abc/cpu.cfs_period_us", "100000");
+		write("sys/fs/cgroup/cpuset/docker/abc/cpuset.cpus", "0-3");
+		write("sys/fs/cgroup/memory/memory.limit_in_bytes", "9223372036854771712");
+		write("sys/fs/cgroup/memory/docker/memory.limit_in_bytes", "536870912");
+		write("sys/fs/cgroup/memory/docker/abc/memory.limit_in_bytes", "9223372036854771712");
+		write("sys/fs/cgroup/memory/docker/abc/memory.memsw.limit_in_bytes", "1073741824");
+
+		final ContainerLimits limits = ContainerLimits.read(root, 16);
+
+		assertThat(limits.getCgroupVersion()).isEqualTo(1);
+		assertThat(limits.getCPUQuota()).hasValue(1.5);
+		assertThat(limits.getCPUSet()).isEqualTo(cpus(0, 1, 2, 3));
+		assertThat(limits.getCPUAffinity().cardinality()).isEqualTo(8);
+		assertThat(limits.getEffectiveCPUs()).isEqualTo(2);
+		assertThat(limits.getMemoryLimit()).hasValue(536870912L);
+		assertThat(limits.getSwapLimit()).hasValue(536870912L);
+	}
+
+	@Test
+	public void cgroupV2LimitsShouldBeRead() throws IOException {
+		write("proc/self/cgroup", "0::/kubepods/pod1/container\n");
+		write(
+				"proc/self/mountinfo",
+				"25 20 0:22 / /sys/fs/cgroup rw,nosuid - cgroup2 cgroup2 rw,nsdelegate\n"
+		);
+		write("sys/fs/cgroup/kubepods/pod1/cpu.max", "250000 100000");
+		write("sys/fs/cgroup/kubepods/pod1/container/cpu.max", "max 100000");
+		write("sys/fs/cgroup/kubepods/pod1/container/cpuset.cpus.effective", "0-1,4");
+		write("sys/fs/cgroup/kubepods/pod1/memory.max", "268435456");
+		write("sys/fs/cgroup/kubepods/pod1/container/memory.max", "1073741824");
+		write("sys/fs/cgroup/kubepods/pod1/container/memory.swap.max", "max");
+
+		final ContainerLimits limits = ContainerLimits.read(root, 16);
+
+		assertThat(limits.getCgroupVersion()).isEqualTo(2);
+		assertThat(limits.getCPUQuota()).hasValue(2.5);
+		assertThat(limits.getCPUSet()).isEqualTo(cpus(0, 1, 4));
+		assertThat(limits.getCPUAffinity().isEmpty()).isTrue();
+		assertThat(limits.getEffectiveCPUs()).isEqualTo(3);
+		assertThat(limits.getMemoryLimit()).hasValue(268435456L);
+		assertThat(limits.getSwapLimit()).isEmpty();
+	}
+
+	@Test
+	public void cgroupPathShouldBeRelativeToMountRoot() throws IOException {
+		write("proc/self/cgroup", "0::/kubepods/pod1/container\n");
+		write(
+				"proc/self/mountinfo",
+				"25 20 0:22 /kubepods/pod1/container /sys/fs/cgroup rw - cgroup2 cgroup2 rw\n"
+		);
+		write("sys/fs/cgroup/memory.max", "1073741824");
+
+		assertThat(ContainerLimits.read(root, 4).getMemoryLimit()).hasValue(1073741824L);
+	}
+
+	@Test
+	public void missingCgroupsShouldMeanNoLimits() {
+		final ContainerLimits limits = ContainerLimits.read(root, 4);
+
+		assertThat(limits.getCgroupVersion()).isZero();
+		assertThat(limits.getCPUQuota()).isEmpty();
+		assertThat(limits.getEffectiveCPUs()).isEqualTo(4);
+		assertThat(limits.getMemoryLimit()).isEmpty();
+		assertThat(limits.getSwapLimit()).isEmpty();
+	}
+
+	private void write(String path, String content) throws IOException {
+		final Path file = root.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static BitSet cpus(int... indexes) {
+		final BitSet cpus = new BitSet();
+
+		for (int index : indexes) {
+			cpus.set(index);
+		}
+
+		return cpus;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+public class InstructionSetTest {
+	@Test
+	public void fromNameShouldDistinguishInstructionSets() {
+		assertThat(InstructionSet.fromName("amd64")).isEqualTo(InstructionSet.X86_64);
+		assertThat(InstructionSet.fromName("X86-64")).isEqualTo(InstructionSet.X86_64);
+		assertThat(InstructionSet.fromName("aarch64")).isEqualTo(InstructionSet.AARCH64);
+		assertThat(InstructionSet.fromName("ppc64le").getByteOrder()).
+				isEqualTo(ByteOrder.LITTLE_ENDIAN);
+		assertThat(InstructionSet.fromName("s390x").getFamily()).
+				isEqualTo(InstructionSet.Family.S390);
+		assertThat(InstructionSet.fromName("riscv64").getArchitecture()).
+				isEqualTo(Architecture.SIXTY_FOUR_BIT);
+		assertThat(InstructionSet.fromName("mips")).isEqualTo(InstructionSet.UNKNOWN);
+	}
+
+	@Test
+	public void detectShouldPreferNativeByteOrder() {
+		assertThat(InstructionSet.detect("ppc64", ByteOrder.LITTLE_ENDIAN, "little")).
+				isEqualTo(InstructionSet.PPC64LE);
+		assertThat(InstructionSet.detect("ppc64le", ByteOrder.BIG_ENDIAN, null)).
+				isEqualTo(InstructionSet.PPC64);
+		assertThat(InstructionSet.detect("aarch64", ByteOrder.BIG_ENDIAN, "big")).
+				isEqualTo(InstructionSet.AARCH64);
+		assertThat(InstructionSet.detect(null, ByteOrder.LITTLE_ENDIAN, null)).
+				isEqualTo(InstructionSet.UNKNOWN);
+	}
+
+	@Test
+	public void currentInstructionSetShouldMatchNativeByteOrder() {
+		final InstructionSet instructionSet = CurrentPlatform.instructionSet();
+
+		if (instructionSet != InstructionSet.UNKNOWN) {
+			assertThat(instructionSet.getByteOrder()).isEqualTo(ByteOrder.nativeOrder());
+			assertThat(instructionSet.getArchitecture()).
+					isEqualTo(CurrentPlatform.jvmArchitecture());
+		}
+	}
+}
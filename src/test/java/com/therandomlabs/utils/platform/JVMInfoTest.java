@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import javax.management.MBeanServerFactory;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+public class JVMInfoTest {
+	@Test
+	public void hotSpotOptionsShouldBeRead() {
+		final JVMInfo info = JVMInfo.current();
+		assumeTrue(info.isHotSpot());
+
+		assertThat(info.getGarbageCollector()).isNotEqualTo(JVMInfo.GarbageCollector.UNKNOWN);
+		assertThat(info.getMaxHeapSize()).isGreaterThanOrEqualTo(Runtime.getRuntime().maxMemory());
+		assertThat(info.getMaxDirectMemorySize()).isPositive();
+		assertThat(info.usesCompressedOops()).isPresent();
+		assertThat(info.getObjectAlignment()).isPresent();
+		assertThat(Integer.bitCount(info.getObjectAlignment().getAsInt())).isOne();
+		assertThat(info.getJITCompiler()).isPresent();
+		assertThat(info.getVMOption("NoSuchOption")).isNull();
+	}
+
+	@Test
+	public void infoShouldBeDegradedWithoutHotSpotOptions() {
+		final JVMInfo info = new JVMInfo(MBeanServerFactory.newMBeanServer());
+
+		assertThat(info.isHotSpot()).isFalse();
+		assertThat(info.getVMOption("MaxHeapSize")).isNull();
+		assertThat(info.getMaxHeapSize()).isEqualTo(Runtime.getRuntime().maxMemory());
+		assertThat(info.getObjectAlignment()).isEmpty();
+		assertThat(info.usesCompressedClassPointers()).isEmpty();
+		assertThat(info.getGarbageCollector()).
+				isEqualTo(JVMInfo.getGarbageCollector(info.getGarbageCollectorNames()));
+	}
+
+	@Test
+	public void garbageCollectorsShouldBeDetectedByName() {
+		assertThat(JVMInfo.getGarbageCollector(
+				ImmutableList.of("G1 Young Generation", "G1 Old Generation")
+		)).isEqualTo(JVMInfo.GarbageCollector.G1);
+		assertThat(JVMInfo.getGarbageCollector(ImmutableList.of("PS Scavenge", "PS MarkSweep"))).
+				isEqualTo(JVMInfo.GarbageCollector.PARALLEL);
+		assertThat(JVMInfo.getGarbageCollector(ImmutableList.of("Copy", "MarkSweepCompact"))).
+				isEqualTo(JVMInfo.GarbageCollector.SERIAL);
+		assertThat(JVMInfo.getGarbageCollector(ImmutableList.of("scavenge", "global"))).
+				isEqualTo(JVMInfo.GarbageCollector.UNKNOWN);
+	}
+
+	@Test
+	public void sizeArgumentsShouldBeParsed() {
+		final String prefix = "-XX:MaxDirectMemorySize=";
+
+		assertThat(JVMInfo.getSizeArgument(ImmutableList.of(prefix + "512m", "-Xmx1g"), prefix)).
+				hasValue(512L << 20);
+		assertThat(JVMInfo.getSizeArgument(ImmutableList.of(prefix + "1G", prefix + "2k"), prefix)).
+				hasValue(2048L);
+		assertThat(JVMInfo.getSizeArgument(ImmutableList.of(prefix + "4096"), prefix)).
+				hasValue(4096L);
+		assertThat(JVMInfo.getSizeArgument(ImmutableList.of(prefix + "x"), prefix)).isEmpty();
+		assertThat(JVMInfo.getSizeArgument(ImmutableList.of(), prefix)).isEmpty();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class JavaRuntimeTest {
+	@Test
+	public void legacyVersionsShouldBeParsed() {
+		assertVersion("1.8.0_292-b10", 8, 0, 292, 0, 10);
+		assertVersion("1.8.0_292-8u292-b10-0ubuntu1~20.04-b10", 8, 0, 292, 0, 10);
+		assertVersion("1.7.0_80", 7, 0, 80, 0, 0);
+		assertVersion("1.8.0-beta-b04", 8, 0, 0, 0, 4);
+		assertVersion("1.8", 8, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void versionsShouldBeParsed() {
+		assertVersion("17.0.2+8-LTS", 17, 0, 2, 0, 8);
+		assertVersion("11.0.16.1+1", 11, 0, 16, 1, 1);
+		assertVersion("21-ea+35-2513", 21, 0, 0, 0, 35);
+		assertVersion("9", 9, 0, 0, 0, 0);
+		assertVersion("17-internal", 17, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void invalidVersionsShouldNotBeParsed() {
+		assertThat(JavaRuntime.parse("")).isNull();
+		assertThat(JavaRuntime.parse("1.")).isNull();
+		assertThat(JavaRuntime.parse("0.1")).isNull();
+		assertThat(JavaRuntime.parse("java")).isNull();
+		assertThat(JavaRuntime.parse("99999999999")).isNull();
+	}
+
+	@Test
+	public void versionsShouldBeCompared() {
+		final JavaRuntime java8 = JavaRuntime.parse("1.8.0_292-b10");
+		final JavaRuntime java11 = JavaRuntime.parse("11.0.16+8");
+		final JavaRuntime java11Patch = JavaRuntime.parse("11.0.16.1+1");
+
+		assertThat(java8).isLessThan(java11);
+		assertThat(java11).isLessThan(java11Patch);
+		assertThat(JavaRuntime.parse("17.0.2+8", "Vendor")).
+				isEqualTo(JavaRuntime.parse("17.0.2+8", "Vendor")).
+				isNotEqualTo(JavaRuntime.parse("17.0.2+8", null));
+		assertThat(java8.isAtLeast(8, 0, 291)).isTrue();
+		assertThat(java8.isAtLeast(8, 0, 293)).isFalse();
+		assertThat(java11.isAtLeast(9)).isTrue();
+		assertThat(java11.isAtLeast(17)).isFalse();
+	}
+
+	@Test
+	public void capabilitiesShouldDependOnFeatureVersion() {
+		final JavaRuntime java8 = JavaRuntime.parse("1.8.0_292");
+		assertThat(java8.hasStackWalker()).isFalse();
+		assertThat(java8.hasModules()).isFalse();
+
+		final JavaRuntime java21 = JavaRuntime.parse("21.0.1+12");
+		assertThat(java21.hasStackWalker()).isTrue();
+		assertThat(java21.hasVirtualThreads()).isTrue();
+		assertThat(java21.hasForeignMemoryAPI()).isFalse();
+		assertThat(JavaRuntime.parse("22").hasForeignMemoryAPI()).isTrue();
+	}
+
+	@Test
+	public void currentRuntimeShouldBeDetected() {
+		final JavaRuntime current = JavaRuntime.current();
+		assertThat(current.getFeature()).isGreaterThanOrEqualTo(8);
+		assertThat(current.getVendor()).isEqualTo(System.getProperty("java.vendor"));
+	}
+
+	private static void assertVersion(
+			String version, int feature, int interim, int update, int patch, int build
+	) {
+		final JavaRuntime runtime = JavaRuntime.parse(version);
+		assertThat(runtime).isNotNull();
+		assertThat(runtime.getVersion()).isEqualTo(version);
+		assertThat(runtime.getFeature()).isEqualTo(feature);
+		assertThat(runtime.getInterim()).isEqualTo(interim);
+		assertThat(runtime.getUpdate()).isEqualTo(update);
+		assertThat(runtime.getPatch()).isEqualTo(patch);
+		assertThat(runtime.getBuild()).isEqualTo(build);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+public class MACAddressResolverTest {
+	@Test
+	public void formatShouldUseLowercaseHexadecimal() {
+		final byte[] address = {0x00, 0x1a, (byte) 0xff, 0x7f, (byte) 0x80, 0x09};
+		assertThat(MACAddressResolver.format(address, ":")).isEqualTo("00:1a:ff:7f:80:09");
+		assertThat(MACAddressResolver.format(address, "")).isEqualTo("001aff7f8009");
+	}
+
+	@Test
+	public void zeroTimeoutShouldStillResolveAddress() {
+		final MACAddressResolver resolver =
+				new MACAddressResolver(Duration.ZERO, Duration.ofMinutes(1L));
+		assertThat(resolver.get("-")).matches("^([0-9a-f]{2}-){5}([0-9a-f]{2})$");
+	}
+
+	@Test
+	public void resultsShouldBeCachedEvenIfNoAddressIsFound() {
+		final MACAddressResolver resolver =
+				new MACAddressResolver(Duration.ZERO, Duration.ofMinutes(1L));
+		final String address = resolver.get(":");
+
+		//Whether or not an address was found, the result is cached, so no lookup is started.
+		final CompletableFuture<String> cached = resolver.resolve(":");
+		assertThat(cached).isDone();
+		assertThat(cached.join()).isEqualTo(address);
+
+		resolver.invalidate();
+		assertThat(resolver.get(":")).isEqualTo(address);
+	}
+}
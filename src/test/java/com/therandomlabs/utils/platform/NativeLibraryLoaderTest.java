@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NativeLibraryLoaderTest {
+	private static final byte[] CONTENT = "not really a library".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	public Path tempDirectory;
+
+	private URLClassLoader classLoader;
+	private Path cacheDirectory;
+
+	@BeforeEach
+	public void createResources() throws IOException {
+		final Path resources = tempDirectory.resolve("resources");
+		final Path library = resources.resolve("natives").
+				resolve(NativeLibraryLoader.getPlatformClassifier()).
+				resolve(System.mapLibraryName("test"));
+		Files.createDirectories(library.getParent());
+		Files.write(library, CONTENT);
+		classLoader = new URLClassLoader(new URL[] {resources.toUri().toURL()}, null);
+		cacheDirectory = tempDirectory.resolve("cache");
+	}
+
+	@Test
+	public void platformClassifierShouldUseOSAndInstructionSet() {
+		assertThat(NativeLibraryLoader.getPlatformClassifier(OS.LINUX, InstructionSet.X86_64)).
+				isEqualTo("linux-x86_64");
+		assertThat(NativeLibraryLoader.getPlatformClassifier(OS.GNU_LINUX, InstructionSet.PPC64LE)).
+				isEqualTo("linux-ppc64le");
+		assertThat(NativeLibraryLoader.getPlatformClassifier(OS.MACOS, InstructionSet.AARCH64)).
+				isEqualTo("macos-aarch64");
+	}
+
+	@Test
+	public void libraryShouldOnlyBeExtractedOnce() throws IOException {
+		final Path library =
+				new NativeLibraryLoader(classLoader, "/natives/", cacheDirectory).extract("test");
+
+		assertThat(library).isNotNull().startsWith(cacheDirectory);
+		assertThat(Files.readAllBytes(library)).isEqualTo(CONTENT);
+
+		final FileTime lastModified = FileTime.fromMillis(0L);
+		Files.setLastModifiedTime(library, lastModified);
+
+		assertThat(new NativeLibraryLoader(classLoader, "natives", cacheDirectory).
+				extract("test")).isEqualTo(library);
+		assertThat(Files.getLastModifiedTime(library)).isEqualTo(lastModified);
+	}
+
+	@Test
+	public void corruptLibraryShouldBeExtractedAgain() throws IOException {
+		final Path library =
+				new NativeLibraryLoader(classLoader, "natives", cacheDirectory).extract("test");
+		Files.write(library, "corrupt".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(new NativeLibraryLoader(classLoader, "natives", cacheDirectory).
+				extract("test")).isEqualTo(library);
+		assertThat(Files.readAllBytes(library)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void cacheDirectoriesShouldBePrivate() throws IOException {
+		assumeTrue(cacheDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		final Path library =
+				new NativeLibraryLoader(classLoader, "natives", cacheDirectory).extract("test");
+
+		assertThat(Files.getPosixFilePermissions(cacheDirectory)).
+				isEqualTo(PosixFilePermissions.fromString("rwx------"));
+		assertThat(Files.getPosixFilePermissions(library.getParent())).
+				isEqualTo(PosixFilePermissions.fromString("rwx------"));
+		assertThat(new NativeLibraryLoader(classLoader, "natives").getCacheDirectory().
+				getFileName().toString()).startsWith("trlutils-natives-");
+
+		Files.setPosixFilePermissions(
+				library.getParent(), PosixFilePermissions.fromString("rwxrwxrwx")
+		);
+		assertThatThrownBy(
+				() -> new NativeLibraryLoader(classLoader, "natives", cacheDirectory).
+						extract("test")
+		).isInstanceOf(IOException.class).hasMessageContaining("writable by other users");
+	}
+
+	@Test
+	public void concurrentExtractionShouldProduceOneLibrary() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final List<Future<Path>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> new NativeLibraryLoader(
+						classLoader, "natives", cacheDirectory
+				).extract("test")));
+			}
+
+			final Path library = futures.get(0).get();
+
+			for (Future<Path> future : futures) {
+				assertThat(future.get()).isEqualTo(library);
+			}
+
+			assertThat(Files.readAllBytes(library)).isEqualTo(CONTENT);
+
+			try (Stream<Path> files = Files.list(library.getParent())) {
+				assertThat(files.filter(file -> file.toString().endsWith(".tmp"))).isEmpty();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void missingLibraryShouldFallBackToLibraryPath() throws IOException {
+		final NativeLibraryLoader loader =
+				new NativeLibraryLoader(classLoader, "natives", cacheDirectory);
+
+		assertThat(loader.extract("missing")).isNull();
+		assertThatThrownBy(() -> loader.load("trlutils-missing")).
+				isInstanceOf(UnsatisfiedLinkError.class);
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NetworkInterfaceInventoryTest {
+	@TempDir
+	public Path tempDirectory;
+
+	@Test
+	public void sysFsInventoryShouldExcludeLoopbackAndDetectVirtualInterfaces() throws IOException {
+		final Path sysClassNet = createSysClassNet();
+		final NetworkInterfaceInventory inventory = new NetworkInterfaceInventory(sysClassNet);
+
+		assertThat(inventory.getInterfaces()).containsOnlyKeys("eth0", "veth0");
+
+		final NetworkInterfaceInfo eth0 = inventory.getInterface("eth0");
+		assertThat(eth0).isNotNull();
+		assertThat(eth0.getFormattedHardwareAddress(":")).isEqualTo("02:fc:00:00:00:01");
+		assertThat(eth0.getMTU()).isEqualTo(1400);
+		assertThat(eth0.isUp()).isTrue();
+		assertThat(eth0.isVirtual()).isFalse();
+
+		final NetworkInterfaceInfo veth0 = inventory.getInterface("veth0");
+		assertThat(veth0).isNotNull();
+		assertThat(veth0.isUp()).isFalse();
+		assertThat(veth0.isVirtual()).isTrue();
+	}
+
+	@Test
+	public void allZeroHardwareAddressesShouldBeNull() throws IOException {
+		final Path sysClassNet = createSysClassNet();
+		createInterface(
+				sysClassNet, tempDirectory.resolve("devices/virtual/net/tun0"),
+				"00:00:00:00:00:00", 4, 1500, "0x1091", "unknown"
+		);
+		final NetworkInterfaceInventory inventory = new NetworkInterfaceInventory(sysClassNet);
+
+		final NetworkInterfaceInfo tun0 = inventory.getInterface("tun0");
+		assertThat(tun0).isNotNull();
+		assertThat(tun0.getHardwareAddress()).isNull();
+		assertThat(tun0.getFormattedHardwareAddress(":")).isNull();
+		assertThat(tun0.isUp()).isTrue();
+		assertThat(tun0.isVirtual()).isTrue();
+		assertThat(inventory.refresh().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void refreshShouldReturnDifference() throws IOException {
+		final Path sysClassNet = createSysClassNet();
+		final NetworkInterfaceInventory inventory = new NetworkInterfaceInventory(sysClassNet);
+
+		assertThat(inventory.refresh().isEmpty()).isTrue();
+
+		write(sysClassNet.resolve("eth0"), "operstate", "down");
+		Files.delete(sysClassNet.resolve("veth0"));
+		final NetworkInterfaceInventory.Diff diff = inventory.refresh();
+
+		assertThat(diff.getAdded()).isEmpty();
+		assertThat(diff.getRemoved()).extracting(NetworkInterfaceInfo::getName).
+				containsExactly("veth0");
+		assertThat(diff.getChanged()).extracting(NetworkInterfaceInfo::getName).
+				containsExactly("eth0");
+		assertThat(inventory.getInterface("eth0").isUp()).isFalse();
+	}
+
+	private Path createSysClassNet() throws IOException {
+		final Path devices = tempDirectory.resolve("devices");
+		final Path sysClassNet = Files.createDirectories(tempDirectory.resolve("class/net"));
+
+		createInterface(
+				sysClassNet, devices.resolve("pci0000:00/net/eth0"), "02:fc:00:00:00:01", 2,
+				1400, "0x1003", "up"
+		);
+		createInterface(
+				sysClassNet, devices.resolve("virtual/net/veth0"), "92:07:78:25:7f:ef", 3,
+				1500, "0x1002", "down"
+		);
+		createInterface(
+				sysClassNet, devices.resolve("virtual/net/lo"), "00:00:00:00:00:00", 1,
+				65536, "0x9", "unknown"
+		);
+
+		return sysClassNet;
+	}
+
+	private static void createInterface(
+			Path sysClassNet, Path device, String address, int index, int mtu, String flags,
+			String operState
+	) throws IOException {
+		Files.createDirectories(device);
+		write(device, "address", address);
+		write(device, "ifindex", String.valueOf(index));
+		write(device, "mtu", String.valueOf(mtu));
+		write(device, "flags", flags);
+		write(device, "operstate", operState);
+		Files.createSymbolicLink(sysClassNet.resolve(device.getFileName()), device);
+	}
+
+	private static void write(Path directory, String name, String value) throws IOException {
+		Files.write(directory.resolve(name), (value + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -38,6 +38,24 @@ public class OSTest {
 		assertThat(OS.MACOS.getVersionByVersionNumber("10.15.2")).isEqualTo(MacOSVersion.CATALINA);
 	}
 
+	@Test
+	public void macOSVersionNumbersShouldMatchDeepestVersion() {
+		assertThat(OS.MACOS.getVersionByVersionNumber("10.13.6")).
+				isEqualTo(MacOSVersion.HIGH_SIERRA);
+		assertThat(OS.MACOS.getVersionByVersionNumber(" 10.9 ")).isEqualTo(MacOSVersion.MAVERICKS);
+		assertThat(OS.MACOS.getVersionByVersionNumber("10")).isEqualTo(MacOSVersion.MOUNTAIN_LION);
+		assertThat(OS.MACOS.getVersionByVersionNumber("10.1").isUnknown()).isTrue();
+		assertThat(OS.MACOS.getVersionByVersionNumber("11.0").isUnknown()).isTrue();
+		assertThat(OS.LINUX.getVersionByVersionNumber("10.13").isUnknown()).isTrue();
+	}
+
+	@Test
+	public void versionNamesShouldBeCaseInsensitive() {
+		assertThat(OS.MACOS.getVersionByName(" MACOS HIGH SIERRA")).
+				isEqualTo(MacOSVersion.HIGH_SIERRA);
+		assertThat(OS.MACOS.getVersionByName("macOS High").isUnknown()).isTrue();
+	}
+
 	@Test
 	public void server2016ByNameShouldReturnCorrectVersion() {
 		assertThat(OS.WINDOWS.getVersionByName("Windows Server 2016")).
@@ -59,4 +77,27 @@ public class OSTest {
 	public void windows8ByNameShouldReturnCorrectOS() {
 		assertThat(OS.fromName("Windows 8")).isEqualTo(OS.WINDOWS);
 	}
+
+	@Test
+	public void windowsCEWithVersionByNameShouldReturnCorrectOS() {
+		assertThat(OS.fromName("  windows ce 6.0 ")).isEqualTo(OS.WINDOWS_CE);
+	}
+
+	@Test
+	public void linuxByNameShouldReturnCorrectOS() {
+		assertThat(OS.fromName("Linux")).isEqualTo(OS.LINUX);
+		assertThat(OS.fromName("GNU/kFreeBSD")).isEqualTo(OS.KFREEBSD);
+	}
+
+	@Test
+	public void macOSXByNameShouldReturnCorrectOS() {
+		assertThat(OS.fromName(new StringBuilder("Mac OS X"))).isEqualTo(OS.MACOS);
+	}
+
+	@Test
+	public void unknownNamesShouldReturnUnknown() {
+		assertThat(OS.fromName("")).isEqualTo(OS.UNKNOWN);
+		assertThat(OS.fromName("   ")).isEqualTo(OS.UNKNOWN);
+		assertThat(OS.fromName("Windo")).isEqualTo(OS.UNKNOWN);
+	}
 }
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class OSVersionTest {
+	@Test
+	public void versionsShouldBeOrderedNumerically() {
+		final List<OSVersion> versions = new ArrayList<>(WindowsVersion.getVersions());
+		versions.add(OSVersion.unknown());
+		Collections.shuffle(versions);
+		Collections.sort(versions);
+
+		assertThat(versions).containsExactly(
+				OSVersion.unknown(),
+				WindowsVersion.WINDOWS_SERVER_2008,
+				WindowsVersion.WINDOWS_VISTA,
+				WindowsVersion.WINDOWS_7,
+				WindowsVersion.WINDOWS_8,
+				WindowsVersion.WINDOWS_SERVER_2012,
+				WindowsVersion.WINDOWS_8_1,
+				WindowsVersion.WINDOWS_10,
+				WindowsVersion.WINDOWS_SERVER_2016
+		);
+	}
+
+	@Test
+	public void isAtLeastShouldCompareVersionComponents() {
+		assertThat(MacOSVersion.HIGH_SIERRA.getVersionComponents().toArray()).
+				containsExactly(10, 13);
+		assertThat(MacOSVersion.HIGH_SIERRA.isAtLeast(10)).isTrue();
+		assertThat(MacOSVersion.HIGH_SIERRA.isAtLeast(11)).isFalse();
+		assertThat(MacOSVersion.HIGH_SIERRA.isAtLeast(10, 13)).isTrue();
+		assertThat(MacOSVersion.HIGH_SIERRA.isAtLeast(10, 14)).isFalse();
+		assertThat(MacOSVersion.HIGH_SIERRA.isAtLeast(9, 99)).isTrue();
+		assertThat(WindowsVersion.WINDOWS_10.isAtLeast(WindowsVersion.WINDOWS_SERVER_2016)).
+				isTrue();
+		assertThat(WindowsVersion.WINDOWS_7.isAtLeast(WindowsVersion.WINDOWS_8)).isFalse();
+	}
+
+	@Test
+	public void isBetweenShouldBeInclusive() {
+		assertThat(MacOSVersion.MOJAVE.isBetween(MacOSVersion.SIERRA, MacOSVersion.MOJAVE)).
+				isTrue();
+		assertThat(MacOSVersion.CATALINA.isBetween(MacOSVersion.SIERRA, MacOSVersion.MOJAVE)).
+				isFalse();
+	}
+
+	@Test
+	public void unknownShouldNeverBeAtLeastAnything() {
+		assertThat(OSVersion.unknown().isAtLeast(0)).isFalse();
+		assertThat(OSVersion.unknown().isAtLeast(0, 0)).isFalse();
+		assertThat(MacOSVersion.CATALINA.isAtLeast(OSVersion.unknown())).isFalse();
+	}
+}
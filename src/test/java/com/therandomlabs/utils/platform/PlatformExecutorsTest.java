@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class PlatformExecutorsTest {
+	@Test
+	public void workloadsShouldBeSizedByEffectiveCPUs() {
+		assertThat(PlatformExecutors.Workload.CPU_BOUND.getThreadCount(4)).isEqualTo(4);
+		assertThat(PlatformExecutors.Workload.MIXED.getThreadCount(4)).isEqualTo(8);
+		assertThat(PlatformExecutors.Workload.IO_BOUND.getThreadCount(4)).isEqualTo(32);
+		assertThat(PlatformExecutors.Workload.CPU_BOUND.getQueueCapacity(4)).isEqualTo(256);
+	}
+
+	@Test
+	public void threadPoolExecutorShouldUseEffectiveCPUs() throws InterruptedException {
+		final int effectiveCPUs = ContainerLimits.current().getEffectiveCPUs();
+		final ThreadPoolExecutor executor = PlatformExecutors.newThreadPoolExecutor(
+				PlatformExecutors.Workload.MIXED, "test-mixed"
+		);
+
+		try {
+			assertThat(executor.getMaximumPoolSize()).isEqualTo(effectiveCPUs * 2);
+			assertThat(executor.getQueue().remainingCapacity()).isEqualTo(effectiveCPUs * 64);
+			assertThat(executor.submit(() -> Thread.currentThread().getName()).get()).
+					startsWith("test-mixed-");
+		} catch (Exception ex) {
+			throw new AssertionError(ex);
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1L, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void forkJoinPoolAndScheduledExecutorShouldUseEffectiveCPUs() {
+		final int effectiveCPUs = ContainerLimits.current().getEffectiveCPUs();
+		final ForkJoinPool pool =
+				PlatformExecutors.newForkJoinPool(PlatformExecutors.Workload.CPU_BOUND, "test-fj");
+		final ScheduledThreadPoolExecutor scheduled = PlatformExecutors.newScheduledExecutor(
+				PlatformExecutors.Workload.CPU_BOUND, "test-scheduled"
+		);
+
+		try {
+			assertThat(pool.getParallelism()).isEqualTo(effectiveCPUs);
+			assertThat(pool.submit(() -> Thread.currentThread().getName()).join()).
+					isEqualTo("test-fj-0");
+			assertThat(scheduled.getCorePoolSize()).isEqualTo(effectiveCPUs);
+		} finally {
+			pool.shutdown();
+			scheduled.shutdown();
+		}
+	}
+
+	@Test
+	public void ioBoundExecutorShouldUseVirtualThreadsIfSupported() {
+		final ExecutorService executor =
+				PlatformExecutors.newExecutor(PlatformExecutors.Workload.IO_BOUND, "test-io");
+
+		try {
+			assertThat(executor instanceof ThreadPoolExecutor).
+					isNotEqualTo(PlatformExecutors.isVirtualThreadSupported());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -24,8 +24,12 @@
 package com.therandomlabs.utils.platform;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 public class PlatformTest {
@@ -62,4 +66,14 @@ public class PlatformTest {
 	public void classLocationShouldNotBeNull() {
 		assertThat(Platform.getClassLocation(getClass())).isNotNull();
 	}
+
+	@Test
+	public void classLocationsShouldMatchIndividualClassLocations() {
+		final List<Class<?>> classes = Arrays.asList(getClass(), OSTest.class, Platform.class);
+		assertThat(Platform.getClassLocations(classes)).containsOnly(
+				entry(getClass(), Platform.getClassLocation(getClass())),
+				entry(OSTest.class, Platform.getClassLocation(OSTest.class)),
+				entry(Platform.class, Platform.getClassLocation(Platform.class))
+		);
+	}
 }
@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SearchPathIndexTest {
+	@TempDir
+	public Path tempDirectory;
+
+	@Test
+	public void earlierDirectoriesShouldTakePrecedence() throws IOException {
+		final Path first = Files.createDirectory(tempDirectory.resolve("first"));
+		final Path second = Files.createDirectory(tempDirectory.resolve("second"));
+		Files.createFile(first.resolve("a"));
+		Files.createFile(second.resolve("a"));
+		Files.createFile(second.resolve("b"));
+
+		final SearchPathIndex index = new SearchPathIndex(
+				Arrays.asList(first, tempDirectory.resolve("missing"), second)
+		);
+		assertThat(index.find("a")).isEqualTo(first.resolve("a"));
+		assertThat(index.find("b")).isEqualTo(second.resolve("b"));
+		assertThat(index.find("c")).isNull();
+	}
+
+	@Test
+	public void newFilesShouldBeFoundAfterRefresh() throws IOException {
+		final SearchPathIndex index =
+				new SearchPathIndex(ImmutableList.of(tempDirectory), Duration.ZERO);
+		assertThat(index.find("a")).isNull();
+
+		Files.createFile(tempDirectory.resolve("a"));
+		assertThat(index.find("a")).isEqualTo(tempDirectory.resolve("a"));
+
+		Files.delete(tempDirectory.resolve("a"));
+		assertThat(index.find("a")).isNull();
+	}
+
+	@Test
+	public void indexShouldNotBeRefreshedWithinRefreshInterval() throws IOException {
+		final SearchPathIndex index =
+				new SearchPathIndex(ImmutableList.of(tempDirectory), Duration.ofHours(1L));
+		assertThat(index.find("a")).isNull();
+
+		Files.createFile(tempDirectory.resolve("a"));
+		assertThat(index.find("a")).isNull();
+
+		index.invalidate();
+		assertThat(index.find("a")).isEqualTo(tempDirectory.resolve("a"));
+	}
+
+	@Test
+	public void librariesShouldBeFound() throws IOException {
+		final Path library = tempDirectory.resolve(System.mapLibraryName("foo"));
+		Files.createFile(library);
+		final SearchPathIndex index = new SearchPathIndex(ImmutableList.of(tempDirectory));
+		assertThat(index.findLibrary("foo")).isEqualTo(library);
+		assertThat(index.findLibrary("bar")).isNull();
+	}
+
+	@Test
+	public void nonExecutableFilesShouldNotBeExecutables() throws IOException {
+		assumeTrue(!CurrentPlatform.isWindowsOrWindowsCE());
+		final Path executable = Files.createFile(tempDirectory.resolve("executable"));
+		assumeTrue(executable.toFile().setExecutable(true));
+		final Path file = Files.createFile(tempDirectory.resolve("file"));
+
+		final SearchPathIndex index =
+				new SearchPathIndex(ImmutableList.of(tempDirectory), Duration.ofHours(1L));
+		assertThat(index.findExecutable("executable")).isEqualTo(executable);
+		assertThat(index.findExecutable("file")).isNull();
+
+		//Changing permissions does not change the directory, so the index is not refreshed,
+		//but the file should be checked again.
+		assumeTrue(file.toFile().setExecutable(true));
+		assertThat(index.findExecutable("file")).isEqualTo(file);
+	}
+
+	@Test
+	public void directoriesShouldNotBeExecutables() throws IOException {
+		assumeTrue(!CurrentPlatform.isWindowsOrWindowsCE());
+		final Path first = Files.createDirectory(tempDirectory.resolve("first"));
+		final Path second = Files.createDirectory(tempDirectory.resolve("second"));
+		Files.createDirectory(first.resolve("tool"));
+		final Path executable = Files.createFile(second.resolve("tool"));
+		assumeTrue(executable.toFile().setExecutable(true));
+
+		final SearchPathIndex index = new SearchPathIndex(ImmutableList.of(first, second));
+		assertThat(index.find("tool")).isEqualTo(first.resolve("tool"));
+		assertThat(index.findExecutable("tool")).isEqualTo(executable);
+		assertThat(index.findExecutable("missing")).isNull();
+	}
+
+	@Test
+	public void nonExecutableFilesShouldNotHideLaterExecutables() throws IOException {
+		assumeTrue(!CurrentPlatform.isWindowsOrWindowsCE());
+		final Path first = Files.createDirectory(tempDirectory.resolve("first"));
+		final Path second = Files.createDirectory(tempDirectory.resolve("second"));
+		final Path script = Files.createFile(first.resolve("script"));
+		final Path executable = Files.createFile(second.resolve("script"));
+		assumeTrue(executable.toFile().setExecutable(true));
+
+		final SearchPathIndex index =
+				new SearchPathIndex(ImmutableList.of(first, second), Duration.ofHours(1L));
+		assertThat(index.findExecutable("script")).isEqualTo(executable);
+
+		//The earlier file should take precedence as soon as it becomes executable.
+		assumeTrue(script.toFile().setExecutable(true));
+		assertThat(index.findExecutable("script")).isEqualTo(script);
+	}
+
+	@Test
+	public void searchPathShouldBeParsed() {
+		final String separator = File.pathSeparator;
+		assertThat(SearchPathIndex.parseSearchPath(null)).isEmpty();
+		assertThat(SearchPathIndex.parseSearchPath("a" + separator + separator + "b")).
+				extracting(Path::toString).
+				containsExactly("a", "b");
+	}
+
+	@Test
+	public void javaShouldBeFound() {
+		assertThat(Platform.findExecutable("java")).isNotNull();
+		assertThat(Platform.getJREExecutable("java")).isEqualTo(Platform.JAVA_EXECUTABLE);
+		assertThat(Platform.getJREExecutable("missing")).
+				isEqualTo(Platform.JRE_BIN_DIRECTORY.resolve(
+						CurrentPlatform.os() == OS.WINDOWS ? "missing.exe" : "missing"
+				));
+		assertThatThrownBy(() -> Platform.findExecutable(".." + File.separator + "java")).
+				isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.therandomlabs.utils.platform.systemproperty.type.IntProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PropertyOverridesTest {
+	private static final String KEY = "trlutils.platform.test.override";
+
+	private final IntProperty property = new IntProperty(KEY);
+
+	@AfterEach
+	public void clearProperty() {
+		System.clearProperty(KEY);
+	}
+
+	@Test
+	public void overridesShouldOnlyApplyToCurrentThread() throws Exception {
+		System.setProperty(KEY, "1");
+
+		final PropertyOverrides.Scope scope = property.override(2);
+
+		try {
+			assertThat(property.get()).isEqualTo(2);
+			assertThat(property.getRaw()).isEqualTo("2");
+			assertThat(System.getProperty(KEY)).isEqualTo("1");
+
+			final AtomicReference<Integer> otherValue = new AtomicReference<>();
+			final Thread thread = new Thread(() -> otherValue.set(property.get()));
+			thread.start();
+			thread.join();
+			assertThat(otherValue).hasValue(1);
+		} finally {
+			scope.close();
+		}
+
+		assertThat(property.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void nestedOverridesShouldBeRestored() {
+		final IntProperty other = new IntProperty(KEY);
+
+		final PropertyOverrides.Scope outer = property.override(2);
+
+		try {
+			final PropertyOverrides.Scope inner = property.override(null);
+			assertThat(property.hasValue()).isFalse();
+			//Overrides apply to SystemProperty instances rather than keys.
+			assertThat(other.hasValue()).isFalse();
+			System.setProperty(KEY, "3");
+			assertThat(other.get()).isEqualTo(3);
+			assertThat(property.hasValue()).isFalse();
+			inner.close();
+
+			assertThat(property.get()).isEqualTo(2);
+			outer.close();
+			outer.close();
+			assertThat(property.get()).isEqualTo(3);
+		} finally {
+			outer.close();
+		}
+	}
+
+	@Test
+	public void capturedOverridesShouldPropagateToOtherThreads()
+			throws ExecutionException, InterruptedException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final Callable<Integer> getValue = property::get;
+
+		final PropertyOverrides.Scope scope = property.override(4);
+
+		try {
+			final Future<Integer> plain = executor.submit(getValue);
+			assertThat(plain.get()).isNull();
+
+			final Future<Integer> wrapped =
+					executor.submit(PropertyOverrides.capture().wrap(getValue));
+			assertThat(wrapped.get()).isEqualTo(4);
+
+			final AtomicReference<Integer> propagated = new AtomicReference<>();
+			final ExecutorService single = Executors.newSingleThreadExecutor();
+			PropertyOverrides.propagating(single).execute(() -> propagated.set(property.get()));
+			single.shutdown();
+			single.awaitTermination(10L, TimeUnit.SECONDS);
+			assertThat(propagated).hasValue(4);
+		} finally {
+			scope.close();
+			executor.shutdown();
+		}
+
+		assertThat(PropertyOverrides.capture().isEmpty()).isTrue();
+	}
+
+	@Test
+	public void scopesShouldBeClosedOnCreatingThread() throws InterruptedException {
+		final PropertyOverrides.Scope scope = property.override(5);
+		final AtomicReference<Throwable> thrown = new AtomicReference<>();
+		final Thread thread = new Thread(() -> {
+			try {
+				scope.close();
+			} catch (IllegalStateException ex) {
+				thrown.set(ex);
+			}
+		});
+		thread.start();
+		thread.join();
+		scope.close();
+
+		assertThat(thrown.get()).isInstanceOf(IllegalStateException.class);
+		assertThat(property.get()).isNull();
+	}
+
+	@Test
+	public void propagatingExecutorShouldRequireExecutor() {
+		assertThatThrownBy(() -> PropertyOverrides.propagating(null)).
+				isInstanceOf(NullPointerException.class);
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.therandomlabs.utils.platform.systemproperty.type.StringProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PropertySnapshotTest {
+	@AfterEach
+	public void clearProperties() {
+		System.clearProperty(GroovySystemProperties.groovyHome.getKey());
+		System.clearProperty(GroovySystemProperties.programName.getKey());
+	}
+
+	@Test
+	public void declaredPropertiesShouldBeRegistered() {
+		assertThat(PropertySnapshot.getProperties()).contains(
+				SystemProperties.javaVersion,
+				SunSystemProperties.bootClassPath,
+				MiscSystemProperties.userZoneInfoDirectory
+		);
+		assertThat(PropertySnapshot.isDeclared(SystemProperties.javaClasspath)).isTrue();
+		assertThat(PropertySnapshot.isDeclared(new StringProperty("java.version"))).isFalse();
+	}
+
+	@Test
+	public void snapshotShouldContainCurrentValues() {
+		final PropertySnapshot snapshot = PropertySnapshot.take();
+		assertThat(snapshot.getRaw(SystemProperties.javaVersion)).
+				isEqualTo(System.getProperty("java.version"));
+		assertThat(snapshot.get(SystemProperties.javaClasspath)).
+				isEqualTo(SystemProperties.javaClasspath.get());
+		assertThat(snapshot.get(GroovySystemProperties.groovyHome)).isNull();
+
+		assertThatThrownBy(() -> snapshot.get(new StringProperty("java.version"))).
+				isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void diffShouldReturnChangedProperties() {
+		final PropertySnapshot older = PropertySnapshot.take();
+		assertThat(older.diff(PropertySnapshot.take())).isEmpty();
+
+		System.setProperty(GroovySystemProperties.groovyHome.getKey(), "groovy");
+		System.setProperty(GroovySystemProperties.programName.getKey(), "program");
+		final PropertySnapshot newer = PropertySnapshot.take();
+		final List<PropertySnapshot.Change<?>> changes = older.diff(newer);
+
+		//Properties are ordered by field name within each declaring class.
+		assertThat(changes).hasSize(2);
+		assertThat(changes.get(0).getProperty()).isSameAs(GroovySystemProperties.groovyHome);
+		assertThat(changes.get(1).getProperty()).isSameAs(GroovySystemProperties.programName);
+		assertThat(changes.get(0).getOldValue()).isNull();
+		assertThat(changes.get(0).getNewValue()).isEqualTo(Paths.get("groovy").toAbsolutePath());
+		assertThat(changes.get(1).getNewRaw()).isEqualTo("program");
+		assertThat(newer.diff(older)).hasSize(2);
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import com.therandomlabs.utils.platform.systemproperty.type.IntProperty;
+import com.therandomlabs.utils.platform.systemproperty.type.StringListProperty;
+import com.therandomlabs.utils.platform.systemproperty.type.StringProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PropertySourcesTest {
+	private static final String KEY = "trlutils.platform.test.source";
+
+	@TempDir
+	public Path tempDirectory;
+
+	@AfterEach
+	public void clearProperty() {
+		System.clearProperty(KEY);
+	}
+
+	@Test
+	public void environmentVariablesShouldBeRead() {
+		final PropertySource environment = PropertySources.environment();
+		assertThat(environment.getVersion()).isZero();
+		assertThat(environment.isWritable()).isFalse();
+		assertThat(new StringProperty("PATH", environment).get()).isEqualTo(System.getenv("PATH"));
+		assertThat(environment.get("path")).isEqualTo(System.getenv("PATH"));
+		assertThatThrownBy(() -> new StringProperty("PATH", environment).forceSet("value")).
+				isInstanceOf(UnsupportedOperationException.class);
+		//Properties over read-only sources are never editable.
+		assertThat(new IntProperty("PATH", true, environment).isEditable()).isFalse();
+		assertThat(new IntProperty(KEY, true).isEditable()).isTrue();
+	}
+
+	@Test
+	public void propertiesFilesShouldBeReloadedWhenChanged() throws IOException {
+		final Path file = tempDirectory.resolve("test.properties");
+		final PropertySource source = PropertySources.fromFile(file, Duration.ZERO);
+		final StringListProperty property = new StringListProperty(KEY, ",", source);
+		assertThat(property.get()).isNull();
+
+		write(file, KEY + " = a,b\\\n  ,c\n");
+		final List<String> list = property.get();
+		assertThat(list).containsExactly("a", "b", "c");
+		assertThat(property.get()).isSameAs(list);
+
+		final long version = source.getVersion();
+		write(file, KEY + "=d\n");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000L));
+		assertThat(property.get()).containsExactly("d");
+		assertThat(source.getVersion()).isGreaterThan(version);
+	}
+
+	@Test
+	public void unchangedVersionShouldSkipReading() throws IOException {
+		final Path file = tempDirectory.resolve("test.properties");
+		write(file, KEY + "=1\n");
+		final PropertySource source = PropertySources.fromFile(file, Duration.ofHours(1L));
+		final IntProperty property = new IntProperty(KEY, source);
+		assertThat(property.get()).isEqualTo(1);
+
+		write(file, KEY + "=2\n");
+		assertThat(property.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void directoryFilesShouldBeRead() throws IOException {
+		Files.createDirectories(tempDirectory.resolve("vm"));
+		write(tempDirectory.resolve("vm/swappiness"), "60\n");
+		final PropertySource source = PropertySources.fromDirectory(tempDirectory, '.');
+
+		assertThat(source.getVersion()).isEqualTo(PropertySource.UNTRACKED);
+		assertThat(new IntProperty("vm.swappiness", source).get()).isEqualTo(60);
+		assertThat(source.get("vm")).isNull();
+		assertThat(source.get("vm.missing")).isNull();
+		assertThat(source.get("..")).isNull();
+
+		write(tempDirectory.resolve("vm/swappiness"), "10\n");
+		assertThat(new IntProperty("vm.swappiness", source).get()).isEqualTo(10);
+	}
+
+	@Test
+	public void layeredSourcesShouldRespectPrecedence() throws IOException {
+		final Path first = tempDirectory.resolve("first.properties");
+		final Path second = tempDirectory.resolve("second.properties");
+		write(first, "a=first\n");
+		write(second, "a=second\nb=second\n");
+
+		final PropertySource files = PropertySources.layered(
+				PropertySources.fromFile(first), PropertySources.fromFile(second)
+		);
+		assertThat(files.get("a")).isEqualTo("first");
+		assertThat(files.get("b")).isEqualTo("second");
+		assertThat(files.get("c")).isNull();
+		assertThat(files.getVersion()).isZero();
+		assertThat(files.isWritable()).isFalse();
+
+		final PropertySource layered = PropertySources.layered(PropertySources.system(), files);
+		assertThat(layered.getVersion()).isEqualTo(PropertySource.UNTRACKED);
+
+		final StringProperty property = new StringProperty(KEY, true, layered);
+		assertThat(property.get()).isNull();
+		property.set("value");
+		assertThat(System.getProperty(KEY)).isEqualTo("value");
+		assertThat(property.get()).isEqualTo("value");
+	}
+
+	@Test
+	public void layeredWritesShouldCompareAgainstVisibleValue() throws IOException {
+		final Path file = tempDirectory.resolve("test.properties");
+		write(file, KEY + "=file\n");
+		final PropertySource fileSource = PropertySources.fromFile(file);
+
+		final StringProperty below = new StringProperty(
+				KEY, true, PropertySources.layered(PropertySources.system(), fileSource)
+		);
+		assertThat(below.compareAndSet("other", "value")).isFalse();
+		assertThat(below.compareAndSet("file", "value")).isTrue();
+		assertThat(System.getProperty(KEY)).isEqualTo("value");
+		assertThat(below.updateAndGet(value -> value + "2")).isEqualTo("value2");
+		System.clearProperty(KEY);
+
+		//A value set in the system properties would be hidden by the file, so setting it should
+		//fail rather than retry forever.
+		final StringProperty shadowed = new StringProperty(
+				KEY, true, PropertySources.layered(fileSource, PropertySources.system())
+		);
+		assertThat(shadowed.isEditable()).isTrue();
+		assertTimeoutPreemptively(Duration.ofSeconds(5L), () -> {
+			assertThatThrownBy(() -> shadowed.set("value")).
+					isInstanceOf(UnsupportedOperationException.class);
+			assertThatThrownBy(() -> shadowed.compareAndSet("file", "value")).
+					isInstanceOf(UnsupportedOperationException.class);
+		});
+		assertThat(System.getProperty(KEY)).isNull();
+		assertThat(shadowed.get()).isEqualTo("file");
+	}
+
+	@Test
+	public void layeredWritesShouldFailIfTheyWouldNotBeVisible() throws IOException {
+		final Path file = tempDirectory.resolve("test.properties");
+		write(file, KEY + "=file\n");
+		final PropertySource fileSource = PropertySources.fromFile(file);
+
+		final StringProperty below = new StringProperty(
+				KEY, true, PropertySources.layered(PropertySources.system(), fileSource)
+		);
+		//The previous value is the visible one, not the one in the system properties.
+		assertThat(below.forceSet("value")).isEqualTo("file");
+		assertThat(System.getProperty(KEY)).isEqualTo("value");
+
+		//Removing the system property would reveal the value in the file.
+		assertThatThrownBy(() -> below.set(null)).
+				isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> below.forceSet(null)).
+				isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> below.compareAndSet("value", null)).
+				isInstanceOf(UnsupportedOperationException.class);
+		assertThat(System.getProperty(KEY)).isEqualTo("value");
+		assertThat(below.get()).isEqualTo("value");
+
+		final StringProperty shadowed = new StringProperty(
+				KEY, true, PropertySources.layered(fileSource, PropertySources.system())
+		);
+		assertThatThrownBy(() -> shadowed.forceSet("other")).
+				isInstanceOf(UnsupportedOperationException.class);
+		assertThat(System.getProperty(KEY)).isEqualTo("value");
+
+		//Without a value in a lower source, the key can be removed.
+		final PropertySource environment = PropertySources.environment();
+		final StringProperty alone = new StringProperty(
+				KEY, true, PropertySources.layered(PropertySources.system(), environment)
+		);
+		assertThat(alone.set(null)).isEqualTo("value");
+		assertThat(System.getProperty(KEY)).isNull();
+	}
+
+	@Test
+	public void settingNullShouldClearSystemProperty() {
+		final StringProperty property = new StringProperty(KEY, true);
+		property.set("value");
+		assertThat(property.forceSet(null)).isEqualTo("value");
+		assertThat(System.getProperty(KEY)).isNull();
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+	}
+}
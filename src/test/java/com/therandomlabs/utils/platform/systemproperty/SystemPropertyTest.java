@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.therandomlabs.utils.platform.systemproperty.type.BooleanProperty;
+import com.therandomlabs.utils.platform.systemproperty.type.IntProperty;
+import com.therandomlabs.utils.platform.systemproperty.type.StringListProperty;
+import com.therandomlabs.utils.platform.systemproperty.type.StringProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SystemPropertyTest {
+	private static final String KEY = "trlutils.platform.test.property";
+
+	@AfterEach
+	public void clearProperty() {
+		System.clearProperty(KEY);
+	}
+
+	@Test
+	public void unchangedRawValueShouldReturnCachedValue() {
+		final StringListProperty property = new StringListProperty(KEY, ',');
+		System.setProperty(KEY, "a,b,c");
+		final List<String> list = property.get();
+		assertThat(list).containsExactly("a", "b", "c");
+		assertThat(property.get()).isSameAs(list);
+	}
+
+	@Test
+	public void changedRawValueShouldBeParsedAgain() {
+		final IntProperty property = new IntProperty(KEY, true);
+		System.setProperty(KEY, "1000");
+		assertThat(property.get()).isEqualTo(1000);
+		System.setProperty(KEY, "2000");
+		assertThat(property.get()).isEqualTo(2000);
+		property.set(3000);
+		assertThat(property.get()).isEqualTo(3000);
+		property.forceSet("invalid");
+		assertThat(property.get()).isNull();
+	}
+
+	@Test
+	public void primitiveAccessorsShouldReturnDefaultForInvalidValues() {
+		final IntProperty intProperty = new IntProperty(KEY);
+		final BooleanProperty booleanProperty = new BooleanProperty(KEY);
+		assertThat(intProperty.getAsInt(-1)).isEqualTo(-1);
+		assertThat(intProperty.getAsOptionalInt()).isEmpty();
+		assertThat(booleanProperty.getAsBoolean(true)).isTrue();
+
+		System.setProperty(KEY, "not a number");
+		assertThat(intProperty.getAsInt(-1)).isEqualTo(-1);
+		assertThat(booleanProperty.getAsBoolean(true)).isTrue();
+		assertThat(booleanProperty.get()).isFalse();
+
+		System.setProperty(KEY, "42");
+		assertThat(intProperty.getAsInt(-1)).isEqualTo(42);
+		assertThat(intProperty.getAsOptionalInt()).hasValue(42);
+	}
+
+	@Test
+	public void invalidRawValuesShouldBeBounded() {
+		final IntProperty property = new IntProperty(KEY);
+		assertThat(property.shouldWarnInvalid("invalid")).isTrue();
+		assertThat(property.shouldWarnInvalid("invalid")).isFalse();
+
+		for (int i = 0; i < 1000; i++) {
+			assertThat(property.shouldWarnInvalid("invalid" + i)).isTrue();
+		}
+
+		//The oldest invalid raw string value has been forgotten.
+		assertThat(property.shouldWarnInvalid("invalid")).isTrue();
+		assertThat(property.shouldWarnInvalid("invalid999")).isFalse();
+	}
+
+	@Test
+	public void compareAndSetShouldOnlySetExpectedValue() {
+		final IntProperty property = new IntProperty(KEY, true);
+		assertThat(property.compareAndSet(1, 2)).isFalse();
+		assertThat(property.compareAndSet(null, 1)).isTrue();
+		assertThat(property.getRaw()).isEqualTo("1");
+
+		//Raw string values that are different but convert to the same value are equal.
+		System.setProperty(KEY, "01");
+		assertThat(property.compareAndSet(1, null)).isTrue();
+		assertThat(property.hasValue()).isFalse();
+
+		assertThat(property.getAndSet(3)).isNull();
+		assertThat(property.getAndSet(4)).isEqualTo(3);
+		assertThat(property.updateAndGet(value -> value * 2)).isEqualTo(8);
+
+		assertThatThrownBy(() -> new IntProperty(KEY).compareAndSet(8, 9)).
+				isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void concurrentUpdatesShouldNotBeLost() throws InterruptedException {
+		final List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < 4; i++) {
+			//Separate instances with the same key should also be serialized.
+			final IntProperty property = new IntProperty(KEY, true);
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					property.updateAndGet(value -> value == null ? 1 : value + 1);
+				}
+			}));
+		}
+
+		threads.forEach(Thread::start);
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(new IntProperty(KEY).get()).isEqualTo(4000);
+	}
+
+	@Test
+	public void updatesShouldBeRetriedAfterExternalChanges() {
+		final IntProperty property = new IntProperty(KEY, true);
+		property.set(1);
+		final List<Integer> values = new ArrayList<>();
+
+		final Integer updated = property.updateAndGet(value -> {
+			values.add(value);
+
+			//Simulates a change made outside of this library between the read and the write.
+			if (values.size() == 1) {
+				System.setProperty(KEY, "10");
+			}
+
+			return value + 1;
+		});
+
+		assertThat(values).containsExactly(1, 10);
+		assertThat(updated).isEqualTo(11);
+		assertThat(property.get()).isEqualTo(11);
+	}
+
+	@Test
+	public void listenersShouldBeNotifiedOfChanges() {
+		final IntProperty property = new IntProperty(KEY, true);
+		final List<String> changes = new ArrayList<>();
+		final SystemPropertyListener<Integer> listener =
+				(changed, oldValue, newValue) -> changes.add(oldValue + "->" + newValue);
+		property.addListener(listener, MoreExecutors.directExecutor());
+
+		property.set(1);
+		property.set(1);
+		property.forceSet("invalid");
+		property.set(null);
+		//The invalid raw string value is converted to null, so removing it does not change the
+		//value.
+		assertThat(changes).containsExactly("null->1", "1->null");
+
+		property.set(3);
+		assertThat(changes).containsExactly("null->1", "1->null", "null->3");
+
+		assertThat(property.removeListener(listener)).isTrue();
+		assertThat(property.removeListener(listener)).isFalse();
+		property.set(2);
+		assertThat(changes).hasSize(3);
+	}
+
+	@Test
+	public void failingListenersShouldNotAffectOtherListeners() {
+		final StringProperty property = new StringProperty(KEY, true);
+		final List<String> values = new ArrayList<>();
+		property.addListener(
+				(changed, oldValue, newValue) -> {
+					throw new IllegalStateException();
+				},
+				MoreExecutors.directExecutor()
+		);
+		property.addListener(
+				(changed, oldValue, newValue) -> values.add(newValue),
+				MoreExecutors.directExecutor()
+		);
+
+		property.set("value");
+		assertThat(values).containsExactly("value");
+	}
+}
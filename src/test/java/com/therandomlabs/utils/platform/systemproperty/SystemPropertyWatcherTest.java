@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.utils.platform.systemproperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.therandomlabs.utils.platform.systemproperty.type.StringProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SystemPropertyWatcherTest {
+	private static final String KEY = "trlutils.platform.test.watcher";
+
+	@AfterEach
+	public void clearProperty() {
+		System.clearProperty(KEY);
+	}
+
+	@Test
+	public void directChangesShouldBeDetectedByScan() {
+		final StringProperty property = new StringProperty(KEY);
+		final List<String> values = new ArrayList<>();
+		final SystemPropertyListener<String> listener =
+				(changed, oldValue, newValue) -> values.add(oldValue + "->" + newValue);
+		property.addListener(listener, MoreExecutors.directExecutor());
+
+		try {
+			SystemPropertyWatcher.scan();
+			assertThat(values).isEmpty();
+
+			System.setProperty(KEY, "a");
+			SystemPropertyWatcher.scan();
+			SystemPropertyWatcher.scan();
+			assertThat(values).containsExactly("null->a");
+
+			System.setProperty(KEY, "b");
+			System.clearProperty(KEY);
+			SystemPropertyWatcher.scan();
+			assertThat(values).containsExactly("null->a", "a->null");
+		} finally {
+			property.removeListener(listener);
+		}
+	}
+
+	@Test
+	public void scannerShouldDetectChangesInBackground() throws InterruptedException {
+		final StringProperty property = new StringProperty(KEY);
+		final BlockingQueue<String> values = new LinkedBlockingQueue<>();
+		final SystemPropertyListener<String> listener =
+				(changed, oldValue, newValue) -> values.add(newValue);
+		property.addListener(listener);
+
+		try {
+			System.setProperty(KEY, "value");
+			assertThat(values.poll(10L, TimeUnit.SECONDS)).isEqualTo("value");
+		} finally {
+			property.removeListener(listener);
+		}
+	}
+}